@@ -1,7 +1,11 @@
 package de.rwth.idsg.steve;
 
+import com.google.common.base.Strings;
+import de.rwth.idsg.steve.ocpp.ws.custom.MessageIdGeneratorEnum;
+import de.rwth.idsg.steve.ocpp.ws.custom.OutboundOverflowPolicy;
 import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategyEnum;
 import de.rwth.idsg.steve.utils.PropertiesFileLoader;
+import de.rwth.idsg.steve.utils.StartupTimeline;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -10,6 +14,7 @@ import java.io.IOException;
 import java.util.TimeZone;
 
 import static de.rwth.idsg.steve.SteveConfiguration.Auth;
+import static de.rwth.idsg.steve.SteveConfiguration.Cluster;
 import static de.rwth.idsg.steve.SteveConfiguration.DB;
 import static de.rwth.idsg.steve.SteveConfiguration.Jetty;
 import static de.rwth.idsg.steve.SteveConfiguration.Ocpp;
@@ -32,7 +37,9 @@ public class Application {
         DateTimeZone.setDefault(DateTimeZone.UTC);
         log.info("Date/time zone of the application is set to UTC. Current date/time: {}", DateTime.now());
 
+        StartupTimeline.start("Loading of properties");
         loadProperties();
+        StartupTimeline.end("Loading of properties");
 
         log.info("Loaded the properties. Starting with the '{}' profile", PROFILE);
 
@@ -69,10 +76,86 @@ public class Application {
 
         Ocpp.WS_SESSION_SELECT_STRATEGY =
                 WsSessionSelectStrategyEnum.fromName(prop.getString("ws.session.select.strategy"));
+        Ocpp.MAILBOX_ENABLED = prop.getBoolean("ws.mailbox.enabled");
+        Ocpp.MAILBOX_THREADS = prop.getInt("ws.mailbox.threads");
+        Ocpp.MAILBOX_CAPACITY = prop.getInt("ws.mailbox.capacity");
+        Ocpp.OUTBOUND_BUFFER_SIZE = prop.getInt("ws.outbound.buffer.size");
+        Ocpp.OUTBOUND_OVERFLOW_POLICY =
+                OutboundOverflowPolicy.fromName(prop.getString("ws.outbound.overflow.policy"));
+        Ocpp.OUTBOUND_WRITER_THREADS = prop.getInt("ws.outbound.writer.threads");
+        Ocpp.CALL_TIMEOUT = prop.getInt("ws.call.timeout");
+        Ocpp.MESSAGE_ID_GENERATOR = MessageIdGeneratorEnum.fromName(prop.getString("ws.message.id.generator"));
+        Ocpp.TRACE_BUFFER_SIZE = prop.getInt("ws.trace.buffer.size");
+        Ocpp.REGISTRATION_REFRESH_INTERVAL = prop.getInt("ws.registration.refresh.interval");
+        Ocpp.HANDSHAKE_RATE = prop.getInt("ws.handshake.rate");
+        Ocpp.HANDSHAKE_BURST = prop.getInt("ws.handshake.burst");
+        Ocpp.HANDSHAKE_PER_IP_RATE = prop.getInt("ws.handshake.per.ip.rate");
+        Ocpp.HANDSHAKE_PER_IP_BURST = prop.getInt("ws.handshake.per.ip.burst");
+        Ocpp.BOOT_CONCURRENCY = prop.getInt("boot.notification.concurrency");
+        Ocpp.BOOT_RETRY_INTERVAL = prop.getInt("boot.notification.retry.interval");
+        Ocpp.HEARTBEAT_WRITE_BEHIND = prop.getBoolean("heartbeat.write.behind");
+        Ocpp.HEARTBEAT_FLUSH_INTERVAL = prop.getInt("heartbeat.flush.interval");
+        Ocpp.COMPRESSION_ENABLED = prop.getBoolean("ws.compression.enabled");
+        Ocpp.COMPRESSION_LEVEL = prop.getInt("ws.compression.level");
+        Ocpp.COMPRESSION_CONTEXT_TAKEOVER = prop.getBoolean("ws.compression.context.takeover");
+        Ocpp.MAX_MESSAGE_SIZE = prop.getInt("ws.max.message.size");
+        Ocpp.MAX_LARGE_MESSAGE_SIZE = prop.getInt("ws.max.large.message.size");
+        Ocpp.COMPACT_MODE = prop.getBoolean("ws.compact.mode");
+        Ocpp.FANOUT_PARALLELISM = prop.getInt("fanout.parallelism");
+        Ocpp.FANOUT_MAX_IN_FLIGHT = prop.getInt("fanout.max.in.flight");
+        Ocpp.FANOUT_TARGET_DEADLINE = prop.getInt("fanout.target.deadline");
+        Ocpp.METER_VALUES_WRITE_BEHIND = prop.getBoolean("metervalues.write.behind");
+        Ocpp.METER_VALUES_WRITER_THREADS = prop.getInt("metervalues.writer.threads");
+        Ocpp.METER_VALUES_QUEUE_SIZE = prop.getInt("metervalues.queue.size");
+        Ocpp.METER_VALUES_BATCH_SIZE = prop.getInt("metervalues.batch.size");
+        Ocpp.METER_VALUES_ENQUEUE_TIMEOUT = prop.getInt("metervalues.enqueue.timeout");
+
+        Ocpp.STATS_RECONCILE_INTERVAL = prop.getInt("stats.reconcile.interval");
+        Ocpp.EXPORT_TIMEOUT = prop.getInt("export.timeout");
+
+        Cluster.ENABLED         = prop.getBoolean("cluster.enabled");
+        Cluster.NODE_ADDRESS    = prop.getString("cluster.node.address");
+        Cluster.SECRET          = prop.getString("cluster.secret");
+        Cluster.LEASE_SECONDS   = prop.getInt("cluster.lease.seconds");
 
         if (!(Jetty.HTTP_ENABLED || Jetty.HTTPS_ENABLED)) {
             throw new IllegalArgumentException(
                     "HTTP and HTTPS are both disabled. Well, how do you want to access the server, then?");
         }
+
+        if (Ocpp.OUTBOUND_WRITER_THREADS <= 0) {
+            throw new IllegalArgumentException("ws.outbound.writer.threads must be positive");
+        }
+
+        if (Ocpp.HEARTBEAT_WRITE_BEHIND && Ocpp.HEARTBEAT_FLUSH_INTERVAL <= 0) {
+            throw new IllegalArgumentException("heartbeat.flush.interval must be positive");
+        }
+
+        if (Ocpp.COMPRESSION_LEVEL < 1 || Ocpp.COMPRESSION_LEVEL > 9) {
+            throw new IllegalArgumentException("ws.compression.level must be between 1 and 9");
+        }
+
+        if (Ocpp.MAILBOX_CAPACITY <= 0) {
+            throw new IllegalArgumentException("ws.mailbox.capacity must be positive");
+        }
+
+        if (Ocpp.FANOUT_PARALLELISM <= 0 || Ocpp.FANOUT_MAX_IN_FLIGHT <= 0) {
+            throw new IllegalArgumentException("fanout.parallelism and fanout.max.in.flight must be positive");
+        }
+
+        if (Ocpp.EXPORT_TIMEOUT < 0) {
+            throw new IllegalArgumentException("export.timeout must not be negative");
+        }
+
+        if (Cluster.ENABLED && (Strings.isNullOrEmpty(Cluster.SECRET) || "changeme".equals(Cluster.SECRET))) {
+            throw new IllegalArgumentException(
+                    "Cluster mode is enabled, but cluster.secret is not set. Set a long random secret on all nodes");
+        }
+
+        if (Cluster.ENABLED && Strings.isNullOrEmpty(Cluster.NODE_ADDRESS)) {
+            String scheme = Jetty.HTTP_ENABLED ? "http" : "https";
+            int port = Jetty.HTTP_ENABLED ? Jetty.HTTP_PORT : Jetty.HTTPS_PORT;
+            Cluster.NODE_ADDRESS = scheme + "://" + Jetty.SERVER_HOST + ":" + port;
+        }
     }
 }
@@ -1,5 +1,6 @@
 package de.rwth.idsg.steve;
 
+import de.rwth.idsg.steve.utils.StartupTimeline;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jetty.http.HttpScheme;
 import org.eclipse.jetty.http.HttpVersion;
@@ -41,6 +42,7 @@ public class JettyServer {
      * A fully configured Jetty Server instance
      */
     public void prepare() throws Exception {
+        StartupTimeline.start("Preparation of server");
 
         // === jetty.xml ===
         // Setup Threadpool
@@ -81,6 +83,8 @@ public class JettyServer {
 
         SteveAppContext steveAppContext = new SteveAppContext();
         server.setHandler(steveAppContext.getHandlers());
+
+        StartupTimeline.end("Preparation of server");
     }
 
     private ServerConnector httpConnector(HttpConfiguration httpConfig) {
@@ -127,7 +131,10 @@ public class JettyServer {
      */
     public void start() throws Exception {
         if (server != null) {
+            StartupTimeline.start("Start of server");
             server.start();
+            StartupTimeline.end("Start of server");
+            StartupTimeline.report();
         }
     }
 
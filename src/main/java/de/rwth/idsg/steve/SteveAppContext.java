@@ -1,5 +1,6 @@
 package de.rwth.idsg.steve;
 
+import de.rwth.idsg.steve.utils.StartupTimeline;
 import org.apache.cxf.transport.servlet.CXFServlet;
 import org.apache.tomcat.InstanceManager;
 import org.apache.tomcat.SimpleInstanceManager;
@@ -21,6 +22,7 @@ import org.springframework.web.filter.DelegatingFilterProxy;
 import org.springframework.web.servlet.DispatcherServlet;
 
 import javax.servlet.DispatcherType;
+import javax.servlet.ServletContextEvent;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.EnumSet;
@@ -35,8 +37,10 @@ public class SteveAppContext {
     private AnnotationConfigWebApplicationContext springContext;
 
     public SteveAppContext() {
+        StartupTimeline.start("Scan of Spring configuration");
         springContext = new AnnotationConfigWebApplicationContext();
         springContext.scan("de.rwth.idsg.steve.config");
+        StartupTimeline.end("Scan of Spring configuration");
     }
 
     public HandlerCollection getHandlers() throws IOException {
@@ -60,7 +64,10 @@ public class SteveAppContext {
         ServletHolder web = new ServletHolder("spring-dispatcher", new DispatcherServlet(springContext));
         ServletHolder cxf = new ServletHolder("cxf", new CXFServlet());
 
-        ctx.addEventListener(new ContextLoaderListener(springContext));
+        // For the calls forwarded by the other nodes of the cluster, which are answered asynchronously
+        web.setAsyncSupported(true);
+
+        ctx.addEventListener(new TimedContextLoaderListener(springContext));
         ctx.addServlet(web, SteveConfiguration.SPRING_MAPPING);
         ctx.addServlet(cxf, SteveConfiguration.CXF_MAPPING);
 
@@ -104,7 +111,7 @@ public class SteveAppContext {
     private void initJSP(WebAppContext ctx) throws IOException {
         ctx.setAttribute("org.eclipse.jetty.containerInitializers", jspInitializers());
         ctx.setAttribute(InstanceManager.class.getName(), new SimpleInstanceManager());
-        ctx.addBean(new ServletContainerInitializersStarter(ctx), true);
+        ctx.addBean(new TimedInitializersStarter(ctx), true);
     }
 
     /**
@@ -115,4 +122,37 @@ public class SteveAppContext {
         initializers.add(new ContainerInitializer(new JettyJasperInitializer(), null));
         return initializers;
     }
+
+    // -------------------------------------------------------------------------
+    // Startup timeline
+    // -------------------------------------------------------------------------
+
+    private static class TimedContextLoaderListener extends ContextLoaderListener {
+        TimedContextLoaderListener(AnnotationConfigWebApplicationContext context) {
+            super(context);
+        }
+
+        @Override
+        public void contextInitialized(ServletContextEvent event) {
+            StartupTimeline.start("Spring context");
+            super.contextInitialized(event);
+            StartupTimeline.end("Spring context");
+        }
+    }
+
+    /**
+     * Jasper (i.e. the scan of the tag libraries) is initialized here, when the web app context starts
+     */
+    private static class TimedInitializersStarter extends ServletContainerInitializersStarter {
+        TimedInitializersStarter(WebAppContext context) {
+            super(context);
+        }
+
+        @Override
+        public void doStart() {
+            StartupTimeline.start("JSP initialization");
+            super.doStart();
+            StartupTimeline.end("JSP initialization");
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package de.rwth.idsg.steve;
 
+import de.rwth.idsg.steve.ocpp.ws.custom.MessageIdGeneratorEnum;
+import de.rwth.idsg.steve.ocpp.ws.custom.OutboundOverflowPolicy;
 import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategyEnum;
 
 /**
@@ -71,6 +73,82 @@ public final class SteveConfiguration {
      */
     public static final class Ocpp {
         public static WsSessionSelectStrategyEnum WS_SESSION_SELECT_STRATEGY;
+
+        // Processing of incoming WebSocket messages in per-chargebox mailboxes
+        public static boolean MAILBOX_ENABLED;
+        public static int MAILBOX_THREADS;
+        public static int MAILBOX_CAPACITY;
+
+        // Outbound queue of every WebSocket session
+        public static int OUTBOUND_BUFFER_SIZE;
+        public static OutboundOverflowPolicy OUTBOUND_OVERFLOW_POLICY;
+        public static int OUTBOUND_WRITER_THREADS;
+
+        // Seconds to wait for the response of an outgoing call
+        public static int CALL_TIMEOUT;
+
+        public static MessageIdGeneratorEnum MESSAGE_ID_GENERATOR;
+
+        // Number of frames kept per chargebox, when tracing is switched on
+        public static int TRACE_BUFFER_SIZE;
+
+        // Seconds between the re-checks of the in-memory registration index against DB
+        public static int REGISTRATION_REFRESH_INTERVAL;
+
+        // Admission control of WebSocket handshakes (per second, 0 = unlimited)
+        public static int HANDSHAKE_RATE;
+        public static int HANDSHAKE_BURST;
+        public static int HANDSHAKE_PER_IP_RATE;
+        public static int HANDSHAKE_PER_IP_BURST;
+
+        // Max number of BootNotifications processed at the same time (0 = unlimited)
+        public static int BOOT_CONCURRENCY;
+        public static int BOOT_RETRY_INTERVAL;
+
+        // Write-behind of heartbeat timestamps, and the seconds between the batched writes
+        public static boolean HEARTBEAT_WRITE_BEHIND;
+        public static int HEARTBEAT_FLUSH_INTERVAL;
+
+        // permessage-deflate for WebSocket connections
+        public static boolean COMPRESSION_ENABLED;
+        public static int COMPRESSION_LEVEL;
+        public static boolean COMPRESSION_CONTEXT_TAKEOVER;
+
+        // Max size of incoming text messages in bytes, by default and while a large response is expected
+        public static int MAX_MESSAGE_SIZE;
+        public static int MAX_LARGE_MESSAGE_SIZE;
+
+        // Trims the per-connection structures for large numbers of idle connections
+        public static boolean COMPACT_MODE;
+
+        // Requests to multiple charge points: Per task, over all tasks, and the deadline (in seconds) per target
+        public static int FANOUT_PARALLELISM;
+        public static int FANOUT_MAX_IN_FLIGHT;
+        public static int FANOUT_TARGET_DEADLINE;
+
+        // Write-behind of MeterValues. Queue size over all shards, batch size in requests, timeout in ms
+        public static boolean METER_VALUES_WRITE_BEHIND;
+        public static int METER_VALUES_WRITER_THREADS;
+        public static int METER_VALUES_QUEUE_SIZE;
+        public static int METER_VALUES_BATCH_SIZE;
+        public static int METER_VALUES_ENQUEUE_TIMEOUT;
+
+        // Statistics of the home page are recounted from DB at this interval (in seconds)
+        public static int STATS_RECONCILE_INTERVAL;
+
+        // Max duration of a streamed export of transactions (in seconds), 0 = unlimited
+        public static int EXPORT_TIMEOUT;
+    }
+
+    /**
+     * Configuration of multiple nodes sharing one fleet
+     */
+    public static final class Cluster {
+        public static boolean ENABLED;
+        // Base URL of this node, as reachable by the other nodes
+        public static String NODE_ADDRESS;
+        public static String SECRET;
+        public static int LEASE_SECONDS;
     }
 
 }
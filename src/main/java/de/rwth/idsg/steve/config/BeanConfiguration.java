@@ -4,14 +4,17 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mysql.jdbc.jdbc2.optional.MysqlDataSource;
-import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.utils.HashedWheelTimer;
+import de.rwth.idsg.steve.utils.QueryCounter;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.SQLDialect;
 import org.jooq.conf.Settings;
 import org.jooq.impl.DataSourceConnectionProvider;
 import org.jooq.impl.DefaultConfiguration;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -47,28 +50,36 @@ import java.util.concurrent.TimeUnit;
 @ComponentScan("de.rwth.idsg.steve")
 public class BeanConfiguration extends WebMvcConfigurerAdapter {
 
+    @Autowired private StartupTasks startupTasks;
+
     private HikariDataSource dataSource;
     private ScheduledThreadPoolExecutor executor;
+    private HashedWheelTimer timer;
 
     /**
      * https://github.com/brettwooldridge/HikariCP/wiki/MySQL-Configuration
+     *
+     * The no-arg constructor of HikariDataSource does not start the pool, the first getConnection() does.
+     * The pool is started by a parallel step, so that connecting to DB overlaps with the creation of the
+     * remaining beans. A bean that needs a connection in the meantime waits for the pool to start.
      */
     private void initDataSource() {
 
-        HikariConfig config = new HikariConfig();
-        config.setDataSourceClassName(MysqlDataSource.class.getName());
+        HikariDataSource ds = new HikariDataSource();
+        ds.setDataSourceClassName(MysqlDataSource.class.getName());
 
-        config.addDataSourceProperty("serverName", SteveConfiguration.DB.IP);
-        config.addDataSourceProperty("port", SteveConfiguration.DB.PORT);
-        config.addDataSourceProperty("databaseName", SteveConfiguration.DB.SCHEMA);
-        config.addDataSourceProperty("user", SteveConfiguration.DB.USERNAME);
-        config.addDataSourceProperty("password", SteveConfiguration.DB.PASSWORD);
+        ds.addDataSourceProperty("serverName", SteveConfiguration.DB.IP);
+        ds.addDataSourceProperty("port", SteveConfiguration.DB.PORT);
+        ds.addDataSourceProperty("databaseName", SteveConfiguration.DB.SCHEMA);
+        ds.addDataSourceProperty("user", SteveConfiguration.DB.USERNAME);
+        ds.addDataSourceProperty("password", SteveConfiguration.DB.PASSWORD);
 
-        config.addDataSourceProperty("cachePrepStmts", "true");
-        config.addDataSourceProperty("prepStmtCacheSize", "250");
-        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        ds.addDataSourceProperty("cachePrepStmts", "true");
+        ds.addDataSourceProperty("prepStmtCacheSize", "250");
+        ds.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
 
-        dataSource = new HikariDataSource(config);
+        dataSource = ds;
+        startupTasks.submit("Hikari connection pool", () -> ds.getConnection().close());
     }
 
     @Bean
@@ -80,7 +91,8 @@ public class BeanConfiguration extends WebMvcConfigurerAdapter {
         return new DefaultConfiguration()
                 .set(SQLDialect.MYSQL)
                 .set(new DataSourceConnectionProvider(dataSource))
-                .set(new Settings().withExecuteLogging(SteveConfiguration.DB.SQL_LOGGING));
+                .set(new Settings().withExecuteLogging(SteveConfiguration.DB.SQL_LOGGING))
+                .set(new DefaultExecuteListenerProvider(new QueryCounter()));
     }
 
     @Bean
@@ -92,12 +104,26 @@ public class BeanConfiguration extends WebMvcConfigurerAdapter {
         return executor;
     }
 
+    /**
+     * Shared timer for the large number of timeouts related to WebSocket sessions (e.g. deadlines of
+     * outgoing calls). 100 ms precision is more than enough for these.
+     */
+    @Bean
+    public HashedWheelTimer hashedWheelTimer() {
+        timer = new HashedWheelTimer("SteVe-Timer", 100, TimeUnit.MILLISECONDS, 512);
+        return timer;
+    }
+
     @PreDestroy
     public void shutDown() {
         if (dataSource != null) {
             dataSource.close();
         }
 
+        if (timer != null) {
+            timer.stop();
+        }
+
         if (executor != null) {
             gracefulShutDown(executor);
         }
@@ -0,0 +1,32 @@
+package de.rwth.idsg.steve.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * The controllers of the web interface are not needed to accept OCPP traffic. Marking them lazy moves their
+ * creation from the startup to the first request, which uses them. The request mappings are still detected
+ * at startup, since Spring detects them by the bean types without creating the beans.
+ *
+ * @since 18.10.2026
+ */
+@Component
+public class LazyWebControllerPostProcessor implements BeanFactoryPostProcessor {
+
+    private static final String CONTROLLER_PACKAGE = "de.rwth.idsg.steve.web.controller.";
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            String className = definition.getBeanClassName();
+
+            if (className != null && className.startsWith(CONTROLLER_PACKAGE)) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+}
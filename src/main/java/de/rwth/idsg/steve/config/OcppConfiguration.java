@@ -3,7 +3,10 @@ package de.rwth.idsg.steve.config;
 import de.rwth.idsg.steve.ocpp.soap.MediatorInInterceptor;
 import de.rwth.idsg.steve.ocpp.soap.MessageIdInterceptor;
 import de.rwth.idsg.steve.ocpp.ws.custom.AlwaysLastStrategy;
+import de.rwth.idsg.steve.ocpp.ws.custom.CounterMessageIdGenerator;
+import de.rwth.idsg.steve.ocpp.ws.custom.MessageIdGenerator;
 import de.rwth.idsg.steve.ocpp.ws.custom.RoundRobinStrategy;
+import de.rwth.idsg.steve.ocpp.ws.custom.UuidMessageIdGenerator;
 import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategy;
 import org.apache.cxf.Bus;
 import org.apache.cxf.bus.spring.SpringBus;
@@ -22,7 +25,9 @@ import org.springframework.context.annotation.Configuration;
 import javax.annotation.PostConstruct;
 import java.util.List;
 
+import static de.rwth.idsg.steve.SteveConfiguration.Ocpp.MESSAGE_ID_GENERATOR;
 import static de.rwth.idsg.steve.SteveConfiguration.Ocpp.WS_SESSION_SELECT_STRATEGY;
+import static de.rwth.idsg.steve.SteveConfiguration.PROFILE;
 import static de.rwth.idsg.steve.SteveConfiguration.ROUTER_ENDPOINT_PATH;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -47,16 +52,28 @@ public class OcppConfiguration {
     @Qualifier("FromAddressInterceptor")
     private PhaseInterceptor<Message> fromAddressInterceptor;
 
+    @Autowired private StartupTasks startupTasks;
+
+    /**
+     * Creating an endpoint (service model, JAXB context) is slow, and the endpoints are independent of each
+     * other. Therefore, they are created in parallel to each other and to the remaining beans.
+     */
     @PostConstruct
     public void init() {
         List<Interceptor<? extends Message>> route = singletonList(new MediatorInInterceptor());
         List<Interceptor<? extends Message>> interceptors = asList(new MessageIdInterceptor(), fromAddressInterceptor);
 
+        // Resolve the bus here, and not in the parallel steps (see StartupTasks)
+        Bus bus = springBus();
+
         // Just a dummy service to route incoming messages to the appropriate service version
-        createOcppService(ocpp12Server, ROUTER_ENDPOINT_PATH, route);
+        startupTasks.submit("CXF router endpoint",
+                () -> createOcppService(bus, ocpp12Server, ROUTER_ENDPOINT_PATH, route));
 
-        createOcppService(ocpp12Server, "/CentralSystemServiceOCPP12", interceptors);
-        createOcppService(ocpp15Server, "/CentralSystemServiceOCPP15", interceptors);
+        startupTasks.submit("CXF OCPP 1.2 endpoint",
+                () -> createOcppService(bus, ocpp12Server, "/CentralSystemServiceOCPP12", interceptors));
+        startupTasks.submit("CXF OCPP 1.5 endpoint",
+                () -> createOcppService(bus, ocpp15Server, "/CentralSystemServiceOCPP15", interceptors));
     }
 
     /**
@@ -68,7 +85,14 @@ public class OcppConfiguration {
     @Bean(name = Bus.DEFAULT_BUS_ID, destroyMethod = "shutdown")
     public SpringBus springBus() {
         SpringBus bus = new SpringBus();
-        bus.getFeatures().add(new LoggingFeature()); // Log incoming/outgoing messages
+
+        // Log incoming/outgoing messages. In production only the headers (the payload is cut to 0 bytes), since
+        // logging the whole messages is way too expensive at high message rates.
+        if (PROFILE.isProd()) {
+            bus.getFeatures().add(new LoggingFeature(0));
+        } else {
+            bus.getFeatures().add(new LoggingFeature());
+        }
         return bus;
     }
 
@@ -84,10 +108,22 @@ public class OcppConfiguration {
         }
     }
 
-    private void createOcppService(Object serviceBean, String address,
-                                   List<Interceptor<? extends Message>> interceptors) {
+    @Bean
+    public MessageIdGenerator messageIdGenerator() {
+        switch (MESSAGE_ID_GENERATOR) {
+            case COUNTER:
+                return new CounterMessageIdGenerator();
+            case UUID:
+                return new UuidMessageIdGenerator();
+            default:
+                throw new RuntimeException("Could not find a valid MessageIdGenerator");
+        }
+    }
+
+    private static void createOcppService(Bus bus, Object serviceBean, String address,
+                                          List<Interceptor<? extends Message>> interceptors) {
         JaxWsServerFactoryBean f = new JaxWsServerFactoryBean();
-        f.setBus(springBus());
+        f.setBus(bus);
         f.setServiceBean(serviceBean);
         f.setAddress(address);
         f.getInInterceptors().addAll(interceptors);
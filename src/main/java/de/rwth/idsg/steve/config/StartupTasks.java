@@ -0,0 +1,89 @@
+package de.rwth.idsg.steve.config;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.utils.StartupTimeline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs setup steps, that do not depend on each other, in parallel to the creation of the remaining beans.
+ * Spring itself creates the beans one after another.
+ *
+ * The steps are awaited when the context is refreshed, i.e. before Jetty opens the connectors. Therefore,
+ * the server does not accept traffic before everything is set up, and a failed step fails the startup
+ * as before.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class StartupTasks {
+
+    private static final int THREAD_COUNT = 4;
+
+    private final ExecutorService threads;
+    private final List<Future<?>> futures = new CopyOnWriteArrayList<>();
+
+    public StartupTasks() {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("SteVe-Startup-%d")
+                                                                .build();
+        threads = Executors.newFixedThreadPool(THREAD_COUNT, threadFactory);
+    }
+
+    /**
+     * The step must not get beans from the context, since the thread creating the beans holds the lock
+     * of the singletons. Resolve them beforehand and pass them to the step.
+     */
+    public void submit(String name, Step step) {
+        futures.add(threads.submit(() -> {
+            StartupTimeline.start(name);
+            try {
+                step.run();
+            } finally {
+                StartupTimeline.end(name);
+            }
+            return null;
+        }));
+    }
+
+    @EventListener
+    public void awaitAll(ContextRefreshedEvent event) {
+        try {
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SteveException("Interrupted while waiting for the setup steps", e);
+
+        } catch (ExecutionException e) {
+            throw new SteveException("A setup step failed", e.getCause());
+
+        } finally {
+            futures.clear();
+            threads.shutdown();
+        }
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        threads.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface Step {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,43 @@
+package de.rwth.idsg.steve.config;
+
+import de.rwth.idsg.steve.utils.StartupTimeline;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures the time from the instantiation of a bean until it is fully initialized, for the startup timeline.
+ * Highest precedence, so that it is registered before the other post processors and sees (almost) all beans.
+ *
+ * @since 18.10.2026
+ */
+@Component
+public class StartupTimelinePostProcessor extends InstantiationAwareBeanPostProcessorAdapter
+        implements PriorityOrdered {
+
+    // Key = bean name, value = start in millis since epoch
+    private final ConcurrentHashMap<String, Long> starts = new ConcurrentHashMap<>();
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+        starts.put(beanName, System.currentTimeMillis());
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Long start = starts.remove(beanName);
+        if (start != null) {
+            StartupTimeline.bean(beanName, start);
+        }
+        return bean;
+    }
+}
@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationIntrospector;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.ocpp.AdmissionControl;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.OcppPerMessageDeflateExtension;
 import de.rwth.idsg.steve.ocpp.ws.OcppWebSocketUpgrader;
 import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12JacksonModule;
 import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12WebSocketEndpoint;
@@ -15,6 +18,8 @@ import de.rwth.idsg.steve.repository.ChargePointRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jetty.websocket.api.WebSocketBehavior;
 import org.eclipse.jetty.websocket.api.WebSocketPolicy;
+import org.eclipse.jetty.websocket.api.extensions.ExtensionFactory;
+import org.eclipse.jetty.websocket.server.WebSocketServerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -40,10 +45,12 @@ public class WebSocketConfiguration implements WebSocketConfigurer {
     @Autowired private Ocpp12WebSocketEndpoint ocpp12WebSocketEndpoint;
     @Autowired private Ocpp15WebSocketEndpoint ocpp15WebSocketEndpoint;
     @Autowired private ChargePointRepository chargePointRepository;
+    @Autowired private AdmissionControl admissionControl;
 
     public static final long IDLE_TIMEOUT = TimeUnit.HOURS.toMillis(2);
     public static final long PING_INTERVAL = 15; // in minutes
-    private static final int MAX_MSG_SIZE = 8388608; // 8 MB for max message size
+
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
 
     // The order affects the choice
     private static final String[] PROTOCOLS = {
@@ -54,12 +61,16 @@ public class WebSocketConfiguration implements WebSocketConfigurer {
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         WebSocketPolicy policy = new WebSocketPolicy(WebSocketBehavior.SERVER);
-        policy.setMaxTextMessageBufferSize(MAX_MSG_SIZE);
-        policy.setMaxTextMessageSize(MAX_MSG_SIZE);
+        // The default for all sessions. Raised per session, while a large response is expected.
+        policy.setMaxTextMessageBufferSize(SteveConfiguration.Ocpp.MAX_MESSAGE_SIZE);
+        policy.setMaxTextMessageSize(SteveConfiguration.Ocpp.MAX_MESSAGE_SIZE);
         policy.setIdleTimeout(IDLE_TIMEOUT);
 
+        WebSocketServerFactory factory = new WebSocketServerFactory(policy);
+        configureCompression(factory.getExtensionFactory());
+
         OcppWebSocketUpgrader upgradeStrategy = new OcppWebSocketUpgrader(
-                policy, ocpp12WebSocketEndpoint, ocpp15WebSocketEndpoint, chargePointRepository);
+                factory, ocpp12WebSocketEndpoint, ocpp15WebSocketEndpoint, chargePointRepository, admissionControl);
 
         DefaultHandshakeHandler handler = new DefaultHandshakeHandler(upgradeStrategy);
         handler.setSupportedProtocols(PROTOCOLS);
@@ -70,6 +81,21 @@ public class WebSocketConfiguration implements WebSocketConfigurer {
                 .setAllowedOrigins("*");
     }
 
+    /**
+     * The extension is only negotiated, if the client offers it. Clients without it are not affected.
+     *
+     * Jetty registers its compression extensions by default. If the option is disabled, they are left in
+     * place, so that clients keep the compression they negotiated so far. If enabled, Jetty's
+     * permessage-deflate is replaced by the configurable one.
+     */
+    private static void configureCompression(ExtensionFactory extensionFactory) {
+        if (SteveConfiguration.Ocpp.COMPRESSION_ENABLED) {
+            extensionFactory.unregister(PERMESSAGE_DEFLATE);
+            extensionFactory.register(PERMESSAGE_DEFLATE, OcppPerMessageDeflateExtension.class);
+            log.info("WebSocket compression ({}) is enabled", PERMESSAGE_DEFLATE);
+        }
+    }
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,93 @@
+package de.rwth.idsg.steve.ocpp;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.utils.LatencyHistogram;
+import de.rwth.idsg.steve.utils.QueryCounter;
+import de.rwth.idsg.steve.web.dto.OcppActionStats;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatch table of the incoming requests of one OCPP version. The operations are registered once at startup,
+ * and the lookup is by the class of the request. Both the JSON call handler and the SOAP server of the version
+ * go through the same table, so that the latency histograms and error counters of an action cover all
+ * transports.
+ *
+ * @since 18.10.2026
+ */
+@RequiredArgsConstructor
+public abstract class AbstractCentralSystemDispatcher {
+
+    private final OcppVersion version;
+
+    // Only written during the initialization. Classes are compared by identity anyway
+    private final Map<Class<?>, Entry<?, ?>> table = new IdentityHashMap<>();
+
+    protected <REQ extends RequestType, RES extends ResponseType> void register(Class<REQ> clazz,
+                                                                                OcppOperation<REQ, RES> op) {
+        String action = clazz.getSimpleName().replace("Request", "");
+        table.put(clazz, new Entry<>(action, op));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <REQ extends RequestType, RES extends ResponseType> RES dispatch(REQ params, String chargeBoxId,
+                                                                            OcppProtocol protocol) {
+        Entry<REQ, RES> entry = (Entry<REQ, RES>) table.get(params.getClass());
+        if (entry == null) {
+            throw new SteveException("No operation is registered for '%s' of %s",
+                                     params.getClass().getSimpleName(), version.getValue());
+        }
+        return entry.process(params, chargeBoxId, protocol);
+    }
+
+    public List<OcppActionStats> getStats() {
+        List<OcppActionStats> list = new ArrayList<>(table.size());
+        for (Entry<?, ?> entry : table.values()) {
+            LatencyHistogram h = entry.histogram;
+            long count = h.getCount();
+            double avgQueries = count == 0 ? 0 : Math.round(entry.queries.sum() * 100.0 / count) / 100.0;
+            list.add(OcppActionStats.builder()
+                                    .version(version)
+                                    .action(entry.action)
+                                    .count(count)
+                                    .errorCount(h.getErrorCount())
+                                    .avgMicros(h.getAvgMicros())
+                                    .p50Micros(h.getPercentileMicros(50))
+                                    .p99Micros(h.getPercentileMicros(99))
+                                    .maxMicros(h.getMaxMicros())
+                                    .avgQueries(avgQueries)
+                                    .build());
+        }
+        list.sort((s1, s2) -> s1.getAction().compareTo(s2.getAction()));
+        return list;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry<REQ extends RequestType, RES extends ResponseType> {
+        private final String action;
+        private final OcppOperation<REQ, RES> op;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        // SQL statements executed while processing, in total
+        private final LongAdder queries = new LongAdder();
+
+        private RES process(REQ params, String chargeBoxId, OcppProtocol protocol) {
+            long start = System.nanoTime();
+            long queriesBefore = QueryCounter.current();
+            try {
+                return op.process(params, chargeBoxId, protocol);
+            } catch (RuntimeException e) {
+                histogram.recordError();
+                throw e;
+            } finally {
+                histogram.record(System.nanoTime() - start);
+                queries.add(QueryCounter.current() - queriesBefore);
+            }
+        }
+    }
+}
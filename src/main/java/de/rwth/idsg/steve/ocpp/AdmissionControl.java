@@ -0,0 +1,176 @@
+package de.rwth.idsg.steve.ocpp;
+
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.utils.PeriodicTask;
+import de.rwth.idsg.steve.utils.TokenBucket;
+import de.rwth.idsg.steve.web.dto.AdmissionStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * When a whole fleet reconnects at once (e.g. after a network outage), every charge point opens a connection
+ * and sends a BootNotification, which both hit the DB. To smooth such a reconnect storm:
+ *
+ * 1. WebSocket handshakes are limited by a global token bucket, and optionally by one per source IP.
+ *    A deferred handshake is answered with 503 and Retry-After, and the charge point tries again later.
+ *
+ * 2. The number of BootNotifications processed at the same time is capped. A deferred BootNotification is
+ *    answered with status Rejected and a randomized retry interval, as intended by OCPP.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+
+    @Autowired private ScheduledExecutorService executor;
+
+    private static final long SWEEP_PERIOD = 1; // in minutes
+
+    // Null, if disabled
+    private TokenBucket globalBucket;
+    private Semaphore bootPermits;
+
+    // Key = source IP
+    private final ConcurrentHashMap<String, TokenBucket> ipBuckets = new ConcurrentHashMap<>();
+    private boolean perIpLimited;
+
+    private final LongAdder handshakesAccepted = new LongAdder();
+    private final LongAdder handshakesDeferred = new LongAdder();
+    private final LongAdder bootsAccepted = new LongAdder();
+    private final LongAdder bootsDeferred = new LongAdder();
+
+    private ScheduledFuture sweepSchedule;
+
+    @PostConstruct
+    public void init() {
+        if (SteveConfiguration.Ocpp.HANDSHAKE_RATE > 0) {
+            globalBucket = new TokenBucket(SteveConfiguration.Ocpp.HANDSHAKE_RATE,
+                                           SteveConfiguration.Ocpp.HANDSHAKE_BURST);
+        }
+
+        if (SteveConfiguration.Ocpp.HANDSHAKE_PER_IP_RATE > 0) {
+            perIpLimited = true;
+            sweepSchedule = PeriodicTask.schedule(executor, "Sweeping the IP buckets", this::sweepIpBuckets,
+                                                  SWEEP_PERIOD, TimeUnit.MINUTES);
+        }
+
+        if (SteveConfiguration.Ocpp.BOOT_CONCURRENCY > 0) {
+            bootPermits = new Semaphore(SteveConfiguration.Ocpp.BOOT_CONCURRENCY);
+        }
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (sweepSchedule != null) {
+            sweepSchedule.cancel(false);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // WebSocket handshakes
+    // -------------------------------------------------------------------------
+
+    /**
+     * @param sourceIp Can be null, if unknown
+     * @return 0, if the handshake is admitted. Otherwise, the seconds after which the client should retry
+     */
+    public long tryAdmitHandshake(String sourceIp) {
+        long waitNanos = 0;
+
+        if (perIpLimited && sourceIp != null) {
+            waitNanos = ipBuckets.computeIfAbsent(sourceIp, k -> newIpBucket()).tryAcquire();
+        }
+
+        // Do not consume a global token for a handshake that is deferred anyway
+        if (waitNanos == 0 && globalBucket != null) {
+            waitNanos = globalBucket.tryAcquire();
+        }
+
+        if (waitNanos == 0) {
+            handshakesAccepted.increment();
+            return 0;
+        }
+
+        handshakesDeferred.increment();
+
+        // Spread the retries of the deferred clients over twice the wait time, so that they do not come back
+        // all at the same moment
+        long waitSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+        return waitSeconds + ThreadLocalRandom.current().nextLong(waitSeconds + 1);
+    }
+
+    // -------------------------------------------------------------------------
+    // BootNotifications
+    // -------------------------------------------------------------------------
+
+    /**
+     * If true is returned, the caller must call endBoot() after processing
+     */
+    public boolean tryStartBoot() {
+        if (bootPermits == null || bootPermits.tryAcquire()) {
+            bootsAccepted.increment();
+            return true;
+        } else {
+            bootsDeferred.increment();
+            return false;
+        }
+    }
+
+    public void endBoot() {
+        if (bootPermits != null) {
+            bootPermits.release();
+        }
+    }
+
+    /**
+     * @return seconds, after which the charge point should retry a deferred BootNotification
+     */
+    public int getBootRetryInterval() {
+        int interval = SteveConfiguration.Ocpp.BOOT_RETRY_INTERVAL;
+        return interval + ThreadLocalRandom.current().nextInt(interval + 1);
+    }
+
+    public AdmissionStats getStats() {
+        int bootConcurrency = SteveConfiguration.Ocpp.BOOT_CONCURRENCY;
+
+        return AdmissionStats.builder()
+                             .handshakeLimited(globalBucket != null)
+                             .perIpLimited(perIpLimited)
+                             .trackedIps(ipBuckets.size())
+                             .handshakesAccepted(handshakesAccepted.sum())
+                             .handshakesDeferred(handshakesDeferred.sum())
+                             .bootConcurrency(bootConcurrency)
+                             .bootsActive(bootPermits == null ? 0 : bootConcurrency - bootPermits.availablePermits())
+                             .bootsAccepted(bootsAccepted.sum())
+                             .bootsDeferred(bootsDeferred.sum())
+                             .build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private static TokenBucket newIpBucket() {
+        return new TokenBucket(SteveConfiguration.Ocpp.HANDSHAKE_PER_IP_RATE,
+                               SteveConfiguration.Ocpp.HANDSHAKE_PER_IP_BURST);
+    }
+
+    /**
+     * A full bucket is the same as a new one. Remove them, so that the map does not grow with every IP ever seen.
+     */
+    private void sweepIpBuckets() {
+        ipBuckets.entrySet().removeIf(e -> e.getValue().isFull());
+    }
+}
@@ -0,0 +1,45 @@
+package de.rwth.idsg.steve.ocpp;
+
+import de.rwth.idsg.steve.service.CentralSystemService12_Service;
+import ocpp.cs._2010._08.AuthorizeRequest;
+import ocpp.cs._2010._08.BootNotificationRequest;
+import ocpp.cs._2010._08.DiagnosticsStatusNotificationRequest;
+import ocpp.cs._2010._08.FirmwareStatusNotificationRequest;
+import ocpp.cs._2010._08.HeartbeatRequest;
+import ocpp.cs._2010._08.MeterValuesRequest;
+import ocpp.cs._2010._08.StartTransactionRequest;
+import ocpp.cs._2010._08.StatusNotificationRequest;
+import ocpp.cs._2010._08.StopTransactionRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Dispatch table of OCPP 1.2, shared by the JSON and SOAP transports
+ *
+ * @since 18.10.2026
+ */
+@Component
+public class CentralSystemService12_Dispatcher extends AbstractCentralSystemDispatcher {
+
+    @Autowired private CentralSystemService12_Service service;
+
+    public CentralSystemService12_Dispatcher() {
+        super(OcppVersion.V_12);
+    }
+
+    @PostConstruct
+    public void init() {
+        register(BootNotificationRequest.class, service::bootNotification);
+        register(FirmwareStatusNotificationRequest.class, (p, id, pr) -> service.firmwareStatusNotification(p, id));
+        register(StatusNotificationRequest.class, (p, id, pr) -> service.statusNotification(p, id));
+        register(MeterValuesRequest.class, (p, id, pr) -> service.meterValues(p, id));
+        register(DiagnosticsStatusNotificationRequest.class,
+                (p, id, pr) -> service.diagnosticsStatusNotification(p, id));
+        register(StartTransactionRequest.class, (p, id, pr) -> service.startTransaction(p, id));
+        register(StopTransactionRequest.class, (p, id, pr) -> service.stopTransaction(p, id));
+        register(HeartbeatRequest.class, (p, id, pr) -> service.heartbeat(p, id));
+        register(AuthorizeRequest.class, (p, id, pr) -> service.authorize(p, id));
+    }
+}
@@ -0,0 +1,47 @@
+package de.rwth.idsg.steve.ocpp;
+
+import de.rwth.idsg.steve.service.CentralSystemService15_Service;
+import ocpp.cs._2012._06.AuthorizeRequest;
+import ocpp.cs._2012._06.BootNotificationRequest;
+import ocpp.cs._2012._06.DataTransferRequest;
+import ocpp.cs._2012._06.DiagnosticsStatusNotificationRequest;
+import ocpp.cs._2012._06.FirmwareStatusNotificationRequest;
+import ocpp.cs._2012._06.HeartbeatRequest;
+import ocpp.cs._2012._06.MeterValuesRequest;
+import ocpp.cs._2012._06.StartTransactionRequest;
+import ocpp.cs._2012._06.StatusNotificationRequest;
+import ocpp.cs._2012._06.StopTransactionRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Dispatch table of OCPP 1.5, shared by the JSON and SOAP transports
+ *
+ * @since 18.10.2026
+ */
+@Component
+public class CentralSystemService15_Dispatcher extends AbstractCentralSystemDispatcher {
+
+    @Autowired private CentralSystemService15_Service service;
+
+    public CentralSystemService15_Dispatcher() {
+        super(OcppVersion.V_15);
+    }
+
+    @PostConstruct
+    public void init() {
+        register(BootNotificationRequest.class, service::bootNotification);
+        register(FirmwareStatusNotificationRequest.class, (p, id, pr) -> service.firmwareStatusNotification(p, id));
+        register(StatusNotificationRequest.class, (p, id, pr) -> service.statusNotification(p, id));
+        register(MeterValuesRequest.class, (p, id, pr) -> service.meterValues(p, id));
+        register(DiagnosticsStatusNotificationRequest.class,
+                (p, id, pr) -> service.diagnosticsStatusNotification(p, id));
+        register(StartTransactionRequest.class, (p, id, pr) -> service.startTransaction(p, id));
+        register(StopTransactionRequest.class, (p, id, pr) -> service.stopTransaction(p, id));
+        register(HeartbeatRequest.class, (p, id, pr) -> service.heartbeat(p, id));
+        register(AuthorizeRequest.class, (p, id, pr) -> service.authorize(p, id));
+        register(DataTransferRequest.class, (p, id, pr) -> service.dataTransfer(p, id));
+    }
+}
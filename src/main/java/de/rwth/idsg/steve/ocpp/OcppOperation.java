@@ -0,0 +1,12 @@
+package de.rwth.idsg.steve.ocpp;
+
+/**
+ * An operation of the central system, i.e. a method of a CentralSystemService, that processes an
+ * incoming request of a charge point.
+ *
+ * @since 18.10.2026
+ */
+@FunctionalInterface
+public interface OcppOperation<REQ extends RequestType, RES extends ResponseType> {
+    RES process(REQ params, String chargeBoxId, OcppProtocol protocol);
+}
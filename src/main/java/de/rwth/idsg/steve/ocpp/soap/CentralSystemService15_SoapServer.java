@@ -1,7 +1,7 @@
 package de.rwth.idsg.steve.ocpp.soap;
 
+import de.rwth.idsg.steve.ocpp.CentralSystemService15_Dispatcher;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
-import de.rwth.idsg.steve.service.CentralSystemService15_Service;
 import lombok.extern.slf4j.Slf4j;
 import ocpp.cs._2012._06.AuthorizeRequest;
 import ocpp.cs._2012._06.AuthorizeResponse;
@@ -52,49 +52,49 @@ import java.util.concurrent.Future;
         endpointInterface = "ocpp.cs._2012._06.CentralSystemService")
 public class CentralSystemService15_SoapServer implements CentralSystemService {
 
-    @Autowired private CentralSystemService15_Service service;
+    @Autowired private CentralSystemService15_Dispatcher dispatcher;
 
     public BootNotificationResponse bootNotification(BootNotificationRequest parameters, String chargeBoxIdentity) {
-        return service.bootNotification(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public FirmwareStatusNotificationResponse firmwareStatusNotification(
             FirmwareStatusNotificationRequest parameters, String chargeBoxIdentity) {
-        return service.firmwareStatusNotification(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public StatusNotificationResponse statusNotification(
             StatusNotificationRequest parameters, String chargeBoxIdentity) {
-        return service.statusNotification(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public MeterValuesResponse meterValues(MeterValuesRequest parameters, String chargeBoxIdentity) {
-        return service.meterValues(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public DiagnosticsStatusNotificationResponse diagnosticsStatusNotification(
             DiagnosticsStatusNotificationRequest parameters, String chargeBoxIdentity) {
-        return service.diagnosticsStatusNotification(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public StartTransactionResponse startTransaction(StartTransactionRequest parameters, String chargeBoxIdentity) {
-        return service.startTransaction(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public StopTransactionResponse stopTransaction(StopTransactionRequest parameters, String chargeBoxIdentity) {
-        return service.stopTransaction(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public HeartbeatResponse heartbeat(HeartbeatRequest parameters, String chargeBoxIdentity) {
-        return service.heartbeat(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public AuthorizeResponse authorize(AuthorizeRequest parameters, String chargeBoxIdentity) {
-        return service.authorize(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     public DataTransferResponse dataTransfer(DataTransferRequest parameters, String chargeBoxIdentity) {
-        return service.dataTransfer(parameters, chargeBoxIdentity);
+        return dispatcher.dispatch(parameters, chargeBoxIdentity, OcppProtocol.V_15_SOAP);
     }
 
     // -------------------------------------------------------------------------
@@ -3,6 +3,8 @@ package de.rwth.idsg.steve.ocpp.ws;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.handler.OcppResponseHandler;
 import de.rwth.idsg.steve.ocpp.RequestType;
+import de.rwth.idsg.steve.ocpp.ws.cluster.ClusterForwarder;
+import de.rwth.idsg.steve.ocpp.ws.custom.MessageIdGenerator;
 import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
@@ -12,8 +14,7 @@ import lombok.Setter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-
-import java.util.UUID;
+import org.springframework.web.socket.WebSocketSession;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -23,14 +24,28 @@ public abstract class AbstractChargePointServiceInvoker {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     @Autowired private OutgoingPipeline outgoingPipeline;
+    @Autowired private MessageIdGenerator messageIdGenerator;
+    @Autowired private ClusterForwarder clusterForwarder;
 
     @Setter private TypeStore typeStore;
     @Setter private AbstractWebSocketEndpoint endpoint;
 
     /**
-     * Just a wrapper to make try-catch block and exception handling stand out
+     * In the cluster mode, the call is forwarded to the node of the charge point, if it is not connected to
+     * this one
      */
     public void runPipeline(String chargeBoxId, RequestType request, OcppResponseHandler handler) {
+        if (clusterForwarder.isEnabled() && !endpoint.hasSession(chargeBoxId)) {
+            forward(chargeBoxId, request, handler);
+        } else {
+            runLocalPipeline(chargeBoxId, request, handler);
+        }
+    }
+
+    /**
+     * Just a wrapper to make try-catch block and exception handling stand out
+     */
+    public void runLocalPipeline(String chargeBoxId, RequestType request, OcppResponseHandler handler) {
         try {
             run(chargeBoxId, request, handler);
         } catch (Exception e) {
@@ -40,11 +55,22 @@ public abstract class AbstractChargePointServiceInvoker {
         }
     }
 
+    private void forward(String chargeBoxId, RequestType request, OcppResponseHandler handler) {
+        ActionResponsePair pair = typeStore.findActionResponse(request);
+        if (pair == null) {
+            handler.handleException(new SteveException("Action name is not found"));
+            return;
+        }
+
+        clusterForwarder.forward(endpoint.getVersion(), chargeBoxId, pair.getAction(), request,
+                                 typeStore.findReader(pair.getResponseClass()), handler);
+    }
+
     /**
      * Actual processing
      */
     private void run(String chargeBoxId, RequestType request, OcppResponseHandler handler) {
-        String messageId = UUID.randomUUID().toString();
+        String messageId = messageIdGenerator.next();
         ActionResponsePair pair = typeStore.findActionResponse(request);
         if (pair == null) {
             throw new SteveException("Action name is not found");
@@ -55,14 +81,24 @@ public abstract class AbstractChargePointServiceInvoker {
         call.setPayload(request);
         call.setAction(pair.getAction());
 
-        FutureResponseContext frc = new FutureResponseContext(handler, pair.getResponseClass());
+        WebSocketSession session = endpoint.getSession(chargeBoxId);
+
+        // The session accepts a large response only while such a call is pending
+        OcppResponseHandler limitedHandler = MessageSizeLimiter.wrap(session, pair.getAction(), handler);
+        FutureResponseContext frc = new FutureResponseContext(limitedHandler, pair.getResponseClass());
 
         CommunicationContext context = new CommunicationContext();
         context.setChargeBoxId(chargeBoxId);
         context.setOutgoingMessage(call);
         context.setFutureResponseContext(frc);
-        context.setSession(endpoint.getSession(chargeBoxId));
+        context.setSession(session);
 
-        outgoingPipeline.run(context);
+        try {
+            outgoingPipeline.run(context);
+        } catch (RuntimeException e) {
+            // The caller is informed in runLocalPipeline(). Only the limit is to be released here.
+            MessageSizeLimiter.release(limitedHandler);
+            throw e;
+        }
     }
 }
@@ -1,9 +1,12 @@
 package de.rwth.idsg.steve.ocpp.ws;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import de.rwth.idsg.steve.ocpp.RequestType;
 import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
 
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -21,13 +24,51 @@ public abstract class AbstractTypeStore implements TypeStore {
      */
     protected final HashMap<Class<? extends RequestType>, ActionResponsePair> actionResponseMap = new HashMap<>();
 
+    /**
+     * Incoming request/response JAXB class --> Reader bound to this class
+     *
+     * ObjectReaders are immutable and thread-safe. Creating them once and reusing them saves the
+     * deserializer lookup for every incoming message.
+     */
+    private final HashMap<Class<?>, ObjectReader> readerMap = new HashMap<>();
+
+    /**
+     * Action field --> Outgoing request JAXB class (the reverse of actionResponseMap)
+     */
+    private final HashMap<String, Class<? extends RequestType>> outgoingRequestMap = new HashMap<>();
+
+    /**
+     * Must be called by the subclasses after the maps above are populated.
+     */
+    protected void initReaders(ObjectMapper mapper) {
+        for (Class<? extends RequestType> clazz : requestMap.values()) {
+            readerMap.put(clazz, mapper.reader(clazz));
+        }
+
+        for (Map.Entry<Class<? extends RequestType>, ActionResponsePair> entry : actionResponseMap.entrySet()) {
+            ActionResponsePair pair = entry.getValue();
+            readerMap.put(pair.getResponseClass(), mapper.reader(pair.getResponseClass()));
+            outgoingRequestMap.put(pair.getAction(), entry.getKey());
+        }
+    }
+
     @Override
     public Class<? extends RequestType> findRequestClass(String action) {
         return requestMap.get(action);
     }
 
+    @Override
+    public Class<? extends RequestType> findOutgoingRequestClass(String action) {
+        return outgoingRequestMap.get(action);
+    }
+
     @Override
     public ActionResponsePair findActionResponse(RequestType requestPayload) {
         return actionResponseMap.get(requestPayload.getClass());
     }
+
+    @Override
+    public ObjectReader findReader(Class<?> clazz) {
+        return readerMap.get(clazz);
+    }
 }
@@ -1,12 +1,16 @@
 package de.rwth.idsg.steve.ocpp.ws;
 
-import de.rwth.idsg.steve.config.WebSocketConfiguration;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.cluster.ClusterSessionDirectory;
 import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategy;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
+import de.rwth.idsg.steve.ocpp.ws.data.TracedFrame;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.Pipeline;
-import de.rwth.idsg.steve.repository.OcppServerRepository;
-import org.joda.time.DateTime;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.UpgradeRequest;
+import org.eclipse.jetty.websocket.api.UpgradeResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,13 +21,11 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.jetty.JettyWebSocketSession;
 
-import java.util.Deque;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -32,10 +34,13 @@ import java.util.concurrent.TimeUnit;
 public abstract class AbstractWebSocketEndpoint implements WebSocketHandler {
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    @Autowired private ScheduledExecutorService service;
-    @Autowired private OcppServerRepository ocppServerRepository;
     @Autowired private FutureResponseContextStore futureResponseContextStore;
     @Autowired private WsSessionSelectStrategy wsSessionSelectStrategy;
+    @Autowired private MailboxExecutor mailboxExecutor;
+    @Autowired private OutboundQueueFactory outboundQueueFactory;
+    @Autowired private KeepAliveScheduler keepAliveScheduler;
+    @Autowired private FrameTracer frameTracer;
+    @Autowired private ClusterSessionDirectory clusterSessionDirectory;
 
     public static final String CHARGEBOX_ID_KEY = "CHARGEBOX_ID_KEY";
 
@@ -46,6 +51,8 @@ public abstract class AbstractWebSocketEndpoint implements WebSocketHandler {
         sessionContextStore = new SessionContextStoreImpl(wsSessionSelectStrategy);
     }
 
+    public abstract OcppVersion getVersion();
+
     @Override
     public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
         if (message instanceof TextMessage) {
@@ -66,38 +73,87 @@ public abstract class AbstractWebSocketEndpoint implements WebSocketHandler {
         String incomingString = webSocketMessage.getPayload();
         String chargeBoxId = getChargeBoxId(session);
 
-        log.info("[chargeBoxId={}, sessionId={}] Received message: {}", chargeBoxId, session.getId(), incomingString);
+        // The payload goes into the trace of the chargebox, if switched on. Into the log file only for debugging.
+        frameTracer.trace(chargeBoxId, session.getId(), TracedFrame.Direction.IN, TracedFrame.Kind.TEXT,
+                incomingString);
+        if (log.isDebugEnabled()) {
+            log.debug("[chargeBoxId={}, sessionId={}] Received message: {}", chargeBoxId, session.getId(),
+                    incomingString);
+        } else {
+            log.info("[chargeBoxId={}, sessionId={}] Received message of {} chars", chargeBoxId, session.getId(),
+                    incomingString.length());
+        }
+
+        keepAliveScheduler.touch(session);
 
         CommunicationContext context = new CommunicationContext();
         context.setSession(session);
         context.setChargeBoxId(chargeBoxId);
         context.setIncomingString(incomingString);
 
-        pipeline.run(context);
+        if (mailboxExecutor.isEnabled()) {
+            if (!mailboxExecutor.submit(chargeBoxId, () -> runPipeline(context))) {
+                // The station sends faster than we process. Do not buffer without limit
+                log.warn("[chargeBoxId={}, sessionId={}] Mailbox is full, closing the session", chargeBoxId,
+                        session.getId());
+                session.close(CloseStatus.SERVICE_OVERLOAD.withReason("Too many pending messages"));
+            }
+        } else {
+            pipeline.run(context);
+        }
     }
 
     private void handlePongMessage(WebSocketSession session) {
         log.debug("[id={}] Received pong message", session.getId());
 
-        // TODO: Not sure about the following. Should update DB? Should call directly repo?
-        ocppServerRepository.updateChargeboxHeartbeat(getChargeBoxId(session), DateTime.now());
+        String chargeBoxId = getChargeBoxId(session);
+        frameTracer.trace(chargeBoxId, session.getId(), TracedFrame.Direction.IN, TracedFrame.Kind.PONG, null);
+
+        // The heartbeat is written to DB in a batch with the others
+        keepAliveScheduler.onPong(session, chargeBoxId);
+    }
+
+    /**
+     * In the synchronous mode, an exception thrown by the pipeline reaches the decorator of Spring,
+     * which closes the session. Do the same when the pipeline runs in a mailbox.
+     */
+    private void runPipeline(CommunicationContext context) {
+        try {
+            pipeline.run(context);
+        } catch (Exception e) {
+            WebSocketSession session = context.getSession();
+            log.error("[chargeBoxId={}, sessionId={}] Closing the session after an unhandled exception",
+                    context.getChargeBoxId(), session.getId(), e);
+            try {
+                session.close(CloseStatus.SERVER_ERROR);
+            } catch (IOException ioe) {
+                log.warn("[chargeBoxId={}, sessionId={}] Failed to close the session",
+                        context.getChargeBoxId(), session.getId(), ioe);
+            }
+        }
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         log.info("New connection established: {}", session);
 
-        // Just to keep the connection alive, such that the servers do not close
-        // the connection because of a idle timeout, we ping-pong at fixed intervals.
-        ScheduledFuture pingSchedule = service.scheduleAtFixedRate(
-                new PingTask(session),
-                WebSocketConfiguration.PING_INTERVAL,
-                WebSocketConfiguration.PING_INTERVAL,
-                TimeUnit.MINUTES);
-
         String chargeBoxId = getChargeBoxId(session);
-        sessionContextStore.add(chargeBoxId, session, pingSchedule);
+
+        if (SteveConfiguration.Ocpp.COMPACT_MODE) {
+            releaseHandshake(session);
+        }
+
+        // All outgoing messages of the session (including pings) go through this queue
+        outboundQueueFactory.create(session, chargeBoxId);
+        MessageSizeLimiter.attach(session);
+
+        keepAliveScheduler.register(session, chargeBoxId);
+
+        sessionContextStore.add(chargeBoxId, session);
         futureResponseContextStore.addSession(session);
+
+        // The latest connection of a charge point wins, also within the cluster
+        clusterSessionDirectory.register(chargeBoxId, getVersion());
     }
 
     @Override
@@ -106,7 +162,22 @@ public abstract class AbstractWebSocketEndpoint implements WebSocketHandler {
 
         String chargeBoxId = getChargeBoxId(session);
         sessionContextStore.remove(chargeBoxId, session);
+        keepAliveScheduler.unregister(session);
+
+        // Checks again under the lock of the directory, since a new session might be opened meanwhile
+        clusterSessionDirectory.unregister(chargeBoxId, () -> sessionContextStore.hasSession(chargeBoxId));
+        boolean lastSession = !sessionContextStore.hasSession(chargeBoxId);
+
+        // Before removing the response contexts, since the pending calls are failed through them
+        OutboundQueue queue = OutboundQueue.get(session);
+        if (queue != null) {
+            queue.close();
+        }
+
         futureResponseContextStore.removeSession(session);
+        if (lastSession) {
+            mailboxExecutor.remove(chargeBoxId);
+        }
     }
 
     @Override
@@ -115,6 +186,11 @@ public abstract class AbstractWebSocketEndpoint implements WebSocketHandler {
         // TODO: Do something about this
     }
 
+    /**
+     * The Jetty adapter of Spring always delivers whole messages, and Jackson has no non-blocking parser
+     * to parse the partial ones incrementally. The memory is bounded by the message size limits instead,
+     * see {@link MessageSizeLimiter}.
+     */
     @Override
     public boolean supportsPartialMessages() {
         return false;
@@ -128,6 +204,29 @@ public abstract class AbstractWebSocketEndpoint implements WebSocketHandler {
         return (String) session.getAttributes().get(CHARGEBOX_ID_KEY);
     }
 
+    /**
+     * Jetty keeps the copies of the handshake request (with its headers, parameters and attributes) and response
+     * for the lifetime of the connection. They are not needed after the handshake, since Spring has taken what it
+     * needs (URI, headers, sub-protocol, extensions) when the session was initialized. Therefore, they are replaced
+     * with empty ones that only keep the URI.
+     */
+    private static void releaseHandshake(WebSocketSession session) {
+        if (!(session instanceof JettyWebSocketSession)) {
+            return;
+        }
+
+        Session nativeSession = ((JettyWebSocketSession) session).getNativeSession();
+        if (!(nativeSession instanceof org.eclipse.jetty.websocket.common.WebSocketSession)) {
+            return;
+        }
+
+        org.eclipse.jetty.websocket.common.WebSocketSession jettySession =
+                (org.eclipse.jetty.websocket.common.WebSocketSession) nativeSession;
+
+        jettySession.setUpgradeRequest(new UpgradeRequest(jettySession.getUpgradeRequest().getRequestURI()));
+        jettySession.setUpgradeResponse(new UpgradeResponse());
+    }
+
     public List<String> getChargeBoxIdList() {
         return sessionContextStore.getChargeBoxIdList();
     }
@@ -136,12 +235,16 @@ public abstract class AbstractWebSocketEndpoint implements WebSocketHandler {
         return sessionContextStore.getNumberOfChargeBoxes();
     }
 
-    public Map<String, Deque<SessionContext>> getACopy() {
-        return sessionContextStore.getACopy();
+    public Map<String, List<SessionContext>> getSnapshot() {
+        return sessionContextStore.getSnapshot();
     }
 
     public WebSocketSession getSession(String chargeBoxId) {
         return sessionContextStore.getSession(chargeBoxId);
     }
 
+    public boolean hasSession(String chargeBoxId) {
+        return sessionContextStore.hasSession(chargeBoxId);
+    }
+
 }
@@ -0,0 +1,100 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.ocpp.ws.data.TracedFrame;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the last N WebSocket frames of a chargebox in memory, for chargeboxes with tracing switched on.
+ *
+ * Tracing is switched on/off per chargebox at runtime from the Web interface. For all other chargeboxes
+ * tracing costs a single map lookup per frame. This replaces logging the payload of every frame into the
+ * log file, which is only done at DEBUG level now.
+ *
+ * @since 18.10.2026
+ */
+@Component
+public class FrameTracer {
+
+    private final ConcurrentHashMap<String, RingBuffer> traces = new ConcurrentHashMap<>();
+
+    public void enable(String chargeBoxId) {
+        traces.computeIfAbsent(chargeBoxId, k -> new RingBuffer(SteveConfiguration.Ocpp.TRACE_BUFFER_SIZE));
+    }
+
+    public void disable(String chargeBoxId) {
+        traces.remove(chargeBoxId);
+    }
+
+    public boolean isEnabled(String chargeBoxId) {
+        return traces.containsKey(chargeBoxId);
+    }
+
+    public List<String> getEnabledChargeBoxIds() {
+        List<String> list = new ArrayList<>(traces.keySet());
+        Collections.sort(list);
+        return list;
+    }
+
+    public void trace(String chargeBoxId, String sessionId, TracedFrame.Direction direction,
+                      TracedFrame.Kind kind, String payload) {
+        RingBuffer buffer = traces.get(chargeBoxId);
+        if (buffer != null) {
+            buffer.add(new TracedFrame(System.currentTimeMillis(), direction, kind, sessionId, payload));
+        }
+    }
+
+    /**
+     * @return the frames from oldest to newest. Empty, if tracing is off for the chargebox.
+     */
+    public List<TracedFrame> getFrames(String chargeBoxId) {
+        RingBuffer buffer = traces.get(chargeBoxId);
+        if (buffer == null) {
+            return Collections.emptyList();
+        }
+        return buffer.getFrames();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * The writers only claim a slot with the sequence counter, there is no lock. A reader might see a
+     * slot that is overwritten in the meantime, which is acceptable for a trace.
+     */
+    private static final class RingBuffer {
+        private final AtomicReferenceArray<TracedFrame> slots;
+        private final AtomicLong sequence = new AtomicLong();
+
+        private RingBuffer(int size) {
+            slots = new AtomicReferenceArray<>(size);
+        }
+
+        private void add(TracedFrame frame) {
+            long seq = sequence.getAndIncrement();
+            slots.set((int) (seq % slots.length()), frame);
+        }
+
+        private List<TracedFrame> getFrames() {
+            long end = sequence.get();
+            long start = Math.max(0, end - slots.length());
+
+            List<TracedFrame> list = new ArrayList<>((int) (end - start));
+            for (long i = start; i < end; i++) {
+                TracedFrame frame = slots.get((int) (i % slots.length()));
+                if (frame != null) {
+                    list.add(frame);
+                }
+            }
+            return list;
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package de.rwth.idsg.steve.ocpp.ws;
 
+import de.rwth.idsg.steve.SteveConfiguration;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
+import de.rwth.idsg.steve.utils.HashedWheelTimer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Presumption: The responses must be sent using the same connection as the requests!
  *
+ * Every outgoing call has a deadline. If no response arrives until then, the call is removed and its
+ * handler is informed. The deadlines are tracked by the shared timer, not by a timer per call. When
+ * a session is closed, all its pending calls are released at once.
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 21.03.2015
  */
@@ -20,45 +28,116 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class FutureResponseContextStoreImpl implements FutureResponseContextStore {
 
+    @Autowired private HashedWheelTimer timer;
+
     // We store for each chargeBox connection, multiple pairs of (messageId, context)
     // (session, (messageId, context))
-    private final Map<WebSocketSession, Map<String, FutureResponseContext>> lookupTable = new HashMap<>();
+    private final ConcurrentHashMap<WebSocketSession, Map<String, PendingCall>> lookupTable =
+            new ConcurrentHashMap<>();
 
     @Override
     public void addSession(WebSocketSession session) {
-        Map<String, FutureResponseContext> contextMap = lookupTable.get(session);
-        if (contextMap == null) {
-            log.debug("Creating new store for sessionId '{}'", session.getId());
-            lookupTable.put(session, new ConcurrentHashMap<>());
+        if (lookupTable.putIfAbsent(session, new ConcurrentHashMap<>()) == null) {
+            log.debug("Created new store for sessionId '{}'", session.getId());
         }
     }
 
     @Override
     public void removeSession(WebSocketSession session) {
         log.debug("Deleting the store for sessionId '{}'", session.getId());
-        lookupTable.remove(session);
+
+        Map<String, PendingCall> map = lookupTable.remove(session);
+        if (map == null || map.isEmpty()) {
+            return;
+        }
+
+        log.warn("Releasing {} pending calls of the closed sessionId '{}'", map.size(), session.getId());
+
+        // Claim every call with remove(), since a late response or expiry might be racing for it
+        SteveException e = newClosedException();
+        for (String messageId : map.keySet()) {
+            PendingCall call = map.remove(messageId);
+            if (call != null) {
+                call.cancelTimeout();
+                call.context.getHandler().handleException(e);
+            }
+        }
     }
 
     @Override
     public void add(WebSocketSession session, String messageId, FutureResponseContext context) {
-        Map<String, FutureResponseContext> map = lookupTable.get(session);
+        Map<String, PendingCall> map = lookupTable.get(session);
         if (map == null) {
             throw new SteveException("sessionId '%s' is not in store", session.getId());
-        } else {
-            map.put(messageId, context);
-            log.debug("Store size for sessionId '{}': {}", session.getId(), map.size());
+        }
+
+        PendingCall call = new PendingCall(context);
+        map.put(messageId, call);
+
+        // Schedule after the put, so that the expiry always finds the call. The expiry uses this map, and
+        // not the one in the table, which might be gone in the meantime.
+        call.timeout = timer.newTimeout(() -> expire(session, map, messageId, call),
+                                        SteveConfiguration.Ocpp.CALL_TIMEOUT, TimeUnit.SECONDS);
+
+        log.debug("Store size for sessionId '{}': {}", session.getId(), map.size());
+
+        if (lookupTable.get(session) != map) {
+            // The session was removed between the get and the put, and its calls were already released.
+            // Release this one, too, unless a response or the expiry claimed it.
+            if (map.remove(messageId, call)) {
+                call.cancelTimeout();
+                call.context.getHandler().handleException(newClosedException());
+            }
         }
     }
 
     @Override
     public FutureResponseContext get(WebSocketSession session, String messageId) {
-        Map<String, FutureResponseContext> map = lookupTable.get(session);
+        Map<String, PendingCall> map = lookupTable.get(session);
         if (map == null) {
             throw new SteveException("sessionId '%s' is not in store", session.getId());
-        } else {
-            FutureResponseContext context = map.remove(messageId);
-            log.debug("Store size for sessionId '{}': {}", session.getId(), map.size());
-            return context;
+        }
+
+        PendingCall call = map.remove(messageId);
+        log.debug("Store size for sessionId '{}': {}", session.getId(), map.size());
+
+        if (call == null) {
+            return null;
+        }
+        call.cancelTimeout();
+        return call.context;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private void expire(WebSocketSession session, Map<String, PendingCall> map, String messageId,
+                        PendingCall call) {
+        // Only if the response or the closing of the session did not win the race
+        if (map.remove(messageId, call)) {
+            log.warn("No response for messageId '{}' of sessionId '{}' within {} seconds",
+                    messageId, session.getId(), SteveConfiguration.Ocpp.CALL_TIMEOUT);
+
+            call.context.getHandler().handleException(
+                    new SteveException("No response received within %s seconds", SteveConfiguration.Ocpp.CALL_TIMEOUT));
+        }
+    }
+
+    private static SteveException newClosedException() {
+        return new SteveException("The connection is closed before a response was received");
+    }
+
+    @RequiredArgsConstructor
+    private static final class PendingCall {
+        private final FutureResponseContext context;
+        private volatile HashedWheelTimer.Timeout timeout;
+
+        private void cancelTimeout() {
+            HashedWheelTimer.Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
         }
     }
 }
@@ -0,0 +1,193 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.config.WebSocketConfiguration;
+import de.rwth.idsg.steve.ocpp.ws.data.TracedFrame;
+import de.rwth.idsg.steve.service.HeartbeatTracker;
+import de.rwth.idsg.steve.utils.HashedWheelTimer;
+import de.rwth.idsg.steve.utils.PeriodicTask;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Just to keep the connections alive, such that the servers do not close them because of an idle timeout,
+ * we ping-pong at fixed intervals.
+ *
+ * All sessions share the timer wheel, instead of having a scheduled task each. A ping is due one interval
+ * after the last incoming traffic (or the connect, or the last ping), plus a random jitter. The jitter is
+ * drawn anew for every deadline, including the first one, so that the sessions of a mass reconnect do not
+ * ping in the same second. A session that had incoming traffic within the interval is alive anyway, and is
+ * not pinged.
+ *
+ * Due pings are collected and handed to the outbound queues in batches. A received pong counts as heartbeat
+ * of the charge point.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class KeepAliveScheduler {
+
+    @Autowired private HashedWheelTimer timer;
+    @Autowired private ScheduledExecutorService executor;
+    @Autowired private HeartbeatTracker heartbeatTracker;
+    @Autowired private FrameTracer frameTracer;
+
+    private static final String KEEP_ALIVE_KEY = "KEEP_ALIVE_KEY";
+
+    private static final PingMessage PING_MESSAGE = new PingMessage(ByteBuffer.wrap("ping".getBytes(UTF_8)));
+
+    private static final long INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(WebSocketConfiguration.PING_INTERVAL);
+
+    // The pings are scheduled within +/- 10% of the interval
+    private static final long JITTER_NANOS = INTERVAL_NANOS / 10;
+
+    private static final long BATCH_PERIOD = 1; // in seconds
+
+    private final Queue<KeepAlive> duePings = new ConcurrentLinkedQueue<>();
+
+    private ScheduledFuture batchSchedule;
+
+    @PostConstruct
+    public void init() {
+        batchSchedule = PeriodicTask.schedule(executor, "Sending the keep-alive pings", this::sendPings,
+                                              BATCH_PERIOD, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (batchSchedule != null) {
+            batchSchedule.cancel(false);
+        }
+    }
+
+    public void register(WebSocketSession session, String chargeBoxId) {
+        KeepAlive keepAlive = new KeepAlive(session, chargeBoxId);
+        long now = System.nanoTime();
+        keepAlive.lastActivity = now;
+        session.getAttributes().put(KEEP_ALIVE_KEY, keepAlive);
+
+        scheduleAfter(keepAlive, now);
+    }
+
+    public void unregister(WebSocketSession session) {
+        KeepAlive keepAlive = get(session);
+        if (keepAlive != null) {
+            keepAlive.closed = true;
+            HashedWheelTimer.Timeout timeout = keepAlive.timeout;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    /**
+     * Is called for every incoming message. A session with recent traffic needs no ping.
+     */
+    public void touch(WebSocketSession session) {
+        KeepAlive keepAlive = get(session);
+        if (keepAlive != null) {
+            keepAlive.lastActivity = System.nanoTime();
+        }
+    }
+
+    public void onPong(WebSocketSession session, String chargeBoxId) {
+        touch(session);
+        heartbeatTracker.beat(chargeBoxId, DateTime.now());
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private static KeepAlive get(WebSocketSession session) {
+        return (KeepAlive) session.getAttributes().get(KEEP_ALIVE_KEY);
+    }
+
+    /**
+     * Schedules the check one interval (plus jitter) after the given time
+     */
+    private void scheduleAfter(KeepAlive keepAlive, long fromNanos) {
+        if (keepAlive.closed) {
+            return;
+        }
+
+        keepAlive.scheduledFrom = fromNanos;
+        long jitter = ThreadLocalRandom.current().nextLong(-JITTER_NANOS, JITTER_NANOS);
+        long delay = Math.max(0, fromNanos + INTERVAL_NANOS + jitter - System.nanoTime());
+        keepAlive.timeout = timer.newTimeout(() -> onTimeout(keepAlive), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs on the timer thread. Must be short, therefore the actual ping is left to the batch.
+     */
+    private void onTimeout(KeepAlive keepAlive) {
+        if (keepAlive.closed) {
+            return;
+        }
+
+        long lastActivity = keepAlive.lastActivity;
+        if (lastActivity - keepAlive.scheduledFrom > 0) {
+            // There was traffic in the meantime. Check again one interval after it.
+            scheduleAfter(keepAlive, lastActivity);
+        } else {
+            duePings.add(keepAlive);
+        }
+    }
+
+    private void sendPings() {
+        int count = 0;
+
+        KeepAlive keepAlive;
+        while ((keepAlive = duePings.poll()) != null) {
+            if (keepAlive.closed) {
+                continue;
+            }
+
+            frameTracer.trace(keepAlive.chargeBoxId, keepAlive.session.getId(), TracedFrame.Direction.OUT,
+                              TracedFrame.Kind.PING, null);
+
+            OutboundQueue queue = OutboundQueue.get(keepAlive.session);
+            if (queue == null || !queue.offer(PING_MESSAGE, false, null)) {
+                log.error("[chargeBoxId={}, sessionId={}] Ping failed", keepAlive.chargeBoxId,
+                        keepAlive.session.getId());
+            }
+            count++;
+
+            scheduleAfter(keepAlive, System.nanoTime());
+        }
+
+        if (count > 0) {
+            log.debug("Sent ping messages to {} sessions", count);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class KeepAlive {
+        private final WebSocketSession session;
+        private final String chargeBoxId;
+
+        private volatile long lastActivity;
+
+        // The time from which the current deadline was computed. Only the timer and the batch write it.
+        private volatile long scheduledFrom;
+        private volatile boolean closed = false;
+        private volatile HashedWheelTimer.Timeout timeout;
+    }
+}
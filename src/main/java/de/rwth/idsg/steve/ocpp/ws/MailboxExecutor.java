@@ -0,0 +1,226 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.web.dto.MailboxStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Actor-style execution of incoming WebSocket messages.
+ *
+ * Every chargeBoxId gets a mailbox. The tasks of a mailbox are executed one after another in the order
+ * they were submitted, whereas different mailboxes are drained in parallel by a bounded worker pool.
+ * This way the Jetty WebSocket threads are not blocked by the processing (and the DB calls within), while
+ * the message order of a station is preserved.
+ *
+ * A mailbox is scheduled on the pool only when it goes from empty to non-empty, and a worker releases
+ * it after MAX_BATCH tasks, so that a busy station cannot starve the others. A mailbox holds at most
+ * MAILBOX_CAPACITY pending tasks. Beyond that, the submit is refused, and the caller has to push back.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class MailboxExecutor {
+
+    private static final int MAX_BATCH = 32;
+
+    private final ConcurrentHashMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private final LongAdder processedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+    private ThreadPoolExecutor workers;
+    private int threadCount;
+    private int capacity;
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        threadCount = SteveConfiguration.Ocpp.MAILBOX_THREADS;
+        if (threadCount <= 0) {
+            threadCount = 2 * Runtime.getRuntime().availableProcessors();
+        }
+
+        capacity = SteveConfiguration.Ocpp.MAILBOX_CAPACITY;
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("SteVe-Mailbox-%d")
+                                                                .build();
+
+        // The queue holds at most one entry per mailbox, therefore it is naturally bounded
+        // by the number of connected stations
+        workers = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                                         new LinkedBlockingQueue<>(), threadFactory);
+
+        log.info("Incoming WebSocket messages are processed by {} mailbox workers", threadCount);
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (workers == null) {
+            return;
+        }
+
+        try {
+            workers.shutdown();
+            workers.awaitTermination(30, TimeUnit.SECONDS);
+
+        } catch (InterruptedException e) {
+            log.error("Termination interrupted", e);
+
+        } finally {
+            if (!workers.isTerminated()) {
+                log.warn("Killing non-finished tasks");
+            }
+            workers.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return SteveConfiguration.Ocpp.MAILBOX_ENABLED;
+    }
+
+    /**
+     * @return false, if the mailbox of the chargeBoxId is full. The task is not submitted then.
+     */
+    public boolean submit(String chargeBoxId, Runnable task) {
+        Envelope envelope = new Envelope(task, System.nanoTime());
+
+        // Enqueue within the compute of the map, so that a concurrent remove cannot drop the mailbox
+        // in between, and a second mailbox (with a second drainer) is never created for the chargeBoxId
+        boolean[] accepted = new boolean[1];
+        mailboxes.compute(chargeBoxId, (key, mailbox) -> {
+            Mailbox m = (mailbox == null) ? new Mailbox(key) : mailbox;
+            accepted[0] = m.enqueue(envelope);
+            return m;
+        });
+
+        if (!accepted[0]) {
+            rejectedCount.increment();
+        }
+        return accepted[0];
+    }
+
+    /**
+     * Called after the last session of a chargeBoxId is closed. A mailbox that still has pending
+     * tasks stays, since it will be drained anyway.
+     */
+    public void remove(String chargeBoxId) {
+        mailboxes.computeIfPresent(chargeBoxId, (key, mailbox) -> mailbox.pending.get() == 0 ? null : mailbox);
+    }
+
+    public int getDepth(String chargeBoxId) {
+        Mailbox mailbox = mailboxes.get(chargeBoxId);
+        return mailbox == null ? 0 : mailbox.pending.get();
+    }
+
+    public MailboxStats getStats() {
+        int totalDepth = 0;
+        int maxDepth = 0;
+        for (Mailbox mailbox : mailboxes.values()) {
+            int depth = mailbox.pending.get();
+            totalDepth += depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        long processed = processedCount.sum();
+        long avgWaitMicros = processed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.sum() / processed);
+
+        return MailboxStats.builder()
+                           .enabled(isEnabled())
+                           .workerThreads(threadCount)
+                           .activeWorkers(workers == null ? 0 : workers.getActiveCount())
+                           .mailboxes(mailboxes.size())
+                           .totalDepth(totalDepth)
+                           .maxDepth(maxDepth)
+                           .processed(processed)
+                           .rejected(rejectedCount.sum())
+                           .avgWaitMicros(avgWaitMicros)
+                           .maxWaitMicros(TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()))
+                           .build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    @RequiredArgsConstructor
+    private static final class Envelope {
+        private final Runnable task;
+        private final long enqueuedAt;
+    }
+
+    @RequiredArgsConstructor
+    private final class Mailbox implements Runnable {
+        private final String chargeBoxId;
+        private final Queue<Envelope> queue = new ConcurrentLinkedQueue<>();
+
+        // Number of submitted but not yet completed tasks. The mailbox is scheduled
+        // on the pool only by the submitter that increments it from 0.
+        private final AtomicInteger pending = new AtomicInteger();
+
+        // Called only within the compute of the map. Therefore, the enqueues of a mailbox do not race
+        // with each other, and the capacity check holds (the workers only decrement)
+        private boolean enqueue(Envelope envelope) {
+            if (pending.get() >= capacity) {
+                return false;
+            }
+
+            queue.add(envelope);
+            if (pending.getAndIncrement() == 0) {
+                workers.execute(this);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < MAX_BATCH; i++) {
+                // Cannot be null: The counter is incremented only after the envelope is added
+                Envelope envelope = queue.poll();
+                execute(envelope);
+
+                if (pending.decrementAndGet() == 0) {
+                    return;
+                }
+            }
+
+            // There is more, but let the other mailboxes have their turn
+            workers.execute(this);
+        }
+
+        private void execute(Envelope envelope) {
+            long wait = System.nanoTime() - envelope.enqueuedAt;
+            totalWaitNanos.add(wait);
+            maxWaitNanos.accumulate(wait);
+            processedCount.increment();
+
+            try {
+                envelope.task.run();
+            } catch (Throwable t) {
+                log.error("[chargeBoxId={}] Processing of the message failed", chargeBoxId, t);
+            }
+        }
+    }
+}
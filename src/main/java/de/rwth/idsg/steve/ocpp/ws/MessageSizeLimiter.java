@@ -0,0 +1,137 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.handler.OcppResponseHandler;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonError;
+import lombok.RequiredArgsConstructor;
+import org.eclipse.jetty.websocket.api.WebSocketPolicy;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.jetty.JettyWebSocketSession;
+
+import javax.xml.ws.Response;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Only a few responses of charge points can be large (e.g. the whole configuration). Instead of allowing
+ * the large size for all messages of all sessions, a session starts with the small limit, and gets the
+ * large one only while it has a pending call with such a response.
+ *
+ * The incoming messages are aggregated by Jetty in a buffer that grows on demand. The limits only decide,
+ * how far it may grow, before the session is closed with "message too big".
+ *
+ * @since 18.10.2026
+ */
+public final class MessageSizeLimiter {
+    private MessageSizeLimiter() { }
+
+    private static final String LIMITER_KEY = "MESSAGE_SIZE_LIMITER_KEY";
+
+    private static final Set<String> LARGE_RESPONSE_ACTIONS = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("GetConfiguration", "SendLocalList", "DataTransfer")
+    ));
+
+    /**
+     * Must be called before the first outgoing call of the session
+     */
+    public static void attach(WebSocketSession session) {
+        session.getAttributes().put(LIMITER_KEY, new PendingCalls(session));
+    }
+
+    /**
+     * If the response of the action can be large, raises the limit of the session until the returned handler
+     * is completed. Otherwise, returns the handler itself.
+     */
+    public static OcppResponseHandler wrap(WebSocketSession session, String action, OcppResponseHandler handler) {
+        PendingCalls pendingCalls = (PendingCalls) session.getAttributes().get(LIMITER_KEY);
+        if (pendingCalls == null || !LARGE_RESPONSE_ACTIONS.contains(action)) {
+            return handler;
+        }
+
+        pendingCalls.increment();
+        return new LimitReleasingHandler(handler, pendingCalls);
+    }
+
+    /**
+     * For a call that could not be sent, and therefore will not complete its handler
+     */
+    public static void release(OcppResponseHandler handler) {
+        if (handler instanceof LimitReleasingHandler) {
+            ((LimitReleasingHandler) handler).release();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private static void setLimit(WebSocketSession session, int size) {
+        if (session instanceof JettyWebSocketSession) {
+            // The policy is a copy per connection, and is checked by the parser for every frame
+            WebSocketPolicy policy = ((JettyWebSocketSession) session).getNativeSession().getPolicy();
+            policy.setMaxTextMessageBufferSize(size);
+            policy.setMaxTextMessageSize(size);
+        } else {
+            session.setTextMessageSizeLimit(size);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class PendingCalls {
+        private final WebSocketSession session;
+        private int count = 0;
+
+        // Synchronized, so that a raise and a lowering at the same time cannot end in the wrong order
+        private synchronized void increment() {
+            if (count++ == 0) {
+                setLimit(session, SteveConfiguration.Ocpp.MAX_LARGE_MESSAGE_SIZE);
+            }
+        }
+
+        private synchronized void decrement() {
+            if (--count == 0) {
+                setLimit(session, SteveConfiguration.Ocpp.MAX_MESSAGE_SIZE);
+            }
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class LimitReleasingHandler implements OcppResponseHandler<Object> {
+        private final OcppResponseHandler<Object> delegate;
+        private final PendingCalls pendingCalls;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                pendingCalls.decrement();
+            }
+        }
+
+        @Override
+        public void handleResponse(Response<Object> res) {
+            release();
+            delegate.handleResponse(res);
+        }
+
+        @Override
+        public void handleResult(Object response) {
+            release();
+            delegate.handleResult(response);
+        }
+
+        @Override
+        public void handleError(OcppJsonError error) {
+            release();
+            delegate.handleError(error);
+        }
+
+        @Override
+        public void handleException(Exception e) {
+            release();
+            delegate.handleException(e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.SteveConfiguration;
+import org.eclipse.jetty.websocket.api.BatchMode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.extensions.Extension;
+import org.eclipse.jetty.websocket.api.extensions.ExtensionConfig;
+import org.eclipse.jetty.websocket.api.extensions.Frame;
+import org.eclipse.jetty.websocket.common.extensions.ExtensionStack;
+import org.eclipse.jetty.websocket.common.extensions.compress.PerMessageDeflateExtension;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.jetty.JettyWebSocketSession;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * permessage-deflate (RFC 7692) of Jetty with the configured compression level and context takeover,
+ * which additionally records the bytes before/after compression and the CPU time spent for it. Jetty creates
+ * an instance per connection, and only if the client offers the extension.
+ *
+ * The window size cannot be configured, since java.util.zip always uses the max window (15 bits). What can be
+ * configured instead is the context takeover: Without it, the compressor is reset after every message, which
+ * costs some compression ratio, but the window is not kept between the messages.
+ *
+ * @since 18.10.2026
+ */
+public class OcppPerMessageDeflateExtension extends PerMessageDeflateExtension {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+
+    // Whether the current thread is already measured, so that the nested calls are not counted twice
+    private static final ThreadLocal<boolean[]> MEASURING = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    private boolean levelSet = false;
+
+    // Data frames of a direction are handled by one thread at a time (the reader, or the writer of the
+    // outbound queue). The status page only reads
+    private volatile long rawOut, compressedOut, compressedIn, rawIn;
+
+    // Written by both directions
+    private final LongAdder cpuNanos = new LongAdder();
+
+    @Override
+    public void setConfig(ExtensionConfig config) {
+        if (!SteveConfiguration.Ocpp.COMPRESSION_CONTEXT_TAKEOVER) {
+            // Jetty answers with the parameter in the negotiated config, and resets the deflater per message
+            config.setParameter("server_no_context_takeover");
+        }
+        super.setConfig(config);
+    }
+
+    @Override
+    public Deflater getDeflater() {
+        Deflater deflater = super.getDeflater();
+        if (!levelSet) {
+            deflater.setLevel(SteveConfiguration.Ocpp.COMPRESSION_LEVEL);
+            levelSet = true;
+        }
+        return deflater;
+    }
+
+    // -------------------------------------------------------------------------
+    // Outgoing: frame -> compression -> next
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void outgoingFrame(Frame frame, WriteCallback callback, BatchMode batchMode) {
+        if (frame.getType().isData()) {
+            rawOut += frame.getPayloadLength();
+        }
+
+        measured(() -> super.outgoingFrame(frame, callback, batchMode));
+    }
+
+    @Override
+    protected void nextOutgoingFrame(Frame frame, WriteCallback callback, BatchMode batchMode) {
+        if (frame.getType().isData()) {
+            compressedOut += frame.getPayloadLength();
+        }
+
+        // Jetty compresses the remaining frames of the queue, when the write of the previous one completes.
+        // This happens in the callback, i.e. possibly on another thread than the one that sent the message
+        WriteCallback measuredCallback = callback == null ? null : new MeasuredCallback(callback);
+        super.nextOutgoingFrame(frame, measuredCallback, batchMode);
+    }
+
+    // -------------------------------------------------------------------------
+    // Incoming: frame -> decompression -> next
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void incomingFrame(Frame frame) {
+        if (frame.getType().isData()) {
+            compressedIn += frame.getPayloadLength();
+        }
+
+        measured(() -> super.incomingFrame(frame));
+    }
+
+    @Override
+    protected void nextIncomingFrame(Frame frame) {
+        if (frame.getType().isData()) {
+            rawIn += frame.getPayloadLength();
+        }
+        super.nextIncomingFrame(frame);
+    }
+
+    // -------------------------------------------------------------------------
+    // Statistics
+    // -------------------------------------------------------------------------
+
+    /**
+     * @return compressed size / raw size in percent, for both directions together. 100, if nothing is sent yet
+     */
+    public long getRatioPercent() {
+        long raw = rawOut + rawIn;
+        return raw == 0 ? 100 : (compressedOut + compressedIn) * 100 / raw;
+    }
+
+    public long getSavedBytes() {
+        return (rawOut + rawIn) - (compressedOut + compressedIn);
+    }
+
+    /**
+     * The CPU time of all threads that (de)compressed the frames of this connection, i.e. the callers and the
+     * write callbacks of Jetty. Includes the time of passing the frames on to the next handler, which is small
+     * compared to the (de)compression
+     */
+    public long getCpuMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(cpuNanos.sum());
+    }
+
+    /**
+     * @return the extension of the session, or null if the compression is not negotiated
+     */
+    public static OcppPerMessageDeflateExtension get(WebSocketSession session) {
+        if (!(session instanceof JettyWebSocketSession)) {
+            return null;
+        }
+
+        Object nativeSession = ((JettyWebSocketSession) session).getNativeSession();
+        if (!(nativeSession instanceof org.eclipse.jetty.websocket.common.WebSocketSession)) {
+            return null;
+        }
+
+        Object handler = ((org.eclipse.jetty.websocket.common.WebSocketSession) nativeSession).getOutgoingHandler();
+        if (!(handler instanceof ExtensionStack)) {
+            return null;
+        }
+
+        for (Extension ext : ((ExtensionStack) handler).getExtensions()) {
+            if (ext instanceof OcppPerMessageDeflateExtension) {
+                return (OcppPerMessageDeflateExtension) ext;
+            }
+        }
+        return null;
+    }
+
+    private void measured(Runnable task) {
+        boolean[] measuring = MEASURING.get();
+        if (measuring[0]) {
+            task.run();
+            return;
+        }
+
+        measuring[0] = true;
+        long start = cpuTime();
+        try {
+            task.run();
+        } finally {
+            cpuNanos.add(cpuTime() - start);
+            measuring[0] = false;
+        }
+    }
+
+    private final class MeasuredCallback implements WriteCallback {
+        private final WriteCallback delegate;
+
+        private MeasuredCallback(WriteCallback delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void writeSuccess() {
+            measured(delegate::writeSuccess);
+        }
+
+        @Override
+        public void writeFailed(Throwable x) {
+            measured(() -> delegate.writeFailed(x));
+        }
+    }
+
+    private static long cpuTime() {
+        return CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
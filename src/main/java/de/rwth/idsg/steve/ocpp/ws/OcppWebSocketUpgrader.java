@@ -1,11 +1,13 @@
 package de.rwth.idsg.steve.ocpp.ws;
 
+import de.rwth.idsg.steve.ocpp.AdmissionControl;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12WebSocketEndpoint;
 import de.rwth.idsg.steve.ocpp.ws.ocpp15.Ocpp15WebSocketEndpoint;
 import de.rwth.idsg.steve.repository.ChargePointRepository;
-import org.eclipse.jetty.websocket.api.WebSocketPolicy;
 import org.eclipse.jetty.websocket.server.WebSocketServerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.socket.WebSocketExtension;
@@ -13,6 +15,7 @@ import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.server.HandshakeFailureException;
 import org.springframework.web.socket.server.jetty.JettyRequestUpgradeStrategy;
 
+import java.net.InetSocketAddress;
 import java.security.Principal;
 import java.util.List;
 import java.util.Map;
@@ -25,16 +28,19 @@ public class OcppWebSocketUpgrader extends JettyRequestUpgradeStrategy {
     private final Ocpp12WebSocketEndpoint ocpp12WebSocketEndpoint;
     private final Ocpp15WebSocketEndpoint ocpp15WebSocketEndpoint;
     private final ChargePointRepository chargePointRepository;
+    private final AdmissionControl admissionControl;
 
-    public OcppWebSocketUpgrader(WebSocketPolicy policy,
+    public OcppWebSocketUpgrader(WebSocketServerFactory factory,
                                  Ocpp12WebSocketEndpoint ocpp12WebSocketEndpoint,
                                  Ocpp15WebSocketEndpoint ocpp15WebSocketEndpoint,
-                                 ChargePointRepository chargePointRepository) {
+                                 ChargePointRepository chargePointRepository,
+                                 AdmissionControl admissionControl) {
 
-        super(new WebSocketServerFactory(policy));
+        super(factory);
         this.ocpp12WebSocketEndpoint = ocpp12WebSocketEndpoint;
         this.ocpp15WebSocketEndpoint = ocpp15WebSocketEndpoint;
         this.chargePointRepository = chargePointRepository;
+        this.admissionControl = admissionControl;
     }
 
     @Override
@@ -42,6 +48,17 @@ public class OcppWebSocketUpgrader extends JettyRequestUpgradeStrategy {
                         String selectedProtocol, List<WebSocketExtension> selectedExtensions, Principal user,
                         WebSocketHandler wsHandler, Map<String, Object> attributes) throws HandshakeFailureException {
 
+        // -------------------------------------------------------------------------
+        // 0. Admission control. Before anything else, since this is what protects the rest
+        // -------------------------------------------------------------------------
+
+        long retryAfter = admissionControl.tryAdmitHandshake(getSourceIp(request));
+        if (retryAfter > 0) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            return;
+        }
+
         // -------------------------------------------------------------------------
         // 1. Check the chargeBoxId
         // -------------------------------------------------------------------------
@@ -74,10 +91,34 @@ public class OcppWebSocketUpgrader extends JettyRequestUpgradeStrategy {
         super.upgrade(request, response, selectedProtocol, selectedExtensions, user, webSocketHandler, attributes);
     }
 
+    private static String getSourceIp(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return null;
+        }
+        return address.getAddress().getHostAddress();
+    }
+
     /**
-     * Taken from: http://stackoverflow.com/a/4050276
+     * The last path segment of the url, without the query string. Same result for paths as the regex replacement
+     * from http://stackoverflow.com/a/4050276 that was used before, but without compiling and running a regex
+     * for every handshake
      */
     private static String getLastBitFromUrl(final String url) {
-        return url.replaceFirst(".*/([^/?]+).*", "$1");
+        int end = url.indexOf('?');
+        if (end == -1) {
+            end = url.length();
+        }
+
+        // Ignore trailing slashes
+        while (end > 0 && url.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        int start = url.lastIndexOf('/', end - 1) + 1;
+        if (start == 0 || start == end) {
+            return url;
+        }
+        return url.substring(start, end);
     }
 }
@@ -0,0 +1,309 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.ocpp.ws.custom.OutboundOverflowPolicy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Outgoing messages of one WebSocket session.
+ *
+ * Callers only enqueue and return. A single writer drains the queue and sends the messages one after another,
+ * so that concurrent sends on the session cannot race and a slow peer does not block the callers. The writer
+ * is started when the queue goes from empty to non-empty and stops when the queue is empty again.
+ *
+ * In the compact mode, the deque only exists while there are messages, since most sessions are idle.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public class OutboundQueue implements Runnable {
+
+    public static final String OUTBOUND_QUEUE_KEY = "OUTBOUND_QUEUE_KEY";
+
+    private final WebSocketSession session;
+    @Getter private final String chargeBoxId;
+    private final Executor writer;
+    @Getter private final int capacity;
+    private final OutboundOverflowPolicy overflowPolicy;
+    private final boolean compact;
+
+    // All guarded by "this". The deque is null in the compact mode, when empty.
+    private ArrayDeque<Outbound> deque;
+    private boolean draining = false;
+    private boolean closed = false;
+    private int maxDepth = 0;
+
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Long::max, 0);
+
+    public OutboundQueue(WebSocketSession session, String chargeBoxId, Executor writer,
+                         int capacity, OutboundOverflowPolicy overflowPolicy, boolean compact) {
+        this.session = session;
+        this.chargeBoxId = chargeBoxId;
+        this.writer = writer;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+        this.compact = compact;
+
+        if (!compact) {
+            deque = new ArrayDeque<>();
+        }
+    }
+
+    public static OutboundQueue get(WebSocketSession session) {
+        return (OutboundQueue) session.getAttributes().get(OUTBOUND_QUEUE_KEY);
+    }
+
+    /**
+     * @param isCall     CALLs are never dropped in favour of other messages
+     * @param onFailure  Is called, if the message is accepted, but could not be sent later. Can be null.
+     * @return false, if the message is rejected (session closed or queue full)
+     */
+    public boolean offer(WebSocketMessage<?> message, boolean isCall, Consumer<Exception> onFailure) {
+        Outbound out = new Outbound(message, isCall, onFailure, System.nanoTime());
+
+        Outbound dropped = null;
+        List<Outbound> closedWith = null;
+        boolean schedule = false;
+        boolean accepted = false;
+
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+
+            if (depth() >= capacity) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST:
+                        dropped = removeOldestNonCall();
+                        break;
+
+                    case CLOSE:
+                        closedWith = closeInternal();
+                        break;
+
+                    default:
+                        throw new SteveException("Unknown enum type");
+                }
+            }
+
+            if (depth() < capacity && !closed) {
+                if (deque == null) {
+                    deque = new ArrayDeque<>();
+                }
+                deque.addLast(out);
+                maxDepth = Math.max(maxDepth, deque.size());
+                accepted = true;
+
+                if (!draining) {
+                    draining = true;
+                    schedule = true;
+                }
+            }
+        }
+
+        if (dropped != null) {
+            droppedCount.increment();
+            log.warn("[chargeBoxId={}, sessionId={}] Outbound queue is full. Dropped the oldest non-CALL message",
+                    chargeBoxId, session.getId());
+        }
+
+        if (closedWith != null) {
+            log.warn("[chargeBoxId={}, sessionId={}] Outbound queue is full. Closing the session",
+                    chargeBoxId, session.getId());
+            failAll(closedWith, "The session is closed, because the peer does not keep up");
+            closeSession();
+        }
+
+        if (!accepted) {
+            droppedCount.increment();
+        }
+
+        if (schedule) {
+            writer.execute(this);
+        }
+        return accepted;
+    }
+
+    /**
+     * Is called after the session is closed. The pending messages are discarded.
+     */
+    public void close() {
+        List<Outbound> pending;
+        synchronized (this) {
+            pending = closeInternal();
+        }
+        failAll(pending, "The session is closed");
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            Outbound out;
+            synchronized (this) {
+                out = deque == null ? null : deque.pollFirst();
+                if (out == null) {
+                    draining = false;
+                    if (compact) {
+                        deque = null;
+                    }
+                    return;
+                }
+            }
+            send(out);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Metrics
+    // -------------------------------------------------------------------------
+
+    public synchronized int getDepth() {
+        return depth();
+    }
+
+    public synchronized int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Time between enqueueing a message and the completion of its send
+     */
+    public long getAvgLatencyMillis() {
+        long count = sentCount.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatencyNanos.sum() / count);
+    }
+
+    public long getMaxLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get());
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private void send(Outbound out) {
+        try {
+            session.sendMessage(out.message);
+
+            long latency = System.nanoTime() - out.enqueuedAt;
+            sentCount.increment();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+
+        } catch (IOException | RuntimeException e) {
+            log.error("[chargeBoxId={}, sessionId={}] Could not send the outgoing message",
+                    chargeBoxId, session.getId(), e);
+            fail(out, e);
+        }
+    }
+
+    /**
+     * Must be called while holding the lock
+     */
+    private int depth() {
+        return deque == null ? 0 : deque.size();
+    }
+
+    /**
+     * Must be called while holding the lock
+     */
+    private Outbound removeOldestNonCall() {
+        if (deque == null) {
+            return null;
+        }
+
+        Iterator<Outbound> it = deque.iterator();
+        while (it.hasNext()) {
+            Outbound out = it.next();
+            if (!out.isCall) {
+                it.remove();
+                return out;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Must be called while holding the lock
+     */
+    private List<Outbound> closeInternal() {
+        closed = true;
+        if (deque == null) {
+            return new ArrayList<>();
+        }
+
+        List<Outbound> pending = new ArrayList<>(deque);
+        deque.clear();
+        if (compact) {
+            deque = null;
+        }
+        return pending;
+    }
+
+    private void failAll(List<Outbound> list, String reason) {
+        if (list.isEmpty()) {
+            return;
+        }
+
+        SteveException e = new SteveException(reason);
+        for (Outbound out : list) {
+            fail(out, e);
+        }
+    }
+
+    private void fail(Outbound out, Exception e) {
+        if (out.onFailure == null) {
+            return;
+        }
+
+        try {
+            out.onFailure.accept(e);
+        } catch (Exception ex) {
+            log.error("[chargeBoxId={}, sessionId={}] Failure callback threw an exception",
+                    chargeBoxId, session.getId(), ex);
+        }
+    }
+
+    private void closeSession() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.warn("[chargeBoxId={}, sessionId={}] Failed to close the session", chargeBoxId, session.getId(), e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Outbound {
+        private final WebSocketMessage<?> message;
+        private final boolean isCall;
+        private final Consumer<Exception> onFailure;
+        private final long enqueuedAt;
+    }
+}
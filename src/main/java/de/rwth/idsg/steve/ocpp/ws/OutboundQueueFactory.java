@@ -0,0 +1,69 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.rwth.idsg.steve.SteveConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the outbound queues of WebSocket sessions and provides the writer threads to drain them.
+ *
+ * The writer pool is bounded: A thread is only busy while a queue has something to send, and a slow peer
+ * blocks only the thread writing to it, until the send completes or times out. The queues waiting for a writer
+ * are held in the queue of the pool, which has at most one entry per session.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class OutboundQueueFactory {
+
+    private final ExecutorService writers;
+
+    public OutboundQueueFactory() {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("SteVe-Sender-%d")
+                                                                .build();
+        int threadCount = SteveConfiguration.Ocpp.OUTBOUND_WRITER_THREADS;
+
+        // The idle threads time out, since most of the time there is nothing to send
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+                                                         new LinkedBlockingQueue<>(), threadFactory);
+        pool.allowCoreThreadTimeOut(true);
+        writers = pool;
+    }
+
+    /**
+     * Creates the queue and attaches it to the session
+     */
+    public OutboundQueue create(WebSocketSession session, String chargeBoxId) {
+        OutboundQueue queue = new OutboundQueue(session, chargeBoxId, writers,
+                                                SteveConfiguration.Ocpp.OUTBOUND_BUFFER_SIZE,
+                                                SteveConfiguration.Ocpp.OUTBOUND_OVERFLOW_POLICY,
+                                                SteveConfiguration.Ocpp.COMPACT_MODE);
+
+        session.getAttributes().put(OutboundQueue.OUTBOUND_QUEUE_KEY, queue);
+        return queue;
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        try {
+            writers.shutdown();
+            writers.awaitTermination(5, TimeUnit.SECONDS);
+
+        } catch (InterruptedException e) {
+            log.error("Termination interrupted", e);
+
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+}
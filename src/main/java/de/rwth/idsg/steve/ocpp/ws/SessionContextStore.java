@@ -3,20 +3,19 @@ package de.rwth.idsg.steve.ocpp.ws;
 import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledFuture;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 17.03.2015
  */
 public interface SessionContextStore {
-    void add(String chargeBoxId, WebSocketSession session, ScheduledFuture pingSchedule);
+    void add(String chargeBoxId, WebSocketSession session);
     void remove(String chargeBoxId, WebSocketSession session);
     List<String> getChargeBoxIdList();
-    Map<String, Deque<SessionContext>> getACopy();
+    Map<String, List<SessionContext>> getSnapshot();
     int getNumberOfChargeBoxes();
     WebSocketSession getSession(String chargeBoxId);
+    boolean hasSession(String chargeBoxId);
 }
@@ -1,23 +1,26 @@
 package de.rwth.idsg.steve.ocpp.ws;
 
-import com.google.common.collect.ImmutableMap;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategy;
 import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.joda.time.DateTime;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * The session contexts of a chargebox are kept in an immutable array. Adding or removing a session
+ * creates a new array, which replaces the old one atomically (copy-on-write). Since connects and
+ * disconnects are much rarer than the selection of a session for an outgoing call, the selection and
+ * the status view can read the arrays without any locking or copying.
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 17.03.2015
  */
@@ -25,10 +28,10 @@ import java.util.concurrent.ScheduledFuture;
 public class SessionContextStoreImpl implements SessionContextStore {
 
     /**
-     * Key   (String)                = chargeBoxId
-     * Value (Deque<SessionContext>) = WebSocket session contexts
+     * Key   (String)   = chargeBoxId
+     * Value (Sessions) = WebSocket session contexts
      */
-    private final ConcurrentHashMap<String, Deque<SessionContext>> lookupTable = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Sessions> lookupTable = new ConcurrentHashMap<>();
 
     private final WsSessionSelectStrategy wsSessionSelectStrategy;
 
@@ -37,55 +40,33 @@ public class SessionContextStoreImpl implements SessionContextStore {
     }
 
     @Override
-    public void add(String chargeBoxId, WebSocketSession session, ScheduledFuture pingSchedule) {
-        SessionContext context = new SessionContext(session, pingSchedule, DateTime.now());
-
-        Deque<SessionContext> endpointDeque = lookupTable.get(chargeBoxId);
-        if (endpointDeque == null) {
-            final Deque<SessionContext> emptyDeque = new ArrayDeque<>();
-            endpointDeque = lookupTable.putIfAbsent(chargeBoxId, emptyDeque);
-            if (endpointDeque == null) {
-                endpointDeque = emptyDeque;
+    public void add(String chargeBoxId, WebSocketSession session) {
+        SessionContext context = new SessionContext(session, System.currentTimeMillis());
+
+        // compute(..) is atomic per key. Concurrent adds/removes for the same chargeBoxId cannot lose updates.
+        Sessions sessions = lookupTable.compute(chargeBoxId, (key, old) -> {
+            if (old == null) {
+                return new Sessions(new SessionContext[] {context}, new AtomicInteger());
+            } else {
+                return old.with(context); // Adding at the end
             }
-        }
-        endpointDeque.addLast(context); // Adding at the end
+        });
+
         log.debug("A new SessionContext is stored for chargeBoxId '{}'. Store size: {}",
-                chargeBoxId, endpointDeque.size());
+                chargeBoxId, sessions.contexts.length);
     }
 
     @Override
     public void remove(String chargeBoxId, WebSocketSession session) {
-        Deque<SessionContext> endpointDeque = lookupTable.get(chargeBoxId);
-        if (endpointDeque == null) {
-            log.debug("No session context to remove for chargeBoxId '{}'", chargeBoxId);
-            return;
-        }
-
-        // Prevent "java.util.ConcurrentModificationException: null"
-        // Reason: Cannot modify the set (remove the item) we are iterating
-        // Solution: Iterate the set, find the item, remove the item after the for-loop
-        //
-        SessionContext toRemove = null;
-        for (SessionContext context : endpointDeque) {
-            if (context.getSession().getId().equals(session.getId())) {
-                toRemove = context;
-                break;
-            }
-        }
-
-        if (toRemove != null) {
-            // 1. Cancel the ping task
-            toRemove.getPingSchedule().cancel(true);
-            // 2. Delete from collection
-            if (endpointDeque.remove(toRemove)) {
-                log.debug("A SessionContext is removed for chargeBoxId '{}'. Store size: {}",
-                        chargeBoxId, endpointDeque.size());
-            }
-            // 3. Delete empty collection from lookup table in order to correctly calculate
-            // the number of connected chargeboxes with getNumberOfChargeBoxes()
-            if (endpointDeque.size() == 0) {
-                lookupTable.remove(chargeBoxId);
-            }
+        // Returning null deletes the entry. This way, the empty ones are deleted from lookup table
+        // in order to correctly calculate the number of connected chargeboxes with getNumberOfChargeBoxes()
+        Sessions sessions = lookupTable.computeIfPresent(chargeBoxId, (key, old) -> old.without(session));
+
+        if (sessions == null) {
+            log.debug("No session context left for chargeBoxId '{}'", chargeBoxId);
+        } else {
+            log.debug("A SessionContext is removed for chargeBoxId '{}'. Store size: {}",
+                    chargeBoxId, sessions.contexts.length);
         }
     }
 
@@ -94,9 +75,14 @@ public class SessionContextStoreImpl implements SessionContextStore {
         return Collections.list(lookupTable.keys());
     }
 
+    /**
+     * Copies only the map. The lists wrap the immutable arrays of the chargeboxes, which do not change anymore.
+     */
     @Override
-    public Map<String, Deque<SessionContext>> getACopy() {
-        return ImmutableMap.copyOf(lookupTable);
+    public Map<String, List<SessionContext>> getSnapshot() {
+        HashMap<String, List<SessionContext>> snapshot = new HashMap<>(lookupTable.size());
+        lookupTable.forEach((chargeBoxId, sessions) -> snapshot.put(chargeBoxId, sessions.asList()));
+        return Collections.unmodifiableMap(snapshot);
     }
 
     @Override
@@ -106,12 +92,58 @@ public class SessionContextStoreImpl implements SessionContextStore {
 
     @Override
     public WebSocketSession getSession(String chargeBoxId) {
-        Deque<SessionContext> endpointDeque = lookupTable.get(chargeBoxId);
-        try {
-            return wsSessionSelectStrategy.getSession(endpointDeque);
-        } catch (NoSuchElementException e) {
-            throw new SteveException("No session context for chargeBoxId '%s'", chargeBoxId, e);
+        Sessions sessions = lookupTable.get(chargeBoxId);
+        if (sessions == null) {
+            throw new SteveException("No session context for chargeBoxId '%s'", chargeBoxId);
         }
+        return wsSessionSelectStrategy.getSession(sessions.contexts, sessions.cursor);
+    }
+
+    @Override
+    public boolean hasSession(String chargeBoxId) {
+        return lookupTable.containsKey(chargeBoxId);
     }
 
+    /**
+     * Immutable. The cursor is handed over from one instance to the next one.
+     */
+    @RequiredArgsConstructor
+    private static final class Sessions {
+        private final SessionContext[] contexts;
+        private final AtomicInteger cursor;
+
+        private Sessions with(SessionContext context) {
+            SessionContext[] copy = Arrays.copyOf(contexts, contexts.length + 1);
+            copy[contexts.length] = context;
+            return new Sessions(copy, cursor);
+        }
+
+        /**
+         * @return null, if no session is left
+         */
+        private Sessions without(WebSocketSession session) {
+            int index = -1;
+            for (int i = 0; i < contexts.length; i++) {
+                if (contexts[i].getSession().getId().equals(session.getId())) {
+                    index = i;
+                    break;
+                }
+            }
+
+            if (index == -1) {
+                return this;
+            } else if (contexts.length == 1) {
+                return null;
+            }
+
+            SessionContext[] copy = new SessionContext[contexts.length - 1];
+            System.arraycopy(contexts, 0, copy, 0, index);
+            System.arraycopy(contexts, index + 1, copy, index, contexts.length - index - 1);
+            return new Sessions(copy, cursor);
+        }
+
+        private List<SessionContext> asList() {
+            return Collections.unmodifiableList(Arrays.asList(contexts));
+        }
+    }
 }
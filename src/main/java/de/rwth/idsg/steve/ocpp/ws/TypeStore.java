@@ -1,5 +1,6 @@
 package de.rwth.idsg.steve.ocpp.ws;
 
+import com.fasterxml.jackson.databind.ObjectReader;
 import de.rwth.idsg.steve.ocpp.RequestType;
 import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
 
@@ -9,5 +10,7 @@ import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
  */
 public interface TypeStore {
     Class<? extends RequestType> findRequestClass(String action);
+    Class<? extends RequestType> findOutgoingRequestClass(String action);
     <T extends RequestType> ActionResponsePair findActionResponse(T requestPayload);
+    ObjectReader findReader(Class<?> clazz);
 }
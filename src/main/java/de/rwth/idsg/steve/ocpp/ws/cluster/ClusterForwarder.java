@@ -0,0 +1,160 @@
+package de.rwth.idsg.steve.ocpp.ws.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.handler.OcppResponseHandler;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.RequestType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forwards an outgoing call to the node, which has the session of the charge point (as per directory),
+ * and passes the outcome to the handler of the call at this node. This way, the result ends up in the
+ * request task of this node, as if the charge point was connected here.
+ *
+ * The HTTP calls block until the charge point responds, therefore they run in their own threads. These are at
+ * most fanout.max.in.flight, since this is also the limit of the calls waiting for a response at the same time.
+ * Further calls wait in the queue.
+ *
+ * The calls and the shared secret are sent unencrypted, if the node address is http. The nodes must therefore
+ * communicate over a private network, or use https.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class ClusterForwarder {
+
+    public static final String FORWARD_PATH = "/cluster/forward";
+    public static final String SECRET_HEADER = "X-SteVe-Cluster-Secret";
+
+    private static final int CONNECT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(5);
+
+    // Longer than the owning node waits for the charge point
+    private static final int READ_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(SteveConfiguration.Ocpp.CALL_TIMEOUT + 10);
+
+    @Autowired private ClusterSessionDirectory directory;
+    @Autowired private ObjectMapper mapper;
+
+    private final ExecutorService forwarders;
+
+    public ClusterForwarder() {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("SteVe-Forward-%d")
+                                                                .build();
+        int threadCount = SteveConfiguration.Ocpp.FANOUT_MAX_IN_FLIGHT;
+
+        // The idle threads time out, since most of the calls are not forwarded
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+                                                         new LinkedBlockingQueue<>(), threadFactory);
+        pool.allowCoreThreadTimeOut(true);
+        forwarders = pool;
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        try {
+            forwarders.shutdown();
+            forwarders.awaitTermination(5, TimeUnit.SECONDS);
+
+        } catch (InterruptedException e) {
+            log.error("Termination interrupted", e);
+
+        } finally {
+            forwarders.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory.isEnabled();
+    }
+
+    /**
+     * @param responseReader  Reader of the response class of the action
+     */
+    @SuppressWarnings("unchecked")
+    public void forward(OcppVersion version, String chargeBoxId, String action, RequestType request,
+                        ObjectReader responseReader, OcppResponseHandler handler) {
+        forwarders.execute(() -> {
+            try {
+                ForwardedResponse response = send(version, chargeBoxId, action, request);
+
+                if (response.getResult() != null) {
+                    handler.handleResult(responseReader.readValue(response.getResult()));
+                } else if (response.getErrorCode() != null) {
+                    handler.handleError(response.toError());
+                } else {
+                    handler.handleException(new SteveException(response.getException()));
+                }
+            } catch (Exception e) {
+                log.error("[chargeBoxId={}] Forwarding of {} failed", chargeBoxId, action, e);
+                handler.handleException(e);
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private ForwardedResponse send(OcppVersion version, String chargeBoxId, String action,
+                                   RequestType request) throws IOException {
+        String owner = directory.getOwner(chargeBoxId);
+
+        // If this node is the owner, the session is already closed, and the lease is not removed yet
+        if (owner == null || owner.equals(directory.getNodeAddress())) {
+            throw new SteveException("No session context for chargeBoxId '%s' in the cluster", chargeBoxId);
+        }
+
+        ForwardedCall call = new ForwardedCall();
+        call.setVersion(version.getValue());
+        call.setChargeBoxId(chargeBoxId);
+        call.setAction(action);
+        call.setPayload(mapper.valueToTree(request));
+
+        log.debug("[chargeBoxId={}] Forwarding {} to node {}", chargeBoxId, action, owner);
+
+        URL url = new URL(owner + SteveConfiguration.CONTEXT_PATH + FORWARD_PATH);
+        HttpURLConnection con = (HttpURLConnection) url.openConnection();
+        try {
+            con.setRequestMethod("POST");
+            con.setDoOutput(true);
+            con.setConnectTimeout(CONNECT_TIMEOUT);
+            con.setReadTimeout(READ_TIMEOUT);
+            con.setRequestProperty("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+            con.setRequestProperty(SECRET_HEADER, SteveConfiguration.Cluster.SECRET);
+
+            try (OutputStream os = con.getOutputStream()) {
+                mapper.writeValue(os, call);
+            }
+
+            int status = con.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new SteveException("Node %s responded with HTTP status %s", owner, status);
+            }
+
+            try (InputStream is = con.getInputStream()) {
+                return mapper.readValue(is, ForwardedResponse.class);
+            }
+        } finally {
+            con.disconnect();
+        }
+    }
+}
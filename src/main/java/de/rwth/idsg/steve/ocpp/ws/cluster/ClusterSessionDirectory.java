@@ -0,0 +1,204 @@
+package de.rwth.idsg.steve.ocpp.ws.cluster;
+
+import com.google.common.util.concurrent.Striped;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.repository.SessionDirectoryRepository;
+import de.rwth.idsg.steve.utils.PeriodicTask;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * In the cluster mode, every node records the charge points with a WebSocket session to it in the shared
+ * directory in DB. The rows have leases, which are renewed periodically, so that the rows of a crashed node
+ * become invalid without any cleanup. When a charge point reconnects to another node, the last connection wins.
+ *
+ * The lease timestamps are compared across the nodes, therefore their clocks must be synchronized.
+ *
+ * The row of a charge point is only removed by the node that owns it. Within the node, the registration and the
+ * removal of a charge point are serialized, so that the close of an old session does not remove the row of a
+ * new session that is opened at the same time.
+ *
+ * A registration that failed is retried with the next renewal, since the renewal only extends existing rows.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class ClusterSessionDirectory {
+
+    @Autowired private SessionDirectoryRepository repository;
+    @Autowired private ScheduledExecutorService executor;
+
+    // The chargeBoxIds, for which this node has (at least) one session
+    private final Set<String> owned = ConcurrentHashMap.newKeySet();
+
+    // The owned chargeBoxIds, whose row could not be written yet. Retried with the next renewal
+    private final ConcurrentHashMap<String, OcppVersion> failedRegistrations = new ConcurrentHashMap<>();
+
+    private final Striped<Lock> locks = Striped.lock(256);
+
+    private ScheduledFuture renewSchedule;
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        // Leftovers of a previous run of this node
+        repository.removeAll(getNodeAddress());
+
+        // Renew well before the expiry, so that one failed renewal does not invalidate the leases
+        long period = Math.max(1, SteveConfiguration.Cluster.LEASE_SECONDS / 3);
+        renewSchedule = PeriodicTask.schedule(executor, "Renewing the session leases", this::renewLeases, period,
+                                              TimeUnit.SECONDS);
+
+        log.info("Cluster mode is enabled. The address of this node is {}", getNodeAddress());
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (renewSchedule != null) {
+            renewSchedule.cancel(false);
+        }
+
+        if (isEnabled()) {
+            try {
+                repository.removeAll(getNodeAddress());
+            } catch (Exception e) {
+                // The leases will expire anyway
+                log.warn("Failed to remove the sessions of this node from the directory", e);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return SteveConfiguration.Cluster.ENABLED;
+    }
+
+    public String getNodeAddress() {
+        return SteveConfiguration.Cluster.NODE_ADDRESS;
+    }
+
+    /**
+     * Is called, when a session of the charge point is opened at this node
+     */
+    public void register(String chargeBoxId, OcppVersion version) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Lock lock = locks.get(chargeBoxId);
+        lock.lock();
+        try {
+            owned.add(chargeBoxId);
+            failedRegistrations.remove(chargeBoxId);
+            repository.upsert(chargeBoxId, getNodeAddress(), version, newLeaseExpiry());
+        } catch (Exception e) {
+            // The charge point is still reachable from this node, only not from the others until the retry
+            failedRegistrations.put(chargeBoxId, version);
+            log.error("[chargeBoxId={}] Failed to register the session in the directory. Retrying with the next "
+                    + "renewal", chargeBoxId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Is called, when a session of the charge point at this node is closed. Removes the row, only if the node
+     * has no session of the charge point anymore. The session of a concurrent open must already be added to the
+     * session store, when register is called for it.
+     *
+     * @param hasSession  Whether the node still has a session of the charge point
+     */
+    public void unregister(String chargeBoxId, BooleanSupplier hasSession) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Lock lock = locks.get(chargeBoxId);
+        lock.lock();
+        try {
+            if (hasSession.getAsBoolean()) {
+                return;
+            }
+            owned.remove(chargeBoxId);
+            failedRegistrations.remove(chargeBoxId);
+            repository.remove(chargeBoxId, getNodeAddress());
+        } catch (Exception e) {
+            // The lease will expire anyway
+            log.error("[chargeBoxId={}] Failed to remove the session from the directory", chargeBoxId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the address of the node with a session to the charge point, or null
+     */
+    public String getOwner(String chargeBoxId) {
+        return repository.getOwner(chargeBoxId, DateTime.now());
+    }
+
+    public List<String> getRemoteChargeBoxIds(OcppVersion version) {
+        if (!isEnabled()) {
+            return Collections.emptyList();
+        }
+        return repository.getRemoteChargeBoxIds(version, getNodeAddress(), DateTime.now());
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private static DateTime newLeaseExpiry() {
+        return DateTime.now().plusSeconds(SteveConfiguration.Cluster.LEASE_SECONDS);
+    }
+
+    private void renewLeases() {
+        failedRegistrations.forEach(this::retryRegistration);
+
+        if (!owned.isEmpty()) {
+            repository.renew(owned, getNodeAddress(), newLeaseExpiry());
+        }
+
+        // Rows of the nodes that are gone. Invalid anyway, but should not pile up.
+        DateTime before = DateTime.now().minusSeconds(SteveConfiguration.Cluster.LEASE_SECONDS);
+        int count = repository.removeExpired(before);
+        if (count > 0) {
+            log.info("Removed {} expired sessions from the directory", count);
+        }
+    }
+
+    private void retryRegistration(String chargeBoxId, OcppVersion version) {
+        Lock lock = locks.get(chargeBoxId);
+        lock.lock();
+        try {
+            // Only if the session was neither closed nor registered again in the meantime
+            if (failedRegistrations.remove(chargeBoxId, version)) {
+                repository.upsert(chargeBoxId, getNodeAddress(), version, newLeaseExpiry());
+                log.info("[chargeBoxId={}] Registered the session in the directory after a failure", chargeBoxId);
+            }
+        } catch (Exception e) {
+            failedRegistrations.putIfAbsent(chargeBoxId, version);
+            log.error("[chargeBoxId={}] Failed to register the session in the directory again", chargeBoxId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package de.rwth.idsg.steve.ocpp.ws.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * An outgoing call, which is forwarded to the node with the session of the charge point
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@Setter
+public class ForwardedCall {
+    // Value of OcppVersion
+    private String version;
+    private String chargeBoxId;
+    private String action;
+    private JsonNode payload;
+}
@@ -0,0 +1,54 @@
+package de.rwth.idsg.steve.ocpp.ws.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import de.rwth.idsg.steve.ocpp.ws.data.ErrorCode;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonError;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The outcome of a forwarded call, as passed to the handler at the owning node. Exactly one of result,
+ * error (errorCode with description and details) or exception is set.
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@Setter
+public class ForwardedResponse {
+    private JsonNode result;
+
+    private ErrorCode errorCode;
+    private String errorDescription;
+    private String errorDetails;
+
+    // Message of the exception
+    private String exception;
+
+    public static ForwardedResponse ofResult(JsonNode result) {
+        ForwardedResponse r = new ForwardedResponse();
+        r.setResult(result);
+        return r;
+    }
+
+    public static ForwardedResponse ofError(OcppJsonError error) {
+        ForwardedResponse r = new ForwardedResponse();
+        r.setErrorCode(error.getErrorCode());
+        r.setErrorDescription(error.getErrorDescription());
+        r.setErrorDetails(error.getErrorDetails());
+        return r;
+    }
+
+    public static ForwardedResponse ofException(String message) {
+        ForwardedResponse r = new ForwardedResponse();
+        r.setException(message);
+        return r;
+    }
+
+    public OcppJsonError toError() {
+        OcppJsonError error = new OcppJsonError();
+        error.setErrorCode(errorCode);
+        error.setErrorDescription(errorDescription);
+        error.setErrorDetails(errorDetails);
+        return error;
+    }
+}
@@ -0,0 +1,65 @@
+package de.rwth.idsg.steve.ocpp.ws.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.handler.OcppResponseHandler;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonError;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.xml.ws.Response;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the outcome of a forwarded call at the owning node, so that it can be sent back to the
+ * originating node
+ *
+ * @since 18.10.2026
+ */
+@RequiredArgsConstructor
+public class ForwardedResponseHandler implements OcppResponseHandler<Object> {
+
+    // The timeout of the call itself is enforced by the response context store. This is only the safety net.
+    private static final long WAIT_SECONDS = SteveConfiguration.Ocpp.CALL_TIMEOUT + 5;
+
+    private final ObjectMapper mapper;
+    private final CompletableFuture<ForwardedResponse> future = new CompletableFuture<>();
+
+    @Override
+    public void handleResponse(Response<Object> res) {
+        try {
+            handleResult(res.get());
+        } catch (Exception e) {
+            handleException(e);
+        }
+    }
+
+    @Override
+    public void handleResult(Object response) {
+        future.complete(ForwardedResponse.ofResult(mapper.valueToTree(response)));
+    }
+
+    @Override
+    public void handleError(OcppJsonError error) {
+        future.complete(ForwardedResponse.ofError(error));
+    }
+
+    @Override
+    public void handleException(Exception e) {
+        future.complete(ForwardedResponse.ofException(e.getMessage()));
+    }
+
+    /**
+     * The HTTP request is completed with the outcome asynchronously, without blocking a thread of Jetty
+     */
+    public DeferredResult<ForwardedResponse> toDeferredResult() {
+        ForwardedResponse timeoutResult =
+                ForwardedResponse.ofException("No response received within " + WAIT_SECONDS + " seconds");
+
+        DeferredResult<ForwardedResponse> result =
+                new DeferredResult<>(TimeUnit.SECONDS.toMillis(WAIT_SECONDS), timeoutResult);
+        future.thenAccept(result::setResult);
+        return result;
+    }
+}
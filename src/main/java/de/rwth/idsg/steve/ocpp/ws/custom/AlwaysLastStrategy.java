@@ -4,7 +4,7 @@ import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -18,7 +18,7 @@ public class AlwaysLastStrategy implements WsSessionSelectStrategy {
     }
 
     @Override
-    public WebSocketSession getSession(Deque<SessionContext> sessionContexts) {
-        return sessionContexts.getLast().getSession();
+    public WebSocketSession getSession(SessionContext[] sessionContexts, AtomicInteger cursor) {
+        return sessionContexts[sessionContexts.length - 1].getSession();
     }
 }
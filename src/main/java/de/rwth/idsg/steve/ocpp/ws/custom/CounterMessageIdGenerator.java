@@ -0,0 +1,49 @@
+package de.rwth.idsg.steve.ocpp.ws.custom;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Generates ids in the form "<prefix>-<counter>":
+ *
+ * - The prefix is created once at startup from the current time and a random part. This keeps the ids
+ * unique across restarts, and across several instances that start at the same moment.
+ *
+ * - The counter is striped: Every thread increments one of several counters, such that parallel callers
+ * (e.g. a request to thousands of stations) do not contend for the same one. A stripe i only produces
+ * the values i, i + STRIPES, i + 2 * STRIPES, ..., so the stripes never collide.
+ *
+ * Both parts are encoded with radix 36, which results in ids around 15 characters long.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public class CounterMessageIdGenerator implements MessageIdGenerator {
+
+    private static final int STRIPES = 16; // must be a power of two
+    private static final int MASK = STRIPES - 1;
+
+    // The counters are placed 8 longs (= 64 bytes, a typical cache line) apart,
+    // so that the stripes do not share a cache line
+    private static final int PADDING = 8;
+
+    private final String prefix;
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * PADDING);
+
+    public CounterMessageIdGenerator() {
+        long time = System.currentTimeMillis();
+        int random = ThreadLocalRandom.current().nextInt(36 * 36);
+
+        this.prefix = Long.toString(time, 36) + Integer.toString(random, 36) + "-";
+        log.debug("Initialized with prefix '{}'", prefix);
+    }
+
+    @Override
+    public String next() {
+        int stripe = (int) Thread.currentThread().getId() & MASK;
+        long count = counters.getAndIncrement(stripe * PADDING);
+        return prefix + Long.toString(count * STRIPES + stripe, 36);
+    }
+}
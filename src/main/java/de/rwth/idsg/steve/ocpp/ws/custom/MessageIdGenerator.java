@@ -0,0 +1,11 @@
+package de.rwth.idsg.steve.ocpp.ws.custom;
+
+/**
+ * Generates the unique ids of outgoing OCPP-J calls. The responses are matched to the calls
+ * with these ids, therefore an id must not repeat as long as a call with it might be pending.
+ *
+ * @since 18.10.2026
+ */
+public interface MessageIdGenerator {
+    String next();
+}
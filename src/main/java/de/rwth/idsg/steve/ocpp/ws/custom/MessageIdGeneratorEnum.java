@@ -0,0 +1,22 @@
+package de.rwth.idsg.steve.ocpp.ws.custom;
+
+/**
+ * @since 18.10.2026
+ */
+public enum MessageIdGeneratorEnum {
+
+    // Startup prefix and a striped counter. Short ids, no contention.
+    COUNTER,
+
+    // Random UUIDs.
+    UUID;
+
+    public static MessageIdGeneratorEnum fromName(String v) {
+        for (MessageIdGeneratorEnum s: MessageIdGeneratorEnum.values()) {
+            if (s.name().equals(v)) {
+                return s;
+            }
+        }
+        throw new IllegalArgumentException(v);
+    }
+}
@@ -2,17 +2,15 @@ package de.rwth.idsg.steve.ocpp.ws.custom;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import ocpp.cs._2012._06.MeterValue;
 import org.joda.time.DateTime;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -20,6 +18,8 @@ import java.util.List;
  * that set the field name wrongfully to "values" rather than the correct "value".
  * We handle the situation by looking both fields up in the message.
  *
+ * The values are bound while streaming through the parser, without building a tree of the message first.
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 01.09.2015
  */
@@ -27,69 +27,87 @@ import java.util.List;
 public class MeterValue15Deserializer extends JsonDeserializer<List<MeterValue>> {
 
     @Override
-    public List<MeterValue> deserialize(JsonParser jp, DeserializationContext deserializationContext)
+    public List<MeterValue> deserialize(JsonParser jp, DeserializationContext ctxt)
             throws IOException, JsonProcessingException {
 
-        ObjectMapper mapper = (ObjectMapper) jp.getCodec();
-        JsonNode node = mapper.readTree(jp);
-        if (node == null) {
-            return Collections.emptyList();
+        if (jp.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw ctxt.mappingException(List.class);
         }
-        return parseListMeterValue(mapper, node);
-    }
 
-    // List<MeterValue>
-    private List<MeterValue> parseListMeterValue(ObjectMapper mapper, JsonNode listNode)
-            throws JsonProcessingException {
+        JsonDeserializer<Object> valueDeserializer =
+                ctxt.findRootValueDeserializer(ctxt.constructType(MeterValue.Value.class));
 
-        if (listNode.isMissingNode()) {
-            return Collections.emptyList();
-        } else {
-            List<MeterValue> rootList = new ArrayList<>();
-            for (JsonNode node : listNode) {
-                rootList.add(buildMeterValue(mapper, node));
-            }
-            return rootList;
+        // List<MeterValue>
+        List<MeterValue> rootList = new ArrayList<>();
+        while (jp.nextToken() != JsonToken.END_ARRAY) {
+            rootList.add(buildMeterValue(jp, ctxt, valueDeserializer));
         }
+        return rootList;
     }
 
     // MeterValue
-    private MeterValue buildMeterValue(ObjectMapper mapper, JsonNode node)
-            throws JsonProcessingException {
+    private MeterValue buildMeterValue(JsonParser jp, DeserializationContext ctxt,
+                                       JsonDeserializer<Object> valueDeserializer) throws IOException {
+
+        if (jp.getCurrentToken() != JsonToken.START_OBJECT) {
+            throw ctxt.mappingException(MeterValue.class);
+        }
 
         MeterValue meterValue = new MeterValue();
         List<MeterValue.Value> list = meterValue.getValue();
 
-        parseValue(mapper, list, node.path("value"), true);
-        parseValue(mapper, list, node.path("values"), false);
-        parseDateTime(meterValue, node.path("timestamp"));
+        // The values of the broken field come after the correct ones, regardless of their order in the message
+        List<MeterValue.Value> brokenList = null;
 
-        return meterValue;
-    }
+        while (jp.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = jp.getCurrentName();
+            jp.nextToken();
 
-    // List<MeterValue.Value>
-    private void parseValue(ObjectMapper mapper, List<MeterValue.Value> list, JsonNode listNode, boolean isCorrect)
-            throws JsonProcessingException {
+            switch (fieldName) {
+                case "value":
+                    parseValue(jp, ctxt, valueDeserializer, list);
+                    break;
+
+                case "values":
+                    logBroken();
+                    brokenList = new ArrayList<>();
+                    parseValue(jp, ctxt, valueDeserializer, brokenList);
+                    break;
 
-        if (!listNode.isMissingNode()) {
-            logBroken(isCorrect);
-            for (JsonNode node : listNode) {
-                list.add(mapper.treeToValue(node, MeterValue.Value.class));
+                case "timestamp":
+                    meterValue.setTimestamp(new DateTime(jp.getText()));
+                    break;
+
+                default:
+                    jp.skipChildren();
+                    break;
             }
         }
-    }
 
-    private void parseDateTime(MeterValue meterValue, JsonNode node) {
-        if (!node.isMissingNode()) {
-            meterValue.setTimestamp(new DateTime(node.asText()));
+        if (brokenList != null) {
+            list.addAll(brokenList);
         }
+        return meterValue;
     }
 
-    private void logBroken(boolean isCorrect) {
-        if (isCorrect) {
-            return;
+    // List<MeterValue.Value>
+    private void parseValue(JsonParser jp, DeserializationContext ctxt, JsonDeserializer<Object> valueDeserializer,
+                            List<MeterValue.Value> list) throws IOException {
+
+        if (jp.getCurrentToken() != JsonToken.START_ARRAY) {
+            throw ctxt.mappingException(List.class);
         }
 
+        while (jp.nextToken() != JsonToken.END_ARRAY) {
+            if (jp.getCurrentToken() == JsonToken.VALUE_NULL) {
+                list.add(null);
+            } else {
+                list.add((MeterValue.Value) valueDeserializer.deserialize(jp, ctxt));
+            }
+        }
+    }
+
+    private void logBroken() {
         log.warn("Received an invalid 'MeterValues' message from a charging station with a broken implementation, "
                 + "but still can process it. Please contact the manufacturer/vendor to report the bug.");
     }
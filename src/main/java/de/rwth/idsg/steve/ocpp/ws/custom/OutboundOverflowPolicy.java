@@ -0,0 +1,25 @@
+package de.rwth.idsg.steve.ocpp.ws.custom;
+
+/**
+ * What to do, when the outbound queue of a WebSocket session is full.
+ *
+ * @since 18.10.2026
+ */
+public enum OutboundOverflowPolicy {
+
+    // Drop the oldest queued message that is not a CALL (i.e. a response or a ping) to make room.
+    // If the queue only contains CALLs, the new message is rejected.
+    DROP_OLDEST,
+
+    // The peer does not keep up. Close the session, and let it reconnect.
+    CLOSE;
+
+    public static OutboundOverflowPolicy fromName(String v) {
+        for (OutboundOverflowPolicy s: OutboundOverflowPolicy.values()) {
+            if (s.name().equals(v)) {
+                return s;
+            }
+        }
+        throw new IllegalArgumentException(v);
+    }
+}
@@ -4,7 +4,7 @@ import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -18,10 +18,9 @@ public class RoundRobinStrategy implements WsSessionSelectStrategy {
     }
 
     @Override
-    public WebSocketSession getSession(Deque<SessionContext> sessionContexts) {
-        // Remove the first item, and add at the end
-        SessionContext s = sessionContexts.removeFirst();
-        sessionContexts.addLast(s);
-        return s.getSession();
+    public WebSocketSession getSession(SessionContext[] sessionContexts, AtomicInteger cursor) {
+        // floorMod, since the cursor overflows eventually
+        int index = Math.floorMod(cursor.getAndIncrement(), sessionContexts.length);
+        return sessionContexts[index].getSession();
     }
 }
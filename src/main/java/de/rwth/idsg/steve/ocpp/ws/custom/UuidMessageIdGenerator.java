@@ -0,0 +1,17 @@
+package de.rwth.idsg.steve.ocpp.ws.custom;
+
+import java.util.UUID;
+
+/**
+ * Random UUIDs, as before. Unique without any coordination, but every call goes through the shared
+ * SecureRandom, and the ids are 36 characters long.
+ *
+ * @since 18.10.2026
+ */
+public class UuidMessageIdGenerator implements MessageIdGenerator {
+
+    @Override
+    public String next() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -3,16 +3,19 @@ package de.rwth.idsg.steve.ocpp.ws.custom;
 import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * We want to support multiple connections to a charge point. For sending messages we need a
  * mechanism to select one WebSocketSession. Implementations of this interface should use
  * different mechanisms to realize that.
  *
+ * The array is an immutable snapshot that must not be modified. If an implementation needs state between
+ * the calls, it should use the cursor, which is shared by all snapshots of the same chargebox.
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 30.04.2015
  */
 public interface WsSessionSelectStrategy {
-    WebSocketSession getSession(Deque<SessionContext> sessionContexts);
+    WebSocketSession getSession(SessionContext[] sessionContexts, AtomicInteger cursor);
 }
@@ -5,16 +5,18 @@ import lombok.RequiredArgsConstructor;
 import org.joda.time.DateTime;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.util.concurrent.ScheduledFuture;
-
 /**
+ * The timestamp is kept as millis, since a DateTime object per connection costs more than it is read
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 25.03.2015
  */
-@Getter
 @RequiredArgsConstructor
 public class SessionContext {
-    private final WebSocketSession session;
-    private final ScheduledFuture pingSchedule;
-    private final DateTime openSince;
+    @Getter private final WebSocketSession session;
+    private final long openSinceMillis;
+
+    public DateTime getOpenSince() {
+        return new DateTime(openSinceMillis);
+    }
 }
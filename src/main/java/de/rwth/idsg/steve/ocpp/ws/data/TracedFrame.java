@@ -0,0 +1,32 @@
+package de.rwth.idsg.steve.ocpp.ws.data;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.joda.time.DateTime;
+
+/**
+ * A WebSocket frame as it was received or sent
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@RequiredArgsConstructor
+public class TracedFrame {
+    private final long timestamp; // in millis
+    private final Direction direction;
+    private final Kind kind;
+    private final String sessionId;
+    private final String payload;
+
+    public enum Direction { IN, OUT }
+
+    public enum Kind { TEXT, PING, PONG }
+
+    public DateTime getDateTime() {
+        return new DateTime(timestamp);
+    }
+
+    public int getLength() {
+        return payload == null ? 0 : payload.length();
+    }
+}
@@ -1,5 +1,6 @@
 package de.rwth.idsg.steve.ocpp.ws.ocpp12;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.rwth.idsg.steve.ocpp.ws.AbstractTypeStore;
 import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
 import ocpp.cp._2010._08.ChangeAvailabilityRequest;
@@ -29,6 +30,7 @@ import ocpp.cs._2010._08.MeterValuesRequest;
 import ocpp.cs._2010._08.StartTransactionRequest;
 import ocpp.cs._2010._08.StatusNotificationRequest;
 import ocpp.cs._2010._08.StopTransactionRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
@@ -40,6 +42,8 @@ import javax.annotation.PostConstruct;
 @Component
 public class Ocpp12TypeStore extends AbstractTypeStore {
 
+    @Autowired private ObjectMapper mapper;
+
     @PostConstruct
     public void init() {
         // For incoming requests
@@ -72,5 +76,7 @@ public class Ocpp12TypeStore extends AbstractTypeStore {
                 new ActionResponsePair("RemoteStartTransaction", RemoteStartTransactionResponse.class));
         actionResponseMap.put(RemoteStopTransactionRequest.class,
                 new ActionResponsePair("RemoteStopTransaction", RemoteStopTransactionResponse.class));
+
+        initReaders(mapper);
     }
 }
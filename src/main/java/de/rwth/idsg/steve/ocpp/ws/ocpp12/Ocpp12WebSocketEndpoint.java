@@ -1,6 +1,7 @@
 package de.rwth.idsg.steve.ocpp.ws.ocpp12;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.ws.AbstractWebSocketEndpoint;
 import de.rwth.idsg.steve.ocpp.ws.FutureResponseContextStore;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.IncomingPipeline;
@@ -33,4 +34,9 @@ public class Ocpp12WebSocketEndpoint extends AbstractWebSocketEndpoint {
                                         typeStore, handler,
                                         serializer, sender);
     }
+
+    @Override
+    public OcppVersion getVersion() {
+        return OcppVersion.V_12;
+    }
 }
@@ -1,5 +1,6 @@
 package de.rwth.idsg.steve.ocpp.ws.ocpp15;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.rwth.idsg.steve.ocpp.ws.AbstractTypeStore;
 import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
 import ocpp.cp._2012._06.CancelReservationRequest;
@@ -41,6 +42,7 @@ import ocpp.cs._2012._06.MeterValuesRequest;
 import ocpp.cs._2012._06.StartTransactionRequest;
 import ocpp.cs._2012._06.StatusNotificationRequest;
 import ocpp.cs._2012._06.StopTransactionRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
@@ -52,6 +54,8 @@ import javax.annotation.PostConstruct;
 @Component
 public class Ocpp15TypeStore extends AbstractTypeStore {
 
+    @Autowired private ObjectMapper mapper;
+
     @PostConstruct
     public void init() {
         // For incoming requests
@@ -97,5 +101,7 @@ public class Ocpp15TypeStore extends AbstractTypeStore {
                 new ActionResponsePair("ReserveNow", ReserveNowResponse.class));
         actionResponseMap.put(SendLocalListRequest.class,
                 new ActionResponsePair("SendLocalList", SendLocalListResponse.class));
+
+        initReaders(mapper);
     }
 }
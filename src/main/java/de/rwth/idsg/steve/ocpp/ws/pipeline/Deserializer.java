@@ -2,7 +2,6 @@ package de.rwth.idsg.steve.ocpp.ws.pipeline;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.ocpp.RequestType;
@@ -38,6 +37,11 @@ public class Deserializer implements Stage {
     /**
      * Parsing with streaming API is cumbersome, but only it allows to parse the String step for step
      * and build, if any, a corresponding error message.
+     *
+     * The payloads are bound directly from the parser, which is already positioned at the start of the
+     * payload object. We do not build an intermediate JsonNode tree (which would be thrown away right
+     * after binding), since for large messages (e.g. MeterValues with many samples) this would double
+     * the allocations.
      */
     @Override
     public void process(CommunicationContext context) {
@@ -102,8 +106,7 @@ public class Deserializer implements Stage {
         RequestType req;
         try {
             parser.nextToken();
-            JsonNode requestPayload = parser.readValueAsTree();
-            req = mapper.treeToValue(requestPayload, clazz);
+            req = typeStore.findReader(clazz).readValue(parser);
         } catch (IOException e) {
             log.error("Exception occurred", e);
             context.setOutgoingMessage(ErrorFactory.payloadDeserializeError(messageId, e.getMessage()));
@@ -134,8 +137,7 @@ public class Deserializer implements Stage {
         ResponseType res;
         try {
             parser.nextToken();
-            JsonNode responsePayload = parser.readValueAsTree();
-            res = mapper.treeToValue(responsePayload, responseContext.getResponseClass());
+            res = typeStore.findReader(responseContext.getResponseClass()).readValue(parser);
         } catch (IOException e) {
             throw new SteveException("Deserialization of incoming response payload failed", e);
         }
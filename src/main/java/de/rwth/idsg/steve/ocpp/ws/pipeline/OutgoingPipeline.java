@@ -5,6 +5,7 @@ import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
 
 /**
  * For outgoing CALLs, triggered by the user.
@@ -23,11 +24,23 @@ public class OutgoingPipeline implements Pipeline {
     @Override
     public void run(CommunicationContext context) {
         serializer.process(context);
-        sender.process(context);
 
-        // All went well, and the call is sent. Store the response context for later lookup.
-        futureResponseContextStore.add(context.getSession(),
-                                       context.getOutgoingMessage().getMessageId(),
-                                       context.getFutureResponseContext());
+        // The send happens asynchronously, and the response might arrive before the sender returns.
+        // Therefore, store the response context for later lookup before the call is handed over.
+        WebSocketSession session = context.getSession();
+        String messageId = context.getOutgoingMessage().getMessageId();
+        futureResponseContextStore.add(session, messageId, context.getFutureResponseContext());
+
+        try {
+            sender.process(context);
+        } catch (RuntimeException e) {
+            // The call is not sent. No response will come. A failing cleanup must not hide the original exception
+            try {
+                futureResponseContextStore.get(session, messageId);
+            } catch (RuntimeException cleanupException) {
+                e.addSuppressed(cleanupException);
+            }
+            throw e;
+        }
     }
 }
@@ -1,16 +1,23 @@
 package de.rwth.idsg.steve.ocpp.ws.pipeline;
 
 import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.ocpp.ws.FrameTracer;
+import de.rwth.idsg.steve.ocpp.ws.FutureResponseContextStore;
+import de.rwth.idsg.steve.ocpp.ws.OutboundQueue;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
+import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
 import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonCall;
+import de.rwth.idsg.steve.ocpp.ws.data.TracedFrame;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 
-import java.io.IOException;
-
 /**
+ * Hands the outgoing message over to the outbound queue of the session. The actual send happens
+ * asynchronously in the writer of the queue.
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 12.03.2015
  */
@@ -18,25 +25,62 @@ import java.io.IOException;
 @Component
 public class Sender implements Stage {
 
+    @Autowired private FutureResponseContextStore futureResponseContextStore;
+    @Autowired private FrameTracer frameTracer;
+
     @Override
     public void process(CommunicationContext context) {
         String outgoingString = context.getOutgoingString();
         String chargeBoxId = context.getChargeBoxId();
         WebSocketSession session = context.getSession();
 
-        log.info("[chargeBoxId={}, sessionId={}] Sending message: {}", chargeBoxId, session.getId(), outgoingString);
+        frameTracer.trace(chargeBoxId, session.getId(), TracedFrame.Direction.OUT, TracedFrame.Kind.TEXT,
+                          outgoingString);
+        if (log.isDebugEnabled()) {
+            log.debug("[chargeBoxId={}, sessionId={}] Sending message: {}", chargeBoxId, session.getId(),
+                      outgoingString);
+        } else {
+            log.info("[chargeBoxId={}, sessionId={}] Sending message of {} chars", chargeBoxId, session.getId(),
+                     outgoingString.length());
+        }
 
         TextMessage out = new TextMessage(outgoingString);
-        try {
-            session.sendMessage(out);
-        } catch (IOException e) {
+        boolean isCall = context.getOutgoingMessage() instanceof OcppJsonCall;
+
+        OutboundQueue queue = OutboundQueue.get(session);
+        boolean accepted = (queue != null)
+                && queue.offer(out, isCall, isCall ? e -> failCall(context, e) : null);
 
+        if (!accepted) {
             // Do NOT swallow exceptions for outgoing CALLs. For others just log.
-            if (context.getOutgoingMessage() instanceof OcppJsonCall) {
-                throw new SteveException(e.getMessage());
+            if (isCall) {
+                throw new SteveException("The outgoing call could not be queued for sending to chargeBoxId '%s'",
+                                         chargeBoxId);
             } else {
-                log.error("Could not send the outgoing message", e);
+                log.error("[chargeBoxId={}, sessionId={}] Could not queue the outgoing message",
+                          chargeBoxId, session.getId());
             }
         }
     }
+
+    /**
+     * The call was accepted by the queue, but the send failed later. Since the caller returned already,
+     * inform the handler of the call directly.
+     */
+    private void failCall(CommunicationContext context, Exception e) {
+        String messageId = context.getOutgoingMessage().getMessageId();
+
+        FutureResponseContext frc;
+        try {
+            frc = futureResponseContextStore.get(context.getSession(), messageId);
+        } catch (SteveException ex) {
+            // The session is already removed from the store, and its pending calls are released with it
+            return;
+        }
+
+        // Null, if the call is expired in the meantime
+        if (frc != null) {
+            frc.getHandler().handleException(e);
+        }
+    }
 }
@@ -1,8 +1,7 @@
 package de.rwth.idsg.steve.ocpp.ws.pipeline;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.ocpp.ws.ErrorFactory;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
@@ -21,6 +20,10 @@ import java.io.StringWriter;
 /**
  * Outgoing OcppJsonMessage --> String.
  *
+ * The envelope [typeNr, messageId, (action,) payload] is written with the streaming API directly into a
+ * buffer, without building an intermediate JsonNode tree. The buffer is reused by the same thread for
+ * the next message.
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 17.03.2015
  */
@@ -30,36 +33,40 @@ public class Serializer implements Stage {
 
     @Autowired private ObjectMapper mapper;
 
+    // Initial capacity of a buffer, and the maximum capacity that is retained after a message
+    // is serialized. A thread that once serialized a very large message (e.g. SendLocalList)
+    // should not hold on to the big buffer forever.
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<StringWriter> BUFFER =
+            ThreadLocal.withInitial(() -> new StringWriter(INITIAL_BUFFER_SIZE));
+
     @Override
     public void process(CommunicationContext context) {
         OcppJsonMessage message = context.getOutgoingMessage();
+        StringWriter writer = getBuffer();
 
-        ArrayNode str;
         MessageType messageType = message.getMessageType();
         switch (messageType) {
             case CALL:
-                str = handleCall((OcppJsonCall) message);
+                handleCall(writer, (OcppJsonCall) message);
                 break;
 
             case CALL_RESULT:
-                str = handleResult((OcppJsonResult) message);
+                handleResult(writer, (OcppJsonResult) message);
                 break;
 
             case CALL_ERROR:
-                str = handleError((OcppJsonError) message);
+                handleError(writer, (OcppJsonError) message);
                 break;
 
             default:
                 throw new SteveException("Unknown enum type");
         }
 
-        try {
-            StringWriter sw = new StringWriter();
-            mapper.writeValue(sw, str);
-            context.setOutgoingString(sw.toString());
-        } catch (IOException e) {
-            throw new SteveException("The outgoing message could not be serialized", e);
-        }
+        context.setOutgoingString(writer.toString());
+        releaseBuffer(writer);
     }
 
     // -------------------------------------------------------------------------
@@ -70,43 +77,42 @@ public class Serializer implements Stage {
      * Do NOT catch and handle exceptions for outgoing CALLs. Do NOT send the message.
      * Let the processing fail and acknowledge the user.
      */
-    private ArrayNode handleCall(OcppJsonCall call) {
-        JsonNode payloadNode;
-        try {
-            payloadNode = mapper.valueToTree(call.getPayload());
-        } catch (IllegalArgumentException e) {
+    private void handleCall(StringWriter writer, OcppJsonCall call) {
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(writer)) {
+            gen.writeStartArray();
+            gen.writeNumber(call.getMessageType().getTypeNr());
+            gen.writeString(call.getMessageId());
+            gen.writeString(call.getAction());
+            mapper.writeValue(gen, call.getPayload());
+            gen.writeEndArray();
+        } catch (IOException e) {
             throw new SteveException("The payload of the outgoing call could not be converted to JSON", e);
         }
-
-        return mapper.createArrayNode()
-                     .add(call.getMessageType().getTypeNr())
-                     .add(call.getMessageId())
-                     .add(call.getAction())
-                     .add(payloadNode);
     }
 
     /**
      * Catch exceptions and wrap them in outgoing ERRORs for outgoing RESPONSEs.
      */
-    private ArrayNode handleResult(OcppJsonResult result) {
-        JsonNode payloadNode;
-        try {
-            payloadNode = mapper.valueToTree(result.getPayload());
-        } catch (IllegalArgumentException e) {
+    private void handleResult(StringWriter writer, OcppJsonResult result) {
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(writer)) {
+            gen.writeStartArray();
+            gen.writeNumber(result.getMessageType().getTypeNr());
+            gen.writeString(result.getMessageId());
+            mapper.writeValue(gen, result.getPayload());
+            gen.writeEndArray();
+        } catch (IOException e) {
             log.error("Exception occurred", e);
-            return handleError(ErrorFactory.payloadSerializeError(result.getMessageId(), e.getMessage()));
-        }
 
-        return mapper.createArrayNode()
-                     .add(result.getMessageType().getTypeNr())
-                     .add(result.getMessageId())
-                     .add(payloadNode);
+            // Discard what is written so far, and write the error instead
+            writer.getBuffer().setLength(0);
+            handleError(writer, ErrorFactory.payloadSerializeError(result.getMessageId(), e.getMessage()));
+        }
     }
 
     /**
      * No exception to catch during serialization, since the fields of the error are simple Strings.
      */
-    private ArrayNode handleError(OcppJsonError error) {
+    private void handleError(StringWriter writer, OcppJsonError error) {
         // From spec:
         // ErrorDescription - Should be filled in if possible, otherwise a clear empty string "".
         String description;
@@ -116,21 +122,38 @@ public class Serializer implements Stage {
             description = "";
         }
 
-        // From soec:
-        // ErrorDetails - This JSON object describes error details in an undefined way.
-        // If there are no error details you should fill in an empty object {}, missing or null is not allowed
-        JsonNode detailsNode;
-        if (error.isSetDetails()) {
-            detailsNode = mapper.getNodeFactory().textNode(error.toStringErrorDetails());
-        } else {
-            detailsNode = mapper.createObjectNode();
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(writer)) {
+            gen.writeStartArray();
+            gen.writeNumber(error.getMessageType().getTypeNr());
+            gen.writeString(error.getMessageId());
+            gen.writeString(error.getErrorCode().name());
+            gen.writeString(description);
+
+            // From soec:
+            // ErrorDetails - This JSON object describes error details in an undefined way.
+            // If there are no error details you should fill in an empty object {}, missing or null is not allowed
+            if (error.isSetDetails()) {
+                gen.writeString(error.toStringErrorDetails());
+            } else {
+                gen.writeStartObject();
+                gen.writeEndObject();
+            }
+
+            gen.writeEndArray();
+        } catch (IOException e) {
+            throw new SteveException("The outgoing message could not be serialized", e);
         }
+    }
+
+    private static StringWriter getBuffer() {
+        StringWriter writer = BUFFER.get();
+        writer.getBuffer().setLength(0);
+        return writer;
+    }
 
-        return mapper.createArrayNode()
-                     .add(error.getMessageType().getTypeNr())
-                     .add(error.getMessageId())
-                     .add(error.getErrorCode().name())
-                     .add(description)
-                     .add(detailsNode);
+    private static void releaseBuffer(StringWriter writer) {
+        if (writer.getBuffer().capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            BUFFER.remove();
+        }
     }
 }
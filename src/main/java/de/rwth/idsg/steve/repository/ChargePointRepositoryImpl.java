@@ -1,5 +1,6 @@
 package de.rwth.idsg.steve.repository;
 
+import de.rwth.idsg.steve.SteveConfiguration;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.ocpp.OcppTransport;
@@ -7,6 +8,7 @@ import de.rwth.idsg.steve.repository.dto.ChargePoint;
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
 import de.rwth.idsg.steve.repository.dto.ConnectorStatus;
 import de.rwth.idsg.steve.utils.DateTimeUtils;
+import de.rwth.idsg.steve.utils.PeriodicTask;
 import de.rwth.idsg.steve.web.dto.Address;
 import de.rwth.idsg.steve.web.dto.ChargeBoxForm;
 import de.rwth.idsg.steve.web.dto.ChargePointQueryForm;
@@ -16,29 +18,39 @@ import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
 import org.jooq.Configuration;
 import org.jooq.DSLContext;
-import org.jooq.Field;
 import org.jooq.Record1;
 import org.jooq.Record4;
 import org.jooq.Result;
 import org.jooq.SelectConditionStep;
 import org.jooq.SelectQuery;
-import org.jooq.TableLike;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static de.rwth.idsg.steve.utils.CustomDSL.date;
 import static de.rwth.idsg.steve.utils.CustomDSL.includes;
 import static jooq.steve.db.tables.Address.ADDRESS;
 import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
 import static jooq.steve.db.tables.Connector.CONNECTOR;
-import static jooq.steve.db.tables.ConnectorStatus.CONNECTOR_STATUS;
 
 /**
+ * isRegistered(..) is called for every WebSocket handshake, and a reconnecting fleet would hit the DB with
+ * thousands of them per second. Therefore, the registered chargeBoxIds are kept in an in-memory index, which
+ * is loaded at startup, updated when charge points are added/deleted, and re-checked against the DB
+ * periodically (in case the table is modified outside of SteVe).
+ *
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 14.08.2014
  */
@@ -51,16 +63,46 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
     private Configuration config;
 
     @Autowired private AddressRepository addressRepository;
+    @Autowired private ScheduledExecutorService executor;
+    @Autowired private ConnectorPkCache connectorPkCache;
+    @Autowired private ConnectorStatusMirror connectorStatusMirror;
+    @Autowired private StatisticsCache statisticsCache;
+
+    private volatile Set<String> registrationIndex = ConcurrentHashMap.newKeySet();
+
+    // Incremented with every modification of the index. A refresh, that raced with a modification, is discarded.
+    // Guarded by indexLock, whereas the lookups are lock-free
+    private final Object indexLock = new Object();
+    private long indexVersion = 0;
+
+    private ScheduledFuture refreshSchedule;
+
+    @PostConstruct
+    public void init() {
+        try {
+            refreshRegistrationIndex();
+        } catch (Exception e) {
+            // Start with an empty index, which the next periodic refresh fills
+            log.error("Loading the registration index failed", e);
+        }
+
+        long interval = SteveConfiguration.Ocpp.REGISTRATION_REFRESH_INTERVAL;
+        if (interval > 0) {
+            refreshSchedule = PeriodicTask.schedule(executor, "Refreshing the registration index",
+                                                    this::refreshRegistrationIndex, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (refreshSchedule != null) {
+            refreshSchedule.cancel(false);
+        }
+    }
 
     @Override
     public boolean isRegistered(String chargeBoxId) {
-        Record1<Integer> r = DSL.using(config)
-                                .selectOne()
-                                .from(CHARGE_BOX)
-                                .where(CHARGE_BOX.CHARGE_BOX_ID.eq(chargeBoxId))
-                                .fetchOne();
-
-        return (r != null) && (r.value1() == 1);
+        return registrationIndex.contains(toIndexKey(chargeBoxId));
     }
 
     @Override
@@ -179,33 +221,7 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
 
     @Override
     public List<ConnectorStatus> getChargePointConnectorStatus() {
-        // Prepare for the inner select of the second join
-        Field<Integer> t1Pk = CONNECTOR_STATUS.CONNECTOR_PK.as("t1_pk");
-        Field<DateTime> t1Max = DSL.max(CONNECTOR_STATUS.STATUS_TIMESTAMP).as("t1_max");
-        TableLike<?> t1 = DSL.select(t1Pk, t1Max)
-                             .from(CONNECTOR_STATUS)
-                             .groupBy(CONNECTOR_STATUS.CONNECTOR_PK)
-                             .asTable("t1");
-
-        return DSL.using(config)
-                  .select(CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID,
-                          CONNECTOR_STATUS.STATUS_TIMESTAMP, CONNECTOR_STATUS.STATUS, CONNECTOR_STATUS.ERROR_CODE)
-                  .from(CONNECTOR_STATUS)
-                  .join(CONNECTOR)
-                  .onKey()
-                  .join(t1)
-                  .on(CONNECTOR_STATUS.CONNECTOR_PK.equal(t1.field(t1Pk)))
-                  .and(CONNECTOR_STATUS.STATUS_TIMESTAMP.equal(t1.field(t1Max)))
-                  .orderBy(CONNECTOR_STATUS.STATUS_TIMESTAMP.desc())
-                  .fetch()
-                  .map(r -> ConnectorStatus.builder()
-                                           .chargeBoxId(r.value1())
-                                           .connectorId(r.value2())
-                                           .timeStamp(DateTimeUtils.humanize(r.value3()))
-                                           .status(r.value4())
-                                           .errorCode(r.value5())
-                                           .build()
-                  );
+        return connectorStatusMirror.getStatuses();
     }
 
     @Override
@@ -230,6 +246,13 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
                         form.getChargeBoxId(), e);
             }
         });
+
+        // Only after the commit
+        synchronized (indexLock) {
+            indexVersion++;
+            registrationIndex.add(toIndexKey(form.getChargeBoxId()));
+        }
+        statisticsCache.increment(StatisticsCache.Counter.CHARGE_BOXES);
     }
 
     @Override
@@ -250,23 +273,65 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
 
     @Override
     public void deleteChargePoint(String chargeBoxId) {
-        DSL.using(config).transaction(configuration -> {
+        int count = DSL.using(config).transactionResult(configuration -> {
             DSLContext ctx = DSL.using(configuration);
             try {
                 addressRepository.delete(ctx, selectAddressId(chargeBoxId));
-                deleteChargePointInternal(ctx, chargeBoxId);
+                return deleteChargePointInternal(ctx, chargeBoxId);
 
             } catch (DataAccessException e) {
                 throw new SteveException("The charge point with chargeBoxId '%s' could NOT be deleted.",
                         chargeBoxId, e);
             }
         });
+
+        // Only after the commit
+        synchronized (indexLock) {
+            indexVersion++;
+            registrationIndex.remove(toIndexKey(chargeBoxId));
+        }
+
+        // The connectors (and their statuses) are deleted with the charge point
+        connectorPkCache.invalidate(chargeBoxId);
+        connectorStatusMirror.invalidate(chargeBoxId);
+        if (count > 0) {
+            statisticsCache.chargeBoxDeleted(chargeBoxId);
+        }
     }
 
     // -------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------
 
+    private void refreshRegistrationIndex() {
+        long version;
+        synchronized (indexLock) {
+            version = indexVersion;
+        }
+
+        Set<String> fresh = ConcurrentHashMap.newKeySet();
+        for (String chargeBoxId : getChargeBoxIds()) {
+            fresh.add(toIndexKey(chargeBoxId));
+        }
+
+        synchronized (indexLock) {
+            if (version != indexVersion) {
+                log.debug("The registration index was modified during the refresh. Retrying with the next one");
+                return;
+            }
+            registrationIndex = fresh;
+        }
+        log.debug("Refreshed the registration index with {} chargeBoxIds", fresh.size());
+    }
+
+    /**
+     * The column has a case-insensitive collation, so that the DB lookup was case-insensitive as well.
+     * We keep that behaviour.
+     */
+    private static String toIndexKey(String chargeBoxId) {
+        return chargeBoxId.toLowerCase(Locale.ROOT);
+    }
+
     private SelectConditionStep<Record1<Integer>> selectAddressId(String chargeBoxId) {
         return DSL.select(CHARGE_BOX.ADDRESS_PK)
                   .from(CHARGE_BOX)
@@ -300,9 +365,9 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
            .execute();
     }
 
-    private void deleteChargePointInternal(DSLContext ctx, String chargeBoxId) {
-        ctx.delete(CHARGE_BOX)
-           .where(CHARGE_BOX.CHARGE_BOX_ID.equal(chargeBoxId))
-           .execute();
+    private int deleteChargePointInternal(DSLContext ctx, String chargeBoxId) {
+        return ctx.delete(CHARGE_BOX)
+                  .where(CHARGE_BOX.CHARGE_BOX_ID.equal(chargeBoxId))
+                  .execute();
     }
 }
@@ -0,0 +1,200 @@
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.config.StartupTasks;
+import de.rwth.idsg.steve.utils.PeriodicTask;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static jooq.steve.db.tables.Connector.CONNECTOR;
+
+/**
+ * Almost every OCPP message refers to a connector, and the mapping (chargeBoxId, connectorId) -> connector_pk
+ * practically never changes. Instead of an INSERT IGNORE and a SELECT per message, the mapping is cached.
+ * It is loaded at startup, and filled when a connector is seen for the first time. The entries of a charge
+ * point are removed when it is deleted, since its connectors are deleted with it (ON DELETE CASCADE).
+ *
+ * Only connectors that already existed in DB before the current transaction are cached. A connector inserted
+ * by the current transaction could be rolled back, and is cached with its next message.
+ *
+ * As with the registration index, the cache is reloaded periodically to drop the connectors deleted outside of
+ * this instance (e.g. by the other nodes of a cluster). Until then, a write for such a connector fails. Every
+ * invalidation increments the version. A put or a reload, that started before, is discarded, so that it cannot
+ * bring back a connector_pk of a deleted charge point.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class ConnectorPkCache {
+
+    @Autowired
+    @Qualifier("jooqConfig")
+    private Configuration config;
+
+    @Autowired private StartupTasks startupTasks;
+    @Autowired private ScheduledExecutorService executor;
+
+    // Key = chargeBoxId (see toKey), value = connectorId -> connector_pk
+    private volatile ConcurrentHashMap<String, Map<Integer, Integer>> cache = new ConcurrentHashMap<>();
+
+    // Guards version and the modifications of the cache, whereas the lookups are lock-free
+    private final Object lock = new Object();
+    private long version = 0;
+
+    private ScheduledFuture reloadSchedule;
+
+    @PostConstruct
+    public void init() {
+        startupTasks.submit("Connector cache", this::load);
+
+        long interval = SteveConfiguration.Ocpp.REGISTRATION_REFRESH_INTERVAL;
+        if (interval > 0) {
+            reloadSchedule = PeriodicTask.schedule(executor, "Reloading the connector cache", this::reload,
+                                                   interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (reloadSchedule != null) {
+            reloadSchedule.cancel(false);
+        }
+    }
+
+    /**
+     * If the connector information was not received before, insert it. Otherwise, ignore.
+     *
+     * @return connector_pk of the connector
+     */
+    public int getOrInsert(DSLContext ctx, String chargeBoxId, int connectorId) {
+        Integer connectorPk = get(chargeBoxId, connectorId);
+        if (connectorPk != null) {
+            return connectorPk;
+        }
+
+        long versionBefore = getVersion();
+
+        int count = ctx.insertInto(CONNECTOR,
+                            CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID)
+                       .values(chargeBoxId, connectorId)
+                       .onDuplicateKeyIgnore() // Important detail
+                       .execute();
+
+        connectorPk = ctx.select(CONNECTOR.CONNECTOR_PK)
+                         .from(CONNECTOR)
+                         .where(CONNECTOR.CHARGE_BOX_ID.equal(chargeBoxId)
+                           .and(CONNECTOR.CONNECTOR_ID.equal(connectorId)))
+                         .fetchOne()
+                         .value1();
+
+        if (count == 1) {
+            log.info("The connector {}/{} is NEW, and inserted into DB.", chargeBoxId, connectorId);
+        } else {
+            put(chargeBoxId, connectorId, connectorPk, versionBefore);
+        }
+        return connectorPk;
+    }
+
+    /**
+     * @return null, if not cached
+     */
+    public Integer get(String chargeBoxId, int connectorId) {
+        Map<Integer, Integer> connectors = cache.get(toKey(chargeBoxId));
+        return connectors == null ? null : connectors.get(connectorId);
+    }
+
+    /**
+     * To be taken before reading a connector_pk from DB, that is put afterwards
+     */
+    public long getVersion() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    /**
+     * Must only be called for connectors that are committed. Ignored, if there was an invalidation since the
+     * given version was taken.
+     */
+    public void put(String chargeBoxId, int connectorId, int connectorPk, long versionBefore) {
+        synchronized (lock) {
+            if (version == versionBefore) {
+                cache.computeIfAbsent(toKey(chargeBoxId), k -> new ConcurrentHashMap<>())
+                     .put(connectorId, connectorPk);
+            }
+        }
+    }
+
+    /**
+     * To be called after the deletion of the charge point is committed
+     */
+    public void invalidate(String chargeBoxId) {
+        synchronized (lock) {
+            version++;
+            cache.remove(toKey(chargeBoxId));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void load() {
+        log.info("Loaded {} connectors into the cache", loadFresh());
+    }
+
+    private void reload() {
+        log.debug("Reloaded {} connectors into the cache", loadFresh());
+    }
+
+    /**
+     * @return the number of loaded connectors, or -1 if the cache was invalidated meanwhile and is kept
+     */
+    private int loadFresh() {
+        long versionBefore = getVersion();
+
+        ConcurrentHashMap<String, Map<Integer, Integer>> fresh = new ConcurrentHashMap<>();
+        int[] count = {0};
+        DSL.using(config)
+           .select(CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID, CONNECTOR.CONNECTOR_PK)
+           .from(CONNECTOR)
+           .fetch()
+           .forEach(r -> {
+               fresh.computeIfAbsent(toKey(r.value1()), k -> new ConcurrentHashMap<>())
+                    .put(r.value2(), r.value3());
+               count[0]++;
+           });
+
+        synchronized (lock) {
+            if (version != versionBefore) {
+                // The next reload or a miss fills it
+                return -1;
+            }
+            cache = fresh;
+        }
+        return count[0];
+    }
+
+    /**
+     * The column has a case-insensitive collation, so that the DB lookup was case-insensitive as well.
+     * We keep that behaviour.
+     */
+    private static String toKey(String chargeBoxId) {
+        return chargeBoxId.toLowerCase(Locale.ROOT);
+    }
+}
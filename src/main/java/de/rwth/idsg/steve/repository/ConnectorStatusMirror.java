@@ -0,0 +1,218 @@
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.config.StartupTasks;
+import de.rwth.idsg.steve.repository.dto.ConnectorStatus;
+import de.rwth.idsg.steve.utils.DateTimeUtils;
+import de.rwth.idsg.steve.utils.PeriodicTask;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.jooq.Configuration;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static jooq.steve.db.tables.Connector.CONNECTOR;
+import static jooq.steve.db.tables.ConnectorStatusCurrent.CONNECTOR_STATUS_CURRENT;
+
+/**
+ * In-memory mirror of connector_status_current, so that the connector status page and the connector counters
+ * of the home page do not query DB at all. It is loaded at startup, and updated after every new status is
+ * committed. As with the registration index, it is reloaded periodically to catch the changes made outside
+ * of this instance (e.g. by the other nodes of a cluster).
+ *
+ * A status only replaces the current one, if it is not older. Charge points may send statuses out of order.
+ *
+ * A (re)load replaces the whole mirror with the rows of DB, so that the rows deleted elsewhere are dropped. The
+ * updates and invalidations that happen during the load are recorded, and replayed on the loaded rows before
+ * the swap. Otherwise, they would be lost (or an invalidated charge point would come back).
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class ConnectorStatusMirror {
+
+    @Autowired
+    @Qualifier("jooqConfig")
+    private Configuration config;
+
+    @Autowired private StartupTasks startupTasks;
+    @Autowired private ScheduledExecutorService executor;
+
+    // Key = connector_pk
+    private volatile ConcurrentHashMap<Integer, Entry> mirror = new ConcurrentHashMap<>();
+
+    // Guards the modifications of the mirror, whereas the reads are lock-free. While a load is running, the
+    // updates and the invalidated chargeBoxIds (see toKey) are recorded as well. Otherwise, both are null
+    private final Object lock = new Object();
+    private Map<Integer, Entry> updatesDuringLoad;
+    private Set<String> invalidationsDuringLoad;
+
+    private ScheduledFuture reloadSchedule;
+
+    @PostConstruct
+    public void init() {
+        startupTasks.submit("Connector status mirror", this::load);
+
+        long interval = SteveConfiguration.Ocpp.REGISTRATION_REFRESH_INTERVAL;
+        if (interval > 0) {
+            reloadSchedule = PeriodicTask.schedule(executor, "Reloading the connector statuses", this::load,
+                                                   interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (reloadSchedule != null) {
+            reloadSchedule.cancel(false);
+        }
+    }
+
+    /**
+     * To be called after the new status is committed
+     */
+    public void update(int connectorPk, String chargeBoxId, int connectorId, DateTime timestamp, String status,
+                       String errorCode) {
+        Entry entry = new Entry(chargeBoxId, connectorId, timestamp, status, errorCode);
+        synchronized (lock) {
+            mirror.merge(connectorPk, entry, ConnectorStatusMirror::newer);
+            if (updatesDuringLoad != null) {
+                updatesDuringLoad.merge(connectorPk, entry, ConnectorStatusMirror::newer);
+            }
+        }
+    }
+
+    /**
+     * To be called after the deletion of the charge point is committed
+     */
+    public void invalidate(String chargeBoxId) {
+        synchronized (lock) {
+            mirror.values().removeIf(e -> e.chargeBoxId.equalsIgnoreCase(chargeBoxId));
+            if (updatesDuringLoad != null) {
+                updatesDuringLoad.values().removeIf(e -> e.chargeBoxId.equalsIgnoreCase(chargeBoxId));
+                invalidationsDuringLoad.add(toKey(chargeBoxId));
+            }
+        }
+    }
+
+    /**
+     * @return the current statuses, the latest first
+     */
+    public List<ConnectorStatus> getStatuses() {
+        List<Entry> entries = new ArrayList<>(mirror.values());
+        entries.sort(Comparator.comparing((Entry e) -> e.timestamp, Comparator.nullsFirst(Comparator.naturalOrder()))
+                               .reversed());
+
+        List<ConnectorStatus> list = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            list.add(ConnectorStatus.builder()
+                                    .chargeBoxId(e.chargeBoxId)
+                                    .connectorId(e.connectorId)
+                                    .timeStamp(DateTimeUtils.humanize(e.timestamp))
+                                    .status(e.status)
+                                    .errorCode(e.errorCode)
+                                    .build());
+        }
+        return list;
+    }
+
+    /**
+     * Case-insensitive, like the comparison in DB
+     */
+    public int count(String status) {
+        int count = 0;
+        for (Entry e : mirror.values()) {
+            if (status.equalsIgnoreCase(e.status)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * Synchronized, so that the loads do not overlap
+     */
+    private synchronized void load() {
+        synchronized (lock) {
+            updatesDuringLoad = new HashMap<>();
+            invalidationsDuringLoad = new HashSet<>();
+        }
+
+        try {
+            ConcurrentHashMap<Integer, Entry> fresh = fetch();
+
+            synchronized (lock) {
+                fresh.values().removeIf(e -> invalidationsDuringLoad.contains(toKey(e.chargeBoxId)));
+                updatesDuringLoad.forEach((pk, e) -> fresh.merge(pk, e, ConnectorStatusMirror::newer));
+                mirror = fresh;
+            }
+            log.debug("Loaded {} connector statuses", fresh.size());
+
+        } finally {
+            synchronized (lock) {
+                updatesDuringLoad = null;
+                invalidationsDuringLoad = null;
+            }
+        }
+    }
+
+    private ConcurrentHashMap<Integer, Entry> fetch() {
+        ConcurrentHashMap<Integer, Entry> fresh = new ConcurrentHashMap<>();
+        DSL.using(config)
+           .select(CONNECTOR_STATUS_CURRENT.CONNECTOR_PK, CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID,
+                   CONNECTOR_STATUS_CURRENT.STATUS_TIMESTAMP, CONNECTOR_STATUS_CURRENT.STATUS,
+                   CONNECTOR_STATUS_CURRENT.ERROR_CODE)
+           .from(CONNECTOR_STATUS_CURRENT)
+           .join(CONNECTOR)
+           .on(CONNECTOR.CONNECTOR_PK.equal(CONNECTOR_STATUS_CURRENT.CONNECTOR_PK))
+           .fetch()
+           .forEach(r -> fresh.put(r.value1(), new Entry(r.value2(), r.value3(), r.value4(), r.value5(),
+                                                         r.value6())));
+        return fresh;
+    }
+
+    /**
+     * The column has a case-insensitive collation
+     */
+    private static String toKey(String chargeBoxId) {
+        return chargeBoxId.toLowerCase(Locale.ROOT);
+    }
+
+    private static Entry newer(Entry current, Entry candidate) {
+        if (current.timestamp == null || candidate.timestamp == null) {
+            return candidate.timestamp == null ? current : candidate;
+        }
+        return candidate.timestamp.isBefore(current.timestamp) ? current : candidate;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final String chargeBoxId;
+        private final int connectorId;
+        private final DateTime timestamp;
+        private final String status;
+        private final String errorCode;
+    }
+}
@@ -1,14 +1,22 @@
 package de.rwth.idsg.steve.repository;
 
 import de.rwth.idsg.steve.repository.dto.DbVersion;
-import de.rwth.idsg.steve.web.dto.Statistics;
+import de.rwth.idsg.steve.repository.dto.EntityCounts;
+import org.joda.time.DateTime;
+
+import java.util.Map;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
  * @since 19.08.2014
  */
 public interface GenericRepository {
-    Statistics getStats();
+    EntityCounts getEntityCounts();
+
+    /**
+     * @return chargeBoxId -> last heartbeat timestamp, only for the charge boxes that sent one
+     */
+    Map<String, DateTime> getLastHeartbeatTimestamps();
 
     /**
      * Returns database version of SteVe and last database update timestamp
@@ -1,21 +1,30 @@
 package de.rwth.idsg.steve.repository;
 
 import de.rwth.idsg.steve.repository.dto.DbVersion;
+import de.rwth.idsg.steve.repository.dto.EntityCounts;
+import de.rwth.idsg.steve.utils.CustomDSL;
 import de.rwth.idsg.steve.utils.DateTimeUtils;
-import de.rwth.idsg.steve.web.dto.Statistics;
-import jooq.steve.db.routines.GetStats;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
 import org.jooq.Configuration;
 import org.jooq.Record2;
+import org.jooq.Record5;
 import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.util.Map;
+
+import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
+import static jooq.steve.db.tables.OcppTag.OCPP_TAG;
+import static jooq.steve.db.tables.Reservation.RESERVATION;
 import static jooq.steve.db.tables.SchemaVersion.SCHEMA_VERSION;
+import static jooq.steve.db.tables.Transaction.TRANSACTION;
+import static jooq.steve.db.tables.User.USER;
 import static org.jooq.impl.DSL.max;
 import static org.jooq.impl.DSL.select;
+import static org.jooq.impl.DSL.selectCount;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -29,29 +38,42 @@ public class GenericRepositoryImpl implements GenericRepository {
     @Qualifier("jooqConfig")
     private Configuration config;
 
+    /**
+     * Counts the same as the former stored procedure get_stats, but in one statement, and without the heartbeats and
+     * connectors, which are tracked in memory
+     */
     @Override
-    public Statistics getStats() {
-
-        // getStats is the stored procedure in our MySQL DB
-        GetStats gs = new GetStats();
-        gs.execute(config);
+    public EntityCounts getEntityCounts() {
+        Record5<Integer, Integer, Integer, Integer, Integer> r =
+                DSL.using(config)
+                   .select(selectCount().from(CHARGE_BOX).<Integer>asField(),
+                           selectCount().from(OCPP_TAG).<Integer>asField(),
+                           selectCount().from(USER).<Integer>asField(),
+                           selectCount().from(RESERVATION)
+                                        .where(RESERVATION.EXPIRY_DATETIME.greaterThan(CustomDSL.utcTimestamp()))
+                                        .and(RESERVATION.STATUS.equal(ReservationStatus.ACCEPTED.name()))
+                                        .<Integer>asField(),
+                           selectCount().from(TRANSACTION)
+                                        .where(TRANSACTION.STOP_TIMESTAMP.isNull())
+                                        .<Integer>asField())
+                   .fetchOne();
 
-        gs.detach();
+        return EntityCounts.builder()
+                           .numChargeBoxes(r.value1())
+                           .numOcppTags(r.value2())
+                           .numUsers(r.value3())
+                           .numReservations(r.value4())
+                           .numTransactions(r.value5())
+                           .build();
+    }
 
-        return Statistics.builder()
-                         .numChargeBoxes(gs.getNumChargeBoxes())
-                         .numOcppTags(gs.getNumOcppTags())
-                         .numUsers(gs.getNumUsers())
-                         .numReservations(gs.getNumReservations())
-                         .numTransactions(gs.getNumTransactions())
-                         .heartbeatToday(gs.getHeartbeatsToday())
-                         .heartbeatYesterday(gs.getHeartbeatsYesterday())
-                         .heartbeatEarlier(gs.getHeartbeatsEarlier())
-                         .connAvailable(gs.getConnectorsAvailable())
-                         .connOccupied(gs.getConnectorsOccupied())
-                         .connFaulted(gs.getConnectorsFaulted())
-                         .connUnavailable(gs.getConnectorsUnavailable())
-                         .build();
+    @Override
+    public Map<String, DateTime> getLastHeartbeatTimestamps() {
+        return DSL.using(config)
+                  .select(CHARGE_BOX.CHARGE_BOX_ID, CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP)
+                  .from(CHARGE_BOX)
+                  .where(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP.isNotNull())
+                  .fetchMap(CHARGE_BOX.CHARGE_BOX_ID, CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP);
     }
 
     @Override
@@ -0,0 +1,129 @@
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.config.StartupTasks;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static jooq.steve.db.tables.MeterValueCode.METER_VALUE_CODE;
+
+/**
+ * The attributes of a meter value (reading context, format, measurand, location, unit) are stored as codes of
+ * the lookup table meter_value_code, and a decimal reading as a number (see migration V0_8_8). This class
+ * translates between the two.
+ *
+ * The codes of the OCPP 1.5 enums are inserted by the migration, and are loaded at startup. Any other value
+ * gets a new code when it is seen for the first time. As in ConnectorPkCache, a code is only cached, if it
+ * already existed before the current transaction.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class MeterValueCodes {
+
+    @Autowired
+    @Qualifier("jooqConfig")
+    private Configuration config;
+
+    @Autowired private StartupTasks startupTasks;
+
+    public enum Attribute {
+        READING_CONTEXT, FORMAT, MEASURAND, LOCATION, UNIT
+    }
+
+    private static final String SIGNED_DATA = "SignedData";
+
+    // Must be the same as in the migration, and must fit into DECIMAL(18,4)
+    private static final Pattern NUMERIC = Pattern.compile("-?[0-9]{1,14}(\\.[0-9]{1,4})?");
+
+    // Key = attribute + value (see toKey), value = code. Case-sensitive, like the column.
+    private final ConcurrentHashMap<String, Short> cache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        startupTasks.submit("Meter value codes", this::load);
+    }
+
+    /**
+     * @return null, if the value is null
+     */
+    public Short getOrInsert(DSLContext ctx, Attribute attribute, String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String key = toKey(attribute, value);
+        Short code = cache.get(key);
+        if (code != null) {
+            return code;
+        }
+
+        int count = ctx.insertInto(METER_VALUE_CODE,
+                            METER_VALUE_CODE.ATTRIBUTE, METER_VALUE_CODE.VALUE)
+                       .values(attribute.name(), value)
+                       .onDuplicateKeyIgnore()
+                       .execute();
+
+        code = ctx.select(METER_VALUE_CODE.CODE)
+                  .from(METER_VALUE_CODE)
+                  .where(METER_VALUE_CODE.ATTRIBUTE.equal(attribute.name()))
+                  .and(METER_VALUE_CODE.VALUE.equal(value))
+                  .fetchOne()
+                  .value1();
+
+        if (count == 1) {
+            log.info("The meter value code of {} '{}' is NEW, and inserted into DB.", attribute, value);
+        } else {
+            cache.put(key, code);
+        }
+        return code;
+    }
+
+    /**
+     * @return the reading as number, or null, if it is signed data or does not fit into the numeric column.
+     *         In that case, the reading is stored as string.
+     */
+    public static BigDecimal toNumeric(String value, String format) {
+        if (value == null || SIGNED_DATA.equals(format) || !NUMERIC.matcher(value).matches()) {
+            return null;
+        }
+        return new BigDecimal(value);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void load() {
+        DSL.using(config)
+           .select(METER_VALUE_CODE.ATTRIBUTE, METER_VALUE_CODE.VALUE, METER_VALUE_CODE.CODE)
+           .from(METER_VALUE_CODE)
+           .fetch()
+           .forEach(r -> cache.put(toKey(toAttribute(r.value1()), r.value2()), r.value3()));
+
+        log.info("Loaded {} meter value codes", cache.size());
+    }
+
+    private static Attribute toAttribute(String name) {
+        try {
+            return Attribute.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new SteveException("Unknown attribute '%s' in meter_value_code", name, e);
+        }
+    }
+
+    private static String toKey(Attribute attribute, String value) {
+        return attribute.ordinal() + ":" + value;
+    }
+}
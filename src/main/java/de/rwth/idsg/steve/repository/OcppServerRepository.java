@@ -1,11 +1,13 @@
 package de.rwth.idsg.steve.repository;
 
 import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
+import de.rwth.idsg.steve.repository.dto.InsertMeterValuesParams;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
 import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
 import org.joda.time.DateTime;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Sevket Goekay <goekay@dbis.rwth-aachen.de>
@@ -28,7 +30,12 @@ public interface OcppServerRepository {
     void updateEndpointAddress(String chargeBoxIdentity, String endpointAddress);
     void updateChargeboxFirmwareStatus(String chargeBoxIdentity, String firmwareStatus);
     void updateChargeboxDiagnosticsStatus(String chargeBoxIdentity, String status);
-    void updateChargeboxHeartbeat(String chargeBoxIdentity, DateTime ts);
+
+    /**
+     * One multi-row UPDATE per chunk of chargeboxes. A timestamp is only written, if it is newer than the one in DB.
+     * Key = chargeBoxIdentity, value = heartbeat timestamp
+     */
+    void updateChargeboxHeartbeats(Map<String, DateTime> heartbeats);
 
     void insertConnectorStatus(InsertConnectorStatusParams params);
 
@@ -39,6 +46,11 @@ public interface OcppServerRepository {
     void insertMeterValuesOfTransaction(String chargeBoxIdentity, int transactionId,
                                         List<ocpp.cs._2012._06.MeterValue> list);
 
+    /**
+     * The MeterValues requests of multiple chargeboxes in one transaction, with multi-row inserts
+     */
+    void insertMeterValues(List<InsertMeterValuesParams> list);
+
     Integer insertTransaction(InsertTransactionParams params);
 
     void updateTransaction(int transactionId, DateTime stopTimestamp, String stopMeterValue);
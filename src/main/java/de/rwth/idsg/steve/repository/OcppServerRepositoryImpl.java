@@ -1,31 +1,43 @@
 package de.rwth.idsg.steve.repository;
 
+import com.google.common.collect.Lists;
+import de.rwth.idsg.steve.repository.MeterValueCodes.Attribute;
 import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
+import de.rwth.idsg.steve.repository.dto.InsertMeterValuesParams;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
 import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
 import de.rwth.idsg.steve.utils.CustomDSL;
+import jooq.steve.db.tables.records.ConnectorMeterValueRecord;
+import jooq.steve.db.tables.records.ConnectorRecord;
 import lombok.extern.slf4j.Slf4j;
-import ocpp.cs._2012._06.Location;
-import ocpp.cs._2012._06.Measurand;
 import ocpp.cs._2012._06.MeterValue;
-import ocpp.cs._2012._06.ReadingContext;
-import ocpp.cs._2012._06.UnitOfMeasure;
-import ocpp.cs._2012._06.ValueFormat;
 import org.joda.time.DateTime;
-import org.jooq.BatchBindStep;
+import org.jooq.CaseWhenStep;
 import org.jooq.Configuration;
 import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStep2;
+import org.jooq.InsertValuesStep10;
+import org.jooq.Row2;
 import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
 
 import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
 import static jooq.steve.db.tables.Connector.CONNECTOR;
 import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
 import static jooq.steve.db.tables.ConnectorStatus.CONNECTOR_STATUS;
+import static jooq.steve.db.tables.ConnectorStatusCurrent.CONNECTOR_STATUS_CURRENT;
 import static jooq.steve.db.tables.Transaction.TRANSACTION;
 
 /**
@@ -45,6 +57,16 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
     private Configuration config;
 
     @Autowired private ReservationRepository reservationRepository;
+    @Autowired private ConnectorPkCache connectorPkCache;
+    @Autowired private ConnectorStatusMirror connectorStatusMirror;
+    @Autowired private StatisticsCache statisticsCache;
+    @Autowired private MeterValueCodes meterValueCodes;
+
+    // Rows per multi-row insert, to stay well below max_allowed_packet of MySQL
+    private static final int ROWS_PER_INSERT = 1000;
+
+    // Chargeboxes per heartbeat update. Every chargebox adds five bind values to the statement
+    private static final int ROWS_PER_HEARTBEAT_UPDATE = 500;
 
     @Override
     public boolean updateChargebox(UpdateChargeboxParams p) {
@@ -69,6 +91,7 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
         if (count == 1) {
             log.info("The chargebox '{}' is registered and its boot acknowledged.", p.getChargeBoxId());
             isRegistered = true;
+            statisticsCache.beat(p.getChargeBoxId(), p.getHeartbeatTimestamp());
         } else {
             log.error("The chargebox '{}' is NOT registered and its boot NOT acknowledged.", p.getChargeBoxId());
         }
@@ -105,33 +128,53 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
     }
 
     @Override
-    public void updateChargeboxHeartbeat(String chargeBoxIdentity, DateTime ts) {
-        DSL.using(config)
-           .update(CHARGE_BOX)
-           .set(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP, ts)
-           .where(CHARGE_BOX.CHARGE_BOX_ID.equal(chargeBoxIdentity))
-           .execute();
+    public void updateChargeboxHeartbeats(Map<String, DateTime> heartbeats) {
+        if (heartbeats.isEmpty()) {
+            return;
+        }
+
+        DSLContext ctx = DSL.using(config);
+
+        List<Map.Entry<String, DateTime>> entries = new ArrayList<>(heartbeats.entrySet());
+        for (List<Map.Entry<String, DateTime>> chunk : Lists.partition(entries, ROWS_PER_HEARTBEAT_UPDATE)) {
+            // UPDATE charge_box SET last_heartbeat_timestamp = CASE charge_box_id WHEN ? THEN ? ... END
+            // WHERE charge_box_id IN (...)
+            CaseWhenStep<String, DateTime> newTimestamp = null;
+            List<String> chargeBoxIds = new ArrayList<>(chunk.size());
+            for (Map.Entry<String, DateTime> entry : chunk) {
+                Field<String> id = DSL.val(entry.getKey(), CHARGE_BOX.CHARGE_BOX_ID);
+                Field<DateTime> ts = DSL.val(entry.getValue(), CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP);
+                newTimestamp = newTimestamp == null
+                        ? DSL.decode().value(CHARGE_BOX.CHARGE_BOX_ID).when(id, ts)
+                        : newTimestamp.when(id, ts);
+                chargeBoxIds.add(entry.getKey());
+            }
+
+            // The writes are delayed, e.g. a BootNotification might have written a newer timestamp in the meantime
+            ctx.update(CHARGE_BOX)
+               .set(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP, newTimestamp)
+               .where(CHARGE_BOX.CHARGE_BOX_ID.in(chargeBoxIds))
+               .and(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP.isNull()
+                    .or(CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP.lessThan(newTimestamp)))
+               .execute();
+        }
     }
 
     @Override
     public void insertConnectorStatus(InsertConnectorStatusParams p) {
 
-        DSL.using(config).transaction(configuration -> {
+        int connectorPk = DSL.using(config).transactionResult(configuration -> {
             DSLContext ctx = DSL.using(configuration);
 
             // Step 1
-            insertIgnoreConnector(ctx, p.getChargeBoxId(), p.getConnectorId());
+            int pk = connectorPkCache.getOrInsert(ctx, p.getChargeBoxId(), p.getConnectorId());
 
             // -------------------------------------------------------------------------
             // Step 2: We store a log of connector statuses
             // -------------------------------------------------------------------------
 
             ctx.insertInto(CONNECTOR_STATUS)
-               .set(CONNECTOR_STATUS.CONNECTOR_PK, DSL.select(CONNECTOR.CONNECTOR_PK)
-                                                      .from(CONNECTOR)
-                                                      .where(CONNECTOR.CHARGE_BOX_ID.equal(p.getChargeBoxId()))
-                                                      .and(CONNECTOR.CONNECTOR_ID.equal(p.getConnectorId()))
-               )
+               .set(CONNECTOR_STATUS.CONNECTOR_PK, pk)
                .set(CONNECTOR_STATUS.STATUS_TIMESTAMP, p.getTimestamp())
                .set(CONNECTOR_STATUS.STATUS, p.getStatus())
                .set(CONNECTOR_STATUS.ERROR_CODE, p.getErrorCode())
@@ -140,34 +183,32 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
                .set(CONNECTOR_STATUS.VENDOR_ERROR_CODE, p.getErrorCode())
                .execute();
 
+            // -------------------------------------------------------------------------
+            // Step 3: And keep the current status of the connector up to date
+            // -------------------------------------------------------------------------
+
+            upsertCurrentStatus(ctx, pk, p);
+
             log.debug("Stored a new connector status for {}/{}.", p.getChargeBoxId(), p.getConnectorId());
+            return pk;
         });
+
+        connectorStatusMirror.update(connectorPk, p.getChargeBoxId(), p.getConnectorId(), p.getTimestamp(),
+                                     p.getStatus(), p.getErrorCode());
     }
 
     @Override
     public void insertMeterValues12(final String chargeBoxIdentity, final int connectorId,
                                     final List<ocpp.cs._2010._08.MeterValue> list) {
-
-        DSL.using(config).transaction(configuration -> {
-            DSLContext ctx = DSL.using(configuration);
-
-            insertIgnoreConnector(ctx, chargeBoxIdentity, connectorId);
-            int connectorPk = getConnectorPkFromConnector(ctx, chargeBoxIdentity, connectorId);
-            batchInsertMeterValues12(ctx, list, connectorPk);
-        });
+        insertMeterValues(Collections.singletonList(InsertMeterValuesParams.of12(chargeBoxIdentity, connectorId,
+                                                                                 list)));
     }
 
     @Override
     public void insertMeterValues15(final String chargeBoxIdentity, final int connectorId,
                                     final List<ocpp.cs._2012._06.MeterValue> list, final Integer transactionId) {
-
-        DSL.using(config).transaction(configuration -> {
-            DSLContext ctx = DSL.using(configuration);
-
-            insertIgnoreConnector(ctx, chargeBoxIdentity, connectorId);
-            int connectorPk = getConnectorPkFromConnector(ctx, chargeBoxIdentity, connectorId);
-            batchInsertMeterValues15(ctx, list, connectorPk, transactionId);
-        });
+        insertMeterValues(Collections.singletonList(InsertMeterValuesParams.of15(chargeBoxIdentity, connectorId,
+                                                                                 list, transactionId)));
     }
 
     @Override
@@ -184,29 +225,40 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
                                  .fetchOne()
                                  .value1();
 
-            batchInsertMeterValues15(ctx, list, connectorPk, transactionId);
+            // The connectorId is not used, since the connector is known
+            InsertMeterValuesParams params = InsertMeterValuesParams.of15(chargeBoxIdentity, 0, list, transactionId);
+            insertMeterValueRows(ctx, Collections.singletonList(params), p -> connectorPk);
+        });
+    }
+
+    @Override
+    public void insertMeterValues(List<InsertMeterValuesParams> list) {
+        if (list.isEmpty()) {
+            return;
+        }
+
+        DSL.using(config).transaction(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            Map<String, Map<Integer, Integer>> connectorPks = getOrInsertConnectors(ctx, list);
+            insertMeterValueRows(ctx, list, p -> connectorPks.get(p.getChargeBoxId()).get(p.getConnectorId()));
         });
     }
 
     @Override
     public Integer insertTransaction(InsertTransactionParams p) {
 
-        return DSL.using(config).transactionResult(configuration -> {
+        Integer transactionPk = DSL.using(config).transactionResult(configuration -> {
             DSLContext ctx = DSL.using(configuration);
 
-            insertIgnoreConnector(ctx, p.getChargeBoxId(), p.getConnectorId());
+            int connectorPk = connectorPkCache.getOrInsert(ctx, p.getChargeBoxId(), p.getConnectorId());
 
             // -------------------------------------------------------------------------
             // Step 1: Insert transaction
             // -------------------------------------------------------------------------
 
             int transactionId = ctx.insertInto(TRANSACTION)
-                                   .set(CONNECTOR_STATUS.CONNECTOR_PK,
-                                           DSL.select(CONNECTOR.CONNECTOR_PK)
-                                              .from(CONNECTOR)
-                                              .where(CONNECTOR.CHARGE_BOX_ID.equal(p.getChargeBoxId()))
-                                              .and(CONNECTOR.CONNECTOR_ID.equal(p.getConnectorId()))
-                                   )
+                                   .set(TRANSACTION.CONNECTOR_PK, connectorPk)
                                    .set(TRANSACTION.ID_TAG, p.getIdTag())
                                    .set(TRANSACTION.START_TIMESTAMP, p.getStartTimestamp())
                                    .set(TRANSACTION.START_VALUE, p.getStartMeterValue())
@@ -224,6 +276,9 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
 
             return transactionId;
         });
+
+        statisticsCache.increment(StatisticsCache.Counter.TRANSACTIONS);
+        return transactionPk;
     }
 
     /**
@@ -231,14 +286,18 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
      */
     @Override
     public void updateTransaction(int transactionId, DateTime stopTimestamp, String stopMeterValue) {
-        DSL.using(config)
-           .update(TRANSACTION)
-           .set(TRANSACTION.STOP_TIMESTAMP, stopTimestamp)
-           .set(TRANSACTION.STOP_VALUE, stopMeterValue)
-           .where(TRANSACTION.TRANSACTION_PK.equal(transactionId))
-                .and(TRANSACTION.STOP_TIMESTAMP.isNull())
-                .and(TRANSACTION.STOP_VALUE.isNull())
-           .execute();
+        int count = DSL.using(config)
+                       .update(TRANSACTION)
+                       .set(TRANSACTION.STOP_TIMESTAMP, stopTimestamp)
+                       .set(TRANSACTION.STOP_VALUE, stopMeterValue)
+                       .where(TRANSACTION.TRANSACTION_PK.equal(transactionId))
+                            .and(TRANSACTION.STOP_TIMESTAMP.isNull())
+                            .and(TRANSACTION.STOP_VALUE.isNull())
+                       .execute();
+
+        if (count == 1) {
+            statisticsCache.decrement(StatisticsCache.Counter.TRANSACTIONS);
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -246,93 +305,146 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
     // -------------------------------------------------------------------------
 
     /**
-     * If the connector information was not received before, insert it. Otherwise, ignore.
+     * Statuses can arrive out of order. An existing row is only overwritten by a status that is not older.
+     * MySQL evaluates the assignments from left to right, therefore the timestamp must be the last one.
      */
-    private void insertIgnoreConnector(DSLContext ctx, String chargeBoxIdentity, int connectorId) {
-        int count = ctx.insertInto(CONNECTOR,
-                            CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID)
-                       .values(chargeBoxIdentity, connectorId)
-                       .onDuplicateKeyIgnore() // Important detail
-                       .execute();
-
-        if (count == 1) {
-            log.info("The connector {}/{} is NEW, and inserted into DB.", chargeBoxIdentity, connectorId);
-        }
+    private void upsertCurrentStatus(DSLContext ctx, int connectorPk, InsertConnectorStatusParams p) {
+        ctx.insertInto(CONNECTOR_STATUS_CURRENT)
+           .set(CONNECTOR_STATUS_CURRENT.CONNECTOR_PK, connectorPk)
+           .set(CONNECTOR_STATUS_CURRENT.STATUS_TIMESTAMP, p.getTimestamp())
+           .set(CONNECTOR_STATUS_CURRENT.STATUS, p.getStatus())
+           .set(CONNECTOR_STATUS_CURRENT.ERROR_CODE, p.getErrorCode())
+           .set(CONNECTOR_STATUS_CURRENT.ERROR_INFO, p.getErrorInfo())
+           .set(CONNECTOR_STATUS_CURRENT.VENDOR_ID, p.getVendorId())
+           .set(CONNECTOR_STATUS_CURRENT.VENDOR_ERROR_CODE, p.getVendorErrorCode())
+           .onDuplicateKeyUpdate()
+           .set(CONNECTOR_STATUS_CURRENT.STATUS, ifNotOlder(p, CONNECTOR_STATUS_CURRENT.STATUS, p.getStatus()))
+           .set(CONNECTOR_STATUS_CURRENT.ERROR_CODE,
+                ifNotOlder(p, CONNECTOR_STATUS_CURRENT.ERROR_CODE, p.getErrorCode()))
+           .set(CONNECTOR_STATUS_CURRENT.ERROR_INFO,
+                ifNotOlder(p, CONNECTOR_STATUS_CURRENT.ERROR_INFO, p.getErrorInfo()))
+           .set(CONNECTOR_STATUS_CURRENT.VENDOR_ID,
+                ifNotOlder(p, CONNECTOR_STATUS_CURRENT.VENDOR_ID, p.getVendorId()))
+           .set(CONNECTOR_STATUS_CURRENT.VENDOR_ERROR_CODE,
+                ifNotOlder(p, CONNECTOR_STATUS_CURRENT.VENDOR_ERROR_CODE, p.getVendorErrorCode()))
+           .set(CONNECTOR_STATUS_CURRENT.STATUS_TIMESTAMP,
+                ifNotOlder(p, CONNECTOR_STATUS_CURRENT.STATUS_TIMESTAMP, p.getTimestamp()))
+           .execute();
     }
 
-    private int getConnectorPkFromConnector(DSLContext ctx, String chargeBoxIdentity, int connectorId) {
-        return ctx.select(CONNECTOR.CONNECTOR_PK)
-                  .from(CONNECTOR)
-                  .where(CONNECTOR.CHARGE_BOX_ID.equal(chargeBoxIdentity)
-                    .and(CONNECTOR.CONNECTOR_ID.equal(connectorId)))
-                  .fetchOne()
-                  .value1();
+    private static <T> Field<T> ifNotOlder(InsertConnectorStatusParams p, Field<T> column, T value) {
+        return DSL.decode()
+                  .when(CONNECTOR_STATUS_CURRENT.STATUS_TIMESTAMP.isNull()
+                                                                 .or(CONNECTOR_STATUS_CURRENT.STATUS_TIMESTAMP
+                                                                         .lessOrEqual(p.getTimestamp())),
+                        DSL.val(value, column))
+                  .otherwise(column);
     }
 
-    private void batchInsertMeterValues12(DSLContext ctx, List<ocpp.cs._2010._08.MeterValue> list, int connectorPk) {
-        // Init query with DUMMY values. The actual values are not important.
-        BatchBindStep batchBindStep = ctx.batch(
-                ctx.insertInto(CONNECTOR_METER_VALUE,
-                        CONNECTOR_METER_VALUE.CONNECTOR_PK,
-                        CONNECTOR_METER_VALUE.VALUE_TIMESTAMP,
-                        CONNECTOR_METER_VALUE.VALUE)
-                   .values(0, null, null)
-        );
-
-        // OCPP 1.2 allows multiple "values" elements
-        for (ocpp.cs._2010._08.MeterValue valuesElement : list) {
-            DateTime ts = valuesElement.getTimestamp();
-            String value = String.valueOf(valuesElement.getValue());
-
-            batchBindStep.bind(connectorPk, ts, value);
+    /**
+     * Multi-row inserts of the values of all requests, with at most ROWS_PER_INSERT rows per statement
+     */
+    private void insertMeterValueRows(DSLContext ctx, List<InsertMeterValuesParams> list,
+                                      ToIntFunction<InsertMeterValuesParams> connectorPkOf) {
+
+        InsertValuesStep10<ConnectorMeterValueRecord, Integer, Integer, DateTime, BigDecimal, String, Short, Short,
+                Short, Short, Short> insert = null;
+        int rowCount = 0;
+
+        for (InsertMeterValuesParams p : list) {
+            int connectorPk = connectorPkOf.applyAsInt(p);
+
+            for (InsertMeterValuesParams.Value v : p.getValues()) {
+                if (insert == null) {
+                    insert = ctx.insertInto(CONNECTOR_METER_VALUE,
+                            CONNECTOR_METER_VALUE.CONNECTOR_PK,
+                            CONNECTOR_METER_VALUE.TRANSACTION_PK,
+                            CONNECTOR_METER_VALUE.VALUE_TIMESTAMP,
+                            CONNECTOR_METER_VALUE.VALUE_NUMERIC,
+                            CONNECTOR_METER_VALUE.VALUE_RAW,
+                            CONNECTOR_METER_VALUE.READING_CONTEXT,
+                            CONNECTOR_METER_VALUE.FORMAT,
+                            CONNECTOR_METER_VALUE.MEASURAND,
+                            CONNECTOR_METER_VALUE.LOCATION,
+                            CONNECTOR_METER_VALUE.UNIT);
+                }
+
+                BigDecimal numeric = MeterValueCodes.toNumeric(v.getValue(), v.getFormat());
+
+                insert = insert.values(connectorPk, p.getTransactionId(), v.getTimestamp(),
+                                       numeric, numeric == null ? v.getValue() : null,
+                                       code(ctx, Attribute.READING_CONTEXT, v.getReadingContext()),
+                                       code(ctx, Attribute.FORMAT, v.getFormat()),
+                                       code(ctx, Attribute.MEASURAND, v.getMeasurand()),
+                                       code(ctx, Attribute.LOCATION, v.getLocation()),
+                                       code(ctx, Attribute.UNIT, v.getUnit()));
+
+                if (++rowCount == ROWS_PER_INSERT) {
+                    insert.execute();
+                    insert = null;
+                    rowCount = 0;
+                }
+            }
         }
 
-        batchBindStep.execute();
+        if (insert != null) {
+            insert.execute();
+        }
     }
 
-    private void batchInsertMeterValues15(DSLContext ctx, List<ocpp.cs._2012._06.MeterValue> list, int connectorPk,
-                                          Integer transactionId) {
-        // Init query with DUMMY values. The actual values are not important.
-        BatchBindStep batchBindStep = ctx.batch(
-                ctx.insertInto(CONNECTOR_METER_VALUE,
-                        CONNECTOR_METER_VALUE.CONNECTOR_PK,
-                        CONNECTOR_METER_VALUE.TRANSACTION_PK,
-                        CONNECTOR_METER_VALUE.VALUE_TIMESTAMP,
-                        CONNECTOR_METER_VALUE.VALUE,
-                        CONNECTOR_METER_VALUE.READING_CONTEXT,
-                        CONNECTOR_METER_VALUE.FORMAT,
-                        CONNECTOR_METER_VALUE.MEASURAND,
-                        CONNECTOR_METER_VALUE.LOCATION,
-                        CONNECTOR_METER_VALUE.UNIT)
-                   .values(0, null, null, null, null, null, null, null, null)
-        );
-
-        // OCPP 1.5 allows multiple "values" elements
-        for (MeterValue valuesElement : list) {
-            DateTime timestamp = valuesElement.getTimestamp();
-
-            // OCPP 1.5 allows multiple "value" elements under each "values" element.
-            List<MeterValue.Value> valueList = valuesElement.getValue();
-            for (MeterValue.Value valueElement : valueList) {
-
-                ReadingContext context = valueElement.getContext();
-                ValueFormat format = valueElement.getFormat();
-                Measurand measurand = valueElement.getMeasurand();
-                Location location = valueElement.getLocation();
-                UnitOfMeasure unit = valueElement.getUnit();
-
-                // OCPP 1.5 allows for each "value" element to have optional attributes
-                String contextValue     = (context == null)   ? null : context.value();
-                String formatValue      = (format == null)    ? null : format.value();
-                String measurandValue   = (measurand == null) ? null : measurand.value();
-                String locationValue    = (location == null)  ? null : location.value();
-                String unitValue        = (unit == null)      ? null : unit.value();
-
-                batchBindStep.bind(connectorPk, transactionId, timestamp, valueElement.getValue(),
-                                   contextValue, formatValue, measurandValue, locationValue, unitValue);
+    /**
+     * Multi-row variant of ConnectorPkCache.getOrInsert(..), for the connectors that are not cached yet
+     *
+     * @return chargeBoxId (case-insensitive, like the column) -> connectorId -> connectorPk
+     */
+    private Map<String, Map<Integer, Integer>> getOrInsertConnectors(DSLContext ctx,
+                                                                     List<InsertMeterValuesParams> list) {
+        long versionBefore = connectorPkCache.getVersion();
+        Map<String, Map<Integer, Integer>> connectorPks = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<Row2<String, Integer>> missing = new ArrayList<>();
+        InsertValuesStep2<ConnectorRecord, String, Integer> insert =
+                ctx.insertInto(CONNECTOR, CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID);
+
+        for (InsertMeterValuesParams p : list) {
+            Map<Integer, Integer> connectors = connectorPks.computeIfAbsent(p.getChargeBoxId(), k -> new HashMap<>());
+            if (connectors.containsKey(p.getConnectorId())) {
+                continue;
+            }
+
+            Integer connectorPk = connectorPkCache.get(p.getChargeBoxId(), p.getConnectorId());
+            connectors.put(p.getConnectorId(), connectorPk);
+
+            if (connectorPk == null) {
+                missing.add(DSL.row(p.getChargeBoxId(), p.getConnectorId()));
+                insert = insert.values(p.getChargeBoxId(), p.getConnectorId());
             }
         }
 
-        batchBindStep.execute();
+        if (missing.isEmpty()) {
+            return connectorPks;
+        }
+
+        int count = insert.onDuplicateKeyIgnore().execute();
+        if (count > 0) {
+            log.info("{} NEW connectors are inserted into DB.", count);
+        }
+
+        ctx.select(CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID, CONNECTOR.CONNECTOR_PK)
+           .from(CONNECTOR)
+           .where(DSL.row(CONNECTOR.CHARGE_BOX_ID, CONNECTOR.CONNECTOR_ID).in(missing))
+           .fetch()
+           .forEach(r -> {
+               connectorPks.get(r.value1()).put(r.value2(), r.value3());
+
+               // If nothing is inserted, all of them existed before this transaction (see ConnectorPkCache)
+               if (count == 0) {
+                   connectorPkCache.put(r.value1(), r.value2(), r.value3(), versionBefore);
+               }
+           });
+        return connectorPks;
+    }
+
+    private Short code(DSLContext ctx, Attribute attribute, String value) {
+        return meterValueCodes.getOrInsert(ctx, attribute, value);
     }
 }
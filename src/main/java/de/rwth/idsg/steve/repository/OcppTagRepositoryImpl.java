@@ -38,6 +38,8 @@ public class OcppTagRepositoryImpl implements OcppTagRepository {
     @Qualifier("jooqConfig")
     private Configuration config;
 
+    @Autowired private StatisticsCache statisticsCache;
+
     @Override
     @SuppressWarnings("unchecked")
     public List<OcppTag> getTags(OcppTagQueryForm form) {
@@ -164,6 +166,7 @@ public class OcppTagRepositoryImpl implements OcppTagRepository {
         } catch (DataAccessException e) {
             throw new SteveException("Execution of addOcppTag for idTag '%s' FAILED.", u.getIdTag(), e);
         }
+        statisticsCache.increment(StatisticsCache.Counter.OCPP_TAGS);
     }
 
     @Override
@@ -184,14 +187,19 @@ public class OcppTagRepositoryImpl implements OcppTagRepository {
 
     @Override
     public void deleteOcppTag(String idTag) {
+        int count;
         try {
-            DSL.using(config)
-               .delete(OCPP_TAG)
-               .where(OCPP_TAG.ID_TAG.equal(idTag))
-               .execute();
+            count = DSL.using(config)
+                       .delete(OCPP_TAG)
+                       .where(OCPP_TAG.ID_TAG.equal(idTag))
+                       .execute();
         } catch (DataAccessException e) {
             throw new SteveException("Execution of deleteOcppTag for idTag '%s' FAILED.", idTag, e);
         }
+
+        if (count > 0) {
+            statisticsCache.decrement(StatisticsCache.Counter.OCPP_TAGS);
+        }
     }
 
     private void processBooleanType(SelectQuery selectQuery,
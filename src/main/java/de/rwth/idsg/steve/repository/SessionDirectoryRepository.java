@@ -0,0 +1,48 @@
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import org.joda.time.DateTime;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The shared directory of WebSocket sessions in the cluster mode: chargeBoxId --> address of the owning node.
+ * A row is only valid until its lease expires.
+ *
+ * @since 18.10.2026
+ */
+public interface SessionDirectoryRepository {
+
+    /**
+     * Takes over the ownership, even if another node has a valid lease (the last connection wins)
+     */
+    void upsert(String chargeBoxId, String nodeAddress, OcppVersion version, DateTime leaseExpiry);
+
+    /**
+     * Only renews the rows that are still owned by the node
+     */
+    void renew(Collection<String> chargeBoxIds, String nodeAddress, DateTime leaseExpiry);
+
+    /**
+     * Only removes the row, if it is still owned by the node
+     */
+    void remove(String chargeBoxId, String nodeAddress);
+
+    void removeAll(String nodeAddress);
+
+    /**
+     * Removes the rows, whose leases expired before the given time
+     */
+    int removeExpired(DateTime before);
+
+    /**
+     * @return the address of the node with a valid lease, or null
+     */
+    String getOwner(String chargeBoxId, DateTime now);
+
+    /**
+     * @return the chargeBoxIds with a valid lease, that are connected to other nodes
+     */
+    List<String> getRemoteChargeBoxIds(OcppVersion version, String nodeAddress, DateTime now);
+}
@@ -0,0 +1,104 @@
+package de.rwth.idsg.steve.repository;
+
+import com.google.common.collect.Iterables;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import org.joda.time.DateTime;
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import static jooq.steve.db.tables.WsSessionDirectory.WS_SESSION_DIRECTORY;
+
+/**
+ * @since 18.10.2026
+ */
+@Repository
+public class SessionDirectoryRepositoryImpl implements SessionDirectoryRepository {
+
+    // To keep the IN lists of the renewals at a reasonable size
+    private static final int RENEW_CHUNK_SIZE = 1000;
+
+    @Autowired
+    @Qualifier("jooqConfig")
+    private Configuration config;
+
+    @Override
+    public void upsert(String chargeBoxId, String nodeAddress, OcppVersion version, DateTime leaseExpiry) {
+        DSL.using(config)
+           .insertInto(WS_SESSION_DIRECTORY)
+           .set(WS_SESSION_DIRECTORY.CHARGE_BOX_ID, chargeBoxId)
+           .set(WS_SESSION_DIRECTORY.NODE_ADDRESS, nodeAddress)
+           .set(WS_SESSION_DIRECTORY.OCPP_VERSION, version.getValue())
+           .set(WS_SESSION_DIRECTORY.LEASE_EXPIRY, leaseExpiry)
+           .onDuplicateKeyUpdate()
+           .set(WS_SESSION_DIRECTORY.NODE_ADDRESS, nodeAddress)
+           .set(WS_SESSION_DIRECTORY.OCPP_VERSION, version.getValue())
+           .set(WS_SESSION_DIRECTORY.LEASE_EXPIRY, leaseExpiry)
+           .execute();
+    }
+
+    @Override
+    public void renew(Collection<String> chargeBoxIds, String nodeAddress, DateTime leaseExpiry) {
+        DSLContext ctx = DSL.using(config);
+
+        for (List<String> chunk : Iterables.partition(chargeBoxIds, RENEW_CHUNK_SIZE)) {
+            ctx.update(WS_SESSION_DIRECTORY)
+               .set(WS_SESSION_DIRECTORY.LEASE_EXPIRY, leaseExpiry)
+               .where(WS_SESSION_DIRECTORY.NODE_ADDRESS.equal(nodeAddress))
+               .and(WS_SESSION_DIRECTORY.CHARGE_BOX_ID.in(chunk))
+               .execute();
+        }
+    }
+
+    @Override
+    public void remove(String chargeBoxId, String nodeAddress) {
+        DSL.using(config)
+           .delete(WS_SESSION_DIRECTORY)
+           .where(WS_SESSION_DIRECTORY.CHARGE_BOX_ID.equal(chargeBoxId))
+           .and(WS_SESSION_DIRECTORY.NODE_ADDRESS.equal(nodeAddress))
+           .execute();
+    }
+
+    @Override
+    public void removeAll(String nodeAddress) {
+        DSL.using(config)
+           .delete(WS_SESSION_DIRECTORY)
+           .where(WS_SESSION_DIRECTORY.NODE_ADDRESS.equal(nodeAddress))
+           .execute();
+    }
+
+    @Override
+    public int removeExpired(DateTime before) {
+        return DSL.using(config)
+                  .delete(WS_SESSION_DIRECTORY)
+                  .where(WS_SESSION_DIRECTORY.LEASE_EXPIRY.lessThan(before))
+                  .execute();
+    }
+
+    @Override
+    public String getOwner(String chargeBoxId, DateTime now) {
+        return DSL.using(config)
+                  .select(WS_SESSION_DIRECTORY.NODE_ADDRESS)
+                  .from(WS_SESSION_DIRECTORY)
+                  .where(WS_SESSION_DIRECTORY.CHARGE_BOX_ID.equal(chargeBoxId))
+                  .and(WS_SESSION_DIRECTORY.LEASE_EXPIRY.greaterThan(now))
+                  .fetchOne(WS_SESSION_DIRECTORY.NODE_ADDRESS);
+    }
+
+    @Override
+    public List<String> getRemoteChargeBoxIds(OcppVersion version, String nodeAddress, DateTime now) {
+        return DSL.using(config)
+                  .select(WS_SESSION_DIRECTORY.CHARGE_BOX_ID)
+                  .from(WS_SESSION_DIRECTORY)
+                  .where(WS_SESSION_DIRECTORY.OCPP_VERSION.equal(version.getValue()))
+                  .and(WS_SESSION_DIRECTORY.NODE_ADDRESS.notEqual(nodeAddress))
+                  .and(WS_SESSION_DIRECTORY.LEASE_EXPIRY.greaterThan(now))
+                  .fetch(WS_SESSION_DIRECTORY.CHARGE_BOX_ID);
+    }
+}
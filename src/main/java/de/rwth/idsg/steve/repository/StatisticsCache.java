@@ -0,0 +1,294 @@
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.config.StartupTasks;
+import de.rwth.idsg.steve.repository.dto.EntityCounts;
+import de.rwth.idsg.steve.utils.PeriodicTask;
+import de.rwth.idsg.steve.web.dto.Statistics;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The statistics of the home page, served from memory instead of counting over the tables for every view.
+ *
+ * The entity counts are the ones of the last reconcile with DB, plus the changes made through the repositories
+ * since then. The heartbeats are bucketed by the day of the latest heartbeat of every charge box, so that a
+ * heartbeat only moves its charge box from one day to another. The connectors are counted from the
+ * connector status mirror.
+ *
+ * What cannot be tracked incrementally is caught up by the periodic reconcile: the reservations (they expire
+ * by time, and a status change does not tell whether the reservation was counted) and the changes made by
+ * other nodes. A change racing with a reconcile might be counted twice or not at all until the next
+ * one. Therefore, the staleness is bounded by the reconcile interval.
+ *
+ * The heartbeats recorded during a reconcile are recorded once more, and replayed on the fresh buckets before
+ * the swap, so that they are not lost. The swap is guarded by a write lock, whereas the heartbeats only share
+ * the read lock.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class StatisticsCache {
+
+    @Autowired private GenericRepository genericRepository;
+    @Autowired private ConnectorStatusMirror connectorStatusMirror;
+    @Autowired private StartupTasks startupTasks;
+    @Autowired private ScheduledExecutorService executor;
+
+    public enum Counter {
+        CHARGE_BOXES, OCPP_TAGS, USERS, TRANSACTIONS
+    }
+
+    // Counts of the last reconcile
+    private volatile EntityCounts base = EntityCounts.builder().build();
+
+    // Changes since the last reconcile, indexed by Counter.ordinal()
+    private final LongAdder[] deltas = new LongAdder[Counter.values().length];
+
+    private volatile Heartbeats heartbeats = new Heartbeats();
+
+    // Only while a reconcile is running. Otherwise, null
+    private Heartbeats beatsDuringReconcile;
+    private Set<String> removalsDuringReconcile;
+    private final ReadWriteLock heartbeatLock = new ReentrantReadWriteLock();
+
+    private ScheduledFuture reconcileSchedule;
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i] = new LongAdder();
+        }
+
+        startupTasks.submit("Statistics", this::reconcile);
+
+        long interval = SteveConfiguration.Ocpp.STATS_RECONCILE_INTERVAL;
+        if (interval > 0) {
+            reconcileSchedule = PeriodicTask.schedule(executor, "Reconciling the statistics", this::reconcile,
+                                                      interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (reconcileSchedule != null) {
+            reconcileSchedule.cancel(false);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Changes. To be called after the commit
+    // -------------------------------------------------------------------------
+
+    public void increment(Counter counter) {
+        deltas[counter.ordinal()].increment();
+    }
+
+    public void decrement(Counter counter) {
+        deltas[counter.ordinal()].decrement();
+    }
+
+    public void beat(String chargeBoxId, DateTime ts) {
+        String key = toKey(chargeBoxId);
+        LocalDate day = ts.toLocalDate();
+
+        Lock lock = heartbeatLock.readLock();
+        lock.lock();
+        try {
+            heartbeats.beat(key, day);
+            Heartbeats recording = beatsDuringReconcile;
+            if (recording != null) {
+                recording.beat(key, day);
+                removalsDuringReconcile.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void chargeBoxDeleted(String chargeBoxId) {
+        decrement(Counter.CHARGE_BOXES);
+        String key = toKey(chargeBoxId);
+
+        Lock lock = heartbeatLock.readLock();
+        lock.lock();
+        try {
+            heartbeats.remove(key);
+            Heartbeats recording = beatsDuringReconcile;
+            if (recording != null) {
+                recording.remove(key);
+                removalsDuringReconcile.add(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Reads
+    // -------------------------------------------------------------------------
+
+    /**
+     * The WebSocket counts are left to the caller
+     */
+    public Statistics getStats() {
+        EntityCounts b = base;
+        Heartbeats h = heartbeats;
+
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+
+        return Statistics.builder()
+                         .numChargeBoxes(count(b.getNumChargeBoxes(), Counter.CHARGE_BOXES))
+                         .numOcppTags(count(b.getNumOcppTags(), Counter.OCPP_TAGS))
+                         .numUsers(count(b.getNumUsers(), Counter.USERS))
+                         .numReservations(b.getNumReservations())
+                         .numTransactions(count(b.getNumTransactions(), Counter.TRANSACTIONS))
+                         .heartbeatToday(h.countOn(today))
+                         .heartbeatYesterday(h.countOn(yesterday))
+                         .heartbeatEarlier(h.countBefore(yesterday))
+                         .connAvailable(connectorStatusMirror.count("AVAILABLE"))
+                         .connOccupied(connectorStatusMirror.count("OCCUPIED"))
+                         .connFaulted(connectorStatusMirror.count("FAULTED"))
+                         .connUnavailable(connectorStatusMirror.count("UNAVAILABLE"))
+                         .build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private int count(int baseCount, Counter counter) {
+        return (int) Math.max(0, baseCount + deltas[counter.ordinal()].sum());
+    }
+
+    private static String toKey(String chargeBoxId) {
+        // chargeBoxId is case-insensitive in DB
+        return chargeBoxId.toLowerCase(Locale.ROOT);
+    }
+
+    private synchronized void reconcile() {
+        setRecording(new Heartbeats(), ConcurrentHashMap.newKeySet());
+        try {
+            reconcileRecorded();
+        } finally {
+            setRecording(null, null);
+        }
+    }
+
+    private void setRecording(Heartbeats beats, Set<String> removals) {
+        Lock lock = heartbeatLock.writeLock();
+        lock.lock();
+        try {
+            beatsDuringReconcile = beats;
+            removalsDuringReconcile = removals;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reconcileRecorded() {
+        long[] before = new long[deltas.length];
+        for (int i = 0; i < deltas.length; i++) {
+            before[i] = deltas[i].sum();
+        }
+
+        EntityCounts fresh = genericRepository.getEntityCounts();
+
+        Heartbeats freshHeartbeats = new Heartbeats();
+        for (Map.Entry<String, DateTime> entry : genericRepository.getLastHeartbeatTimestamps().entrySet()) {
+            freshHeartbeats.beat(toKey(entry.getKey()), entry.getValue().toLocalDate());
+        }
+
+        // The changes until the query are included in the fresh counts now
+        base = fresh;
+        for (int i = 0; i < deltas.length; i++) {
+            deltas[i].add(-before[i]);
+        }
+
+        Lock lock = heartbeatLock.writeLock();
+        lock.lock();
+        try {
+            // The heartbeats are written to DB with a delay. Keep the newer ones from memory (including the ones
+            // recorded during the reconcile), but only for the charge boxes that still exist. A BootNotification
+            // writes the first heartbeat to DB right away
+            heartbeats.days.forEach((key, day) -> {
+                if (freshHeartbeats.days.containsKey(key)) {
+                    freshHeartbeats.beat(key, day);
+                }
+            });
+            beatsDuringReconcile.days.forEach((key, day) -> {
+                if (freshHeartbeats.days.containsKey(key)) {
+                    freshHeartbeats.beat(key, day);
+                }
+            });
+            removalsDuringReconcile.forEach(freshHeartbeats::remove);
+
+            heartbeats = freshHeartbeats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Heartbeats {
+
+        // Key = chargeBoxId (lower case), value = day of the latest heartbeat
+        private final ConcurrentHashMap<String, LocalDate> days = new ConcurrentHashMap<>();
+
+        // Key = day, value = number of charge boxes, whose latest heartbeat was on that day
+        private final ConcurrentHashMap<LocalDate, LongAdder> perDay = new ConcurrentHashMap<>();
+
+        private void beat(String key, LocalDate day) {
+            days.compute(key, (k, old) -> {
+                if (old != null && !day.isAfter(old)) {
+                    return old;
+                }
+                if (old != null) {
+                    perDay.get(old).decrement();
+                }
+                perDay.computeIfAbsent(day, d -> new LongAdder()).increment();
+                return day;
+            });
+        }
+
+        private void remove(String key) {
+            days.computeIfPresent(key, (k, old) -> {
+                perDay.get(old).decrement();
+                return null;
+            });
+        }
+
+        private int countOn(LocalDate day) {
+            LongAdder count = perDay.get(day);
+            return count == null ? 0 : (int) count.sum();
+        }
+
+        private int countBefore(LocalDate day) {
+            long sum = 0;
+            for (Map.Entry<LocalDate, LongAdder> entry : perDay.entrySet()) {
+                if (entry.getKey().isBefore(day)) {
+                    sum += entry.getValue().sum();
+                }
+            }
+            return (int) sum;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package de.rwth.idsg.steve.repository;
 import de.rwth.idsg.steve.repository.dto.Transaction;
 import de.rwth.idsg.steve.web.dto.TransactionQueryForm;
 
+import java.io.IOException;
 import java.io.Writer;
 import java.util.List;
 
@@ -12,6 +13,11 @@ import java.util.List;
  */
 public interface TransactionRepository {
     List<Transaction> getTransactions(TransactionQueryForm form);
-    void writeTransactionsCSV(TransactionQueryForm form, Writer writer);
+
+    /**
+     * Streams the transactions in the export format of the form, without loading the whole result into memory
+     */
+    void writeTransactions(TransactionQueryForm form, Writer writer) throws IOException;
+
     List<Integer> getActiveTransactionIds(String chargeBoxId);
 }
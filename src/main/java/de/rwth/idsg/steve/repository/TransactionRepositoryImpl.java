@@ -1,25 +1,36 @@
 package de.rwth.idsg.steve.repository;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.rwth.idsg.steve.SteveConfiguration;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.dto.Transaction;
 import de.rwth.idsg.steve.utils.CustomDSL;
 import de.rwth.idsg.steve.utils.DateTimeUtils;
 import de.rwth.idsg.steve.web.dto.TransactionQueryForm;
+import jooq.steve.db.tables.MeterValueCode;
+import lombok.RequiredArgsConstructor;
 import org.joda.time.DateTime;
 import org.jooq.Configuration;
-import org.jooq.Record8;
-import org.jooq.Result;
+import org.jooq.Cursor;
+import org.jooq.JoinType;
+import org.jooq.Record;
 import org.jooq.SelectQuery;
 import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
 import java.io.Writer;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static de.rwth.idsg.steve.utils.CustomDSL.date;
 import static jooq.steve.db.tables.Connector.CONNECTOR;
+import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
+import static jooq.steve.db.tables.MeterValueCode.METER_VALUE_CODE;
 import static jooq.steve.db.tables.Transaction.TRANSACTION;
 
 /**
@@ -33,31 +44,101 @@ public class TransactionRepositoryImpl implements TransactionRepository {
     @Qualifier("jooqConfig")
     private Configuration config;
 
+    // MySQL Connector/J streams the rows one by one only with this fetch size (without useCursorFetch).
+    // Otherwise, it reads the whole result into memory, whatever the fetch size is.
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    // To decode the attributes of a meter value
+    private static final MeterValueCode READING_CONTEXT = METER_VALUE_CODE.as("mv_reading_context");
+    private static final MeterValueCode FORMAT = METER_VALUE_CODE.as("mv_format");
+    private static final MeterValueCode MEASURAND = METER_VALUE_CODE.as("mv_measurand");
+    private static final MeterValueCode LOCATION = METER_VALUE_CODE.as("mv_location");
+    private static final MeterValueCode UNIT = METER_VALUE_CODE.as("mv_unit");
+
+    private static final String[] TRANSACTION_COLUMNS = {"transaction_pk", "charge_box_id", "connector_id",
+            "id_tag", "start_timestamp", "start_value", "stop_timestamp", "stop_value"};
+
+    private static final String[] METER_VALUE_COLUMNS = {"value_timestamp", "value", "reading_context", "format",
+            "measurand", "location", "unit"};
+
     @Override
     public List<Transaction> getTransactions(TransactionQueryForm form) {
         return internalGetTransactions(form)
+                .fetch()
                 .map(r -> Transaction.builder()
-                                     .id(r.value1())
-                                     .chargeBoxId(r.value2())
-                                     .connectorId(r.value3())
-                                     .idTag(r.value4())
-                                     .startTimestamp(DateTimeUtils.humanize(r.value5()))
-                                     .startValue(r.value6())
-                                     .stopTimestamp(DateTimeUtils.humanize(r.value7()))
-                                     .stopValue(r.value8())
+                                     .id(r.getValue(TRANSACTION.TRANSACTION_PK))
+                                     .chargeBoxId(r.getValue(CONNECTOR.CHARGE_BOX_ID))
+                                     .connectorId(r.getValue(CONNECTOR.CONNECTOR_ID))
+                                     .idTag(r.getValue(TRANSACTION.ID_TAG))
+                                     .startTimestamp(DateTimeUtils.humanize(r.getValue(TRANSACTION.START_TIMESTAMP)))
+                                     .startValue(r.getValue(TRANSACTION.START_VALUE))
+                                     .stopTimestamp(DateTimeUtils.humanize(r.getValue(TRANSACTION.STOP_TIMESTAMP)))
+                                     .stopValue(r.getValue(TRANSACTION.STOP_VALUE))
                                      .build());
     }
 
+    /**
+     * The transactions (and their meter values) are read with one query through a lazy cursor, and every row is
+     * written out as soon as it arrives. The meter values are left joined, so that a transaction comes with its
+     * meter values in consecutive rows (ordered by transaction, and then by the timestamp of the meter value).
+     * Therefore, only the current row is kept in memory, independent of the size of the result.
+     *
+     * The price is that a DB connection of the pool and the open read are held until the last row is written,
+     * i.e. for the whole download. Therefore, the export is aborted after export.timeout: The query timeout
+     * covers the execution, and the time is checked again after every row, which covers a slow download.
+     * A download that stalls completely is ended by the idle timeout of the HTTP connection (the write fails).
+     */
     @Override
-    public void writeTransactionsCSV(TransactionQueryForm form, Writer writer) {
-        internalGetTransactions(form).formatCSV(writer);
-    }
+    public void writeTransactions(TransactionQueryForm form, Writer writer) throws IOException {
+        boolean withMeterValues = form.isIncludeMeterValues();
+
+        SelectQuery<Record> selectQuery = internalGetTransactions(form);
+        if (withMeterValues) {
+            joinMeterValues(selectQuery);
+        }
+        selectQuery.fetchSize(STREAMING_FETCH_SIZE);
+
+        int timeout = SteveConfiguration.Ocpp.EXPORT_TIMEOUT;
+        if (timeout > 0) {
+            selectQuery.queryTimeout(timeout);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout);
+
+        ExportWriter exportWriter;
+        switch (form.getExportType()) {
+            case CSV:
+                exportWriter = new CsvExportWriter(writer, withMeterValues);
+                break;
+
+            case NDJSON:
+                exportWriter = new NdjsonExportWriter(writer, withMeterValues);
+                break;
 
-    @SuppressWarnings("unchecked")
-    private Result<Record8<Integer, String, Integer, String, DateTime, String, DateTime, String>>
-    internalGetTransactions(TransactionQueryForm form) {
+            default:
+                throw new SteveException("Unknown export type: %s", form.getExportType());
+        }
+
+        Cursor<Record> cursor = selectQuery.fetchLazy();
+        try {
+            exportWriter.begin();
+            for (Record r : cursor) {
+                if (timeout > 0 && System.nanoTime() - deadline > 0) {
+                    throw new SteveException("The export took longer than %s seconds, and was aborted", timeout);
+                }
+                exportWriter.write(r);
+            }
+            exportWriter.end();
+        } finally {
+            cursor.close();
+        }
+        writer.flush();
+    }
 
-        SelectQuery selectQuery = DSL.using(config).selectQuery();
+    private SelectQuery<Record> internalGetTransactions(TransactionQueryForm form) {
+        SelectQuery<Record> selectQuery = DSL.using(config).selectQuery();
         selectQuery.addFrom(TRANSACTION);
         selectQuery.addJoin(CONNECTOR, TRANSACTION.CONNECTOR_PK.eq(CONNECTOR.CONNECTOR_PK));
         selectQuery.addSelect(
@@ -87,7 +168,7 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         // Default order
         selectQuery.addOrderBy(TRANSACTION.TRANSACTION_PK.desc());
 
-        return selectQuery.fetch();
+        return selectQuery;
     }
 
     @Override
@@ -139,4 +220,221 @@ public class TransactionRepositoryImpl implements TransactionRepository {
                 throw new SteveException("Unknown enum type");
         }
     }
+
+    private void joinMeterValues(SelectQuery<Record> selectQuery) {
+        selectQuery.addJoin(CONNECTOR_METER_VALUE, JoinType.LEFT_OUTER_JOIN,
+                CONNECTOR_METER_VALUE.TRANSACTION_PK.eq(TRANSACTION.TRANSACTION_PK));
+
+        selectQuery.addJoin(READING_CONTEXT, JoinType.LEFT_OUTER_JOIN,
+                READING_CONTEXT.CODE.eq(CONNECTOR_METER_VALUE.READING_CONTEXT));
+        selectQuery.addJoin(FORMAT, JoinType.LEFT_OUTER_JOIN, FORMAT.CODE.eq(CONNECTOR_METER_VALUE.FORMAT));
+        selectQuery.addJoin(MEASURAND, JoinType.LEFT_OUTER_JOIN, MEASURAND.CODE.eq(CONNECTOR_METER_VALUE.MEASURAND));
+        selectQuery.addJoin(LOCATION, JoinType.LEFT_OUTER_JOIN, LOCATION.CODE.eq(CONNECTOR_METER_VALUE.LOCATION));
+        selectQuery.addJoin(UNIT, JoinType.LEFT_OUTER_JOIN, UNIT.CODE.eq(CONNECTOR_METER_VALUE.UNIT));
+
+        selectQuery.addSelect(
+                // Not null in the table. Therefore, null only if the transaction has no meter values
+                CONNECTOR_METER_VALUE.CONNECTOR_PK,
+                CONNECTOR_METER_VALUE.VALUE_TIMESTAMP,
+                CONNECTOR_METER_VALUE.VALUE_NUMERIC,
+                CONNECTOR_METER_VALUE.VALUE_RAW,
+                READING_CONTEXT.VALUE,
+                FORMAT.VALUE,
+                MEASURAND.VALUE,
+                LOCATION.VALUE,
+                UNIT.VALUE);
+
+        // After the default order by transaction
+        selectQuery.addOrderBy(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP);
+    }
+
+    private static boolean hasMeterValue(Record r) {
+        return r.getValue(CONNECTOR_METER_VALUE.CONNECTOR_PK) != null;
+    }
+
+    /**
+     * @return the values of the row in the order of TRANSACTION_COLUMNS
+     */
+    private static Object[] transactionValues(Record r) {
+        return new Object[] {
+                r.getValue(TRANSACTION.TRANSACTION_PK),
+                r.getValue(CONNECTOR.CHARGE_BOX_ID),
+                r.getValue(CONNECTOR.CONNECTOR_ID),
+                r.getValue(TRANSACTION.ID_TAG),
+                toText(r.getValue(TRANSACTION.START_TIMESTAMP)),
+                r.getValue(TRANSACTION.START_VALUE),
+                toText(r.getValue(TRANSACTION.STOP_TIMESTAMP)),
+                r.getValue(TRANSACTION.STOP_VALUE)
+        };
+    }
+
+    /**
+     * @return the values of the row in the order of METER_VALUE_COLUMNS
+     */
+    private static String[] meterValueValues(Record r) {
+        BigDecimal numeric = r.getValue(CONNECTOR_METER_VALUE.VALUE_NUMERIC);
+        return new String[] {
+                toText(r.getValue(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP)),
+                numeric == null ? r.getValue(CONNECTOR_METER_VALUE.VALUE_RAW)
+                                : numeric.stripTrailingZeros().toPlainString(),
+                r.getValue(READING_CONTEXT.VALUE),
+                r.getValue(FORMAT.VALUE),
+                r.getValue(MEASURAND.VALUE),
+                r.getValue(LOCATION.VALUE),
+                r.getValue(UNIT.VALUE)
+        };
+    }
+
+    private static String toText(DateTime dt) {
+        return dt == null ? null : dt.toString();
+    }
+
+    private interface ExportWriter {
+        void begin() throws IOException;
+        void write(Record r) throws IOException;
+        void end() throws IOException;
+    }
+
+    /**
+     * One line per transaction, or per meter value, if they are included (a transaction without meter values
+     * gets one line with empty meter value columns)
+     */
+    @RequiredArgsConstructor
+    private static final class CsvExportWriter implements ExportWriter {
+        private final Writer writer;
+        private final boolean withMeterValues;
+
+        @Override
+        public void begin() throws IOException {
+            writeLine(TRANSACTION_COLUMNS, withMeterValues ? METER_VALUE_COLUMNS : null);
+        }
+
+        @Override
+        public void write(Record r) throws IOException {
+            writeLine(transactionValues(r), withMeterValues && hasMeterValue(r) ? meterValueValues(r) : null);
+        }
+
+        @Override
+        public void end() {
+            // Nothing to close
+        }
+
+        private void writeLine(Object[] first, Object[] second) throws IOException {
+            writeCells(first);
+            if (second != null) {
+                writer.write(',');
+                writeCells(second);
+            } else if (withMeterValues) {
+                for (int i = 0; i < METER_VALUE_COLUMNS.length; i++) {
+                    writer.write(',');
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeCells(Object[] cells) throws IOException {
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCell(cells[i]);
+            }
+        }
+
+        private void writeCell(Object cell) throws IOException {
+            if (cell == null) {
+                return;
+            }
+
+            String s = cell.toString();
+            if (s.indexOf(',') == -1 && s.indexOf('"') == -1 && s.indexOf('\n') == -1 && s.indexOf('\r') == -1) {
+                writer.write(s);
+            } else {
+                writer.write('"');
+                writer.write(s.replace("\"", "\"\""));
+                writer.write('"');
+            }
+        }
+    }
+
+    /**
+     * One JSON object per line and transaction. The meter values are written into its array "meterValues" as
+     * the rows arrive, and the object is closed when the next transaction begins.
+     */
+    private static final class NdjsonExportWriter implements ExportWriter {
+        private final JsonGenerator gen;
+        private final boolean withMeterValues;
+
+        private Integer currentTransactionPk;
+
+        private NdjsonExportWriter(Writer writer, boolean withMeterValues) throws IOException {
+            this.gen = JSON_FACTORY.createGenerator(writer);
+            this.gen.setRootValueSeparator(null);
+            this.withMeterValues = withMeterValues;
+        }
+
+        @Override
+        public void begin() {
+            // No header
+        }
+
+        @Override
+        public void write(Record r) throws IOException {
+            Integer transactionPk = r.getValue(TRANSACTION.TRANSACTION_PK);
+            if (!transactionPk.equals(currentTransactionPk)) {
+                closeTransaction();
+                openTransaction(r);
+                currentTransactionPk = transactionPk;
+            }
+
+            if (withMeterValues && hasMeterValue(r)) {
+                writeObject(METER_VALUE_COLUMNS, meterValueValues(r));
+            }
+        }
+
+        @Override
+        public void end() throws IOException {
+            closeTransaction();
+            gen.close();
+        }
+
+        private void openTransaction(Record r) throws IOException {
+            gen.writeStartObject();
+            writeFields(TRANSACTION_COLUMNS, transactionValues(r));
+            if (withMeterValues) {
+                gen.writeArrayFieldStart("meterValues");
+            }
+        }
+
+        private void closeTransaction() throws IOException {
+            if (currentTransactionPk == null) {
+                return;
+            }
+
+            if (withMeterValues) {
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+        }
+
+        private void writeObject(String[] names, Object[] values) throws IOException {
+            gen.writeStartObject();
+            writeFields(names, values);
+            gen.writeEndObject();
+        }
+
+        private void writeFields(String[] names, Object[] values) throws IOException {
+            for (int i = 0; i < names.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    gen.writeNullField(names[i]);
+                } else if (value instanceof Integer) {
+                    gen.writeNumberField(names[i], (Integer) value);
+                } else {
+                    gen.writeStringField(names[i], value.toString());
+                }
+            }
+        }
+    }
 }
@@ -40,6 +40,7 @@ import static jooq.steve.db.tables.User.USER;
 public class UserRepositoryImpl implements UserRepository {
 
     @Autowired private AddressRepository addressRepository;
+    @Autowired private StatisticsCache statisticsCache;
 
     @Autowired
     @Qualifier("jooqConfig")
@@ -126,6 +127,7 @@ public class UserRepositoryImpl implements UserRepository {
                 throw new SteveException("Failed to add the customer", e);
             }
         });
+        statisticsCache.increment(StatisticsCache.Counter.USERS);
     }
 
     @Override
@@ -145,16 +147,20 @@ public class UserRepositoryImpl implements UserRepository {
 
     @Override
     public void delete(int userPk) {
-        DSL.using(config).transaction(configuration -> {
+        int count = DSL.using(config).transactionResult(configuration -> {
             DSLContext ctx = DSL.using(configuration);
             try {
                 addressRepository.delete(ctx, selectAddressId(userPk));
-                deleteInternal(ctx, userPk);
+                return deleteInternal(ctx, userPk);
 
             } catch (DataAccessException e) {
                 throw new SteveException("Failed to delete the customer", e);
             }
         });
+
+        if (count > 0) {
+            statisticsCache.decrement(StatisticsCache.Counter.USERS);
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -245,9 +251,9 @@ public class UserRepositoryImpl implements UserRepository {
            .execute();
     }
 
-    private void deleteInternal(DSLContext ctx, int userPk) {
-        ctx.delete(USER)
-           .where(USER.USER_PK.equal(userPk))
-           .execute();
+    private int deleteInternal(DSLContext ctx, int userPk) {
+        return ctx.delete(USER)
+                  .where(USER.USER_PK.equal(userPk))
+                  .execute();
     }
 }
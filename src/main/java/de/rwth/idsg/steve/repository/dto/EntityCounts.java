@@ -0,0 +1,14 @@
+package de.rwth.idsg.steve.repository.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class EntityCounts {
+    // Reservations: accepted and not expired. Transactions: not stopped
+    private final int numChargeBoxes, numOcppTags, numUsers, numReservations, numTransactions;
+}
@@ -0,0 +1,81 @@
+package de.rwth.idsg.steve.repository.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ocpp.cs._2012._06.MeterValue;
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The meter values of one MeterValues request, independent of the OCPP version
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+@ToString
+public class InsertMeterValuesParams {
+    private final String chargeBoxId;
+    private final int connectorId;
+
+    // Only in OCPP1.5, and optional
+    private final Integer transactionId;
+
+    private final List<Value> values;
+
+    public static InsertMeterValuesParams of12(String chargeBoxId, int connectorId,
+                                               List<ocpp.cs._2010._08.MeterValue> list) {
+        // OCPP 1.2 allows multiple "values" elements
+        List<Value> values = new ArrayList<>(list.size());
+        for (ocpp.cs._2010._08.MeterValue valuesElement : list) {
+            values.add(new Value(valuesElement.getTimestamp(), String.valueOf(valuesElement.getValue()),
+                                 null, null, null, null, null));
+        }
+
+        return InsertMeterValuesParams.builder()
+                                      .chargeBoxId(chargeBoxId)
+                                      .connectorId(connectorId)
+                                      .values(values)
+                                      .build();
+    }
+
+    public static InsertMeterValuesParams of15(String chargeBoxId, int connectorId, List<MeterValue> list,
+                                               Integer transactionId) {
+        // OCPP 1.5 allows multiple "values" elements, and multiple "value" elements under each of them.
+        // The attributes of a "value" element are optional
+        List<Value> values = new ArrayList<>();
+        for (MeterValue valuesElement : list) {
+            for (MeterValue.Value v : valuesElement.getValue()) {
+                values.add(new Value(valuesElement.getTimestamp(),
+                                     v.getValue(),
+                                     v.getContext() == null ? null : v.getContext().value(),
+                                     v.getFormat() == null ? null : v.getFormat().value(),
+                                     v.getMeasurand() == null ? null : v.getMeasurand().value(),
+                                     v.getLocation() == null ? null : v.getLocation().value(),
+                                     v.getUnit() == null ? null : v.getUnit().value()));
+            }
+        }
+
+        return InsertMeterValuesParams.builder()
+                                      .chargeBoxId(chargeBoxId)
+                                      .connectorId(connectorId)
+                                      .transactionId(transactionId)
+                                      .values(values)
+                                      .build();
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class Value {
+        private final DateTime timestamp;
+        private final String value;
+
+        // Only in OCPP1.5, and optional
+        private final String readingContext, format, measurand, location, unit;
+    }
+}
@@ -1,5 +1,6 @@
 package de.rwth.idsg.steve.service;
 
+import de.rwth.idsg.steve.ocpp.AdmissionControl;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
 import de.rwth.idsg.steve.repository.SettingsRepository;
@@ -44,11 +45,31 @@ public class CentralSystemService12_Service {
     @Autowired private OcppServerRepository ocppServerRepository;
     @Autowired private OcppTagService ocppTagService;
     @Autowired private SettingsRepository settingsRepository;
+    @Autowired private AdmissionControl admissionControl;
+    @Autowired private HeartbeatTracker heartbeatTracker;
+    @Autowired private MeterValuesWriter meterValuesWriter;
 
     public BootNotificationResponse bootNotification(BootNotificationRequest parameters, String chargeBoxIdentity,
                                                      OcppProtocol ocppProtocol) {
         log.debug("Executing bootNotification for {}", chargeBoxIdentity);
 
+        if (!admissionControl.tryStartBoot()) {
+            log.info("Deferring bootNotification of {}, since too many are in process", chargeBoxIdentity);
+            return new BootNotificationResponse()
+                    .withStatus(RegistrationStatus.REJECTED)
+                    .withCurrentTime(DateTime.now())
+                    .withHeartbeatInterval(admissionControl.getBootRetryInterval());
+        }
+
+        try {
+            return bootNotificationInternal(parameters, chargeBoxIdentity, ocppProtocol);
+        } finally {
+            admissionControl.endBoot();
+        }
+    }
+
+    private BootNotificationResponse bootNotificationInternal(BootNotificationRequest parameters,
+                                                              String chargeBoxIdentity, OcppProtocol ocppProtocol) {
         DateTime now = DateTime.now();
 
         UpdateChargeboxParams params =
@@ -112,7 +133,7 @@ public class CentralSystemService12_Service {
 
         int connectorId = parameters.getConnectorId();
         if (parameters.isSetValues()) {
-            ocppServerRepository.insertMeterValues12(chargeBoxIdentity, connectorId, parameters.getValues());
+            meterValuesWriter.insertMeterValues12(chargeBoxIdentity, connectorId, parameters.getValues());
         }
         return new MeterValuesResponse();
     }
@@ -151,6 +172,9 @@ public class CentralSystemService12_Service {
         int transactionId = parameters.getTransactionId();
         DateTime stopTimestamp = parameters.getTimestamp();
         String stopMeterValue = Integer.toString(parameters.getMeterStop());
+
+        // The queued MeterValues of the transaction first, so that they are not written after its end
+        meterValuesWriter.flush(chargeBoxIdentity);
         ocppServerRepository.updateTransaction(transactionId, stopTimestamp, stopMeterValue);
 
         // Get the authorization info of the user
@@ -166,7 +190,7 @@ public class CentralSystemService12_Service {
         log.debug("Executing heartbeat for {}", chargeBoxIdentity);
 
         DateTime now = DateTime.now();
-        ocppServerRepository.updateChargeboxHeartbeat(chargeBoxIdentity, now);
+        heartbeatTracker.beat(chargeBoxIdentity, now);
 
         return new HeartbeatResponse().withCurrentTime(now);
     }
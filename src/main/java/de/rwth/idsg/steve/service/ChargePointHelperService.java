@@ -1,6 +1,8 @@
 package de.rwth.idsg.steve.service;
 
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.web.dto.MailboxStats;
+import de.rwth.idsg.steve.web.dto.MemoryFootprint;
 import de.rwth.idsg.steve.web.dto.OcppJsonStatus;
 import de.rwth.idsg.steve.web.dto.Statistics;
 
@@ -13,6 +15,9 @@ import java.util.List;
 public interface ChargePointHelperService {
     Statistics getStats();
     List<OcppJsonStatus> getOcppJsonStatus();
+    MailboxStats getMailboxStats();
+
+    MemoryFootprint getMemoryFootprint();
     List<ChargePointSelect> getChargePointsV12();
     List<ChargePointSelect> getChargePointsV15();
 }
@@ -1,23 +1,34 @@
 package de.rwth.idsg.steve.service;
 
+import de.rwth.idsg.steve.SteveConfiguration;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.ocpp.OcppTransport;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.AbstractWebSocketEndpoint;
+import de.rwth.idsg.steve.ocpp.ws.MailboxExecutor;
+import de.rwth.idsg.steve.ocpp.ws.OcppPerMessageDeflateExtension;
+import de.rwth.idsg.steve.ocpp.ws.OutboundQueue;
+import de.rwth.idsg.steve.ocpp.ws.cluster.ClusterSessionDirectory;
 import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
 import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12WebSocketEndpoint;
 import de.rwth.idsg.steve.ocpp.ws.ocpp15.Ocpp15WebSocketEndpoint;
 import de.rwth.idsg.steve.repository.ChargePointRepository;
-import de.rwth.idsg.steve.repository.GenericRepository;
+import de.rwth.idsg.steve.repository.StatisticsCache;
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
 import de.rwth.idsg.steve.utils.DateTimeUtils;
+import de.rwth.idsg.steve.web.dto.MailboxStats;
+import de.rwth.idsg.steve.web.dto.MemoryFootprint;
 import de.rwth.idsg.steve.web.dto.OcppJsonStatus;
 import de.rwth.idsg.steve.web.dto.Statistics;
 import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
 import java.util.ArrayList;
-import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 
@@ -28,7 +39,7 @@ import java.util.Map;
 @Service
 public class ChargePointHelperServiceImpl implements ChargePointHelperService {
 
-    @Autowired private GenericRepository genericRepository;
+    @Autowired private StatisticsCache statisticsCache;
 
     // SOAP-based charge points are stored in DB with an endpoint address
     @Autowired private ChargePointRepository chargePointRepository;
@@ -36,10 +47,12 @@ public class ChargePointHelperServiceImpl implements ChargePointHelperService {
     // For WebSocket-based charge points, the active sessions are stored in memory
     @Autowired private Ocpp12WebSocketEndpoint ocpp12WebSocketEndpoint;
     @Autowired private Ocpp15WebSocketEndpoint ocpp15WebSocketEndpoint;
+    @Autowired private MailboxExecutor mailboxExecutor;
+    @Autowired private ClusterSessionDirectory clusterSessionDirectory;
 
     @Override
     public Statistics getStats() {
-        Statistics stats = genericRepository.getStats();
+        Statistics stats = statisticsCache.getStats();
         stats.setNumOcpp12JChargeBoxes(ocpp12WebSocketEndpoint.getNumberOfChargeBoxes());
         stats.setNumOcpp15JChargeBoxes(ocpp15WebSocketEndpoint.getNumberOfChargeBoxes());
         return stats;
@@ -47,8 +60,8 @@ public class ChargePointHelperServiceImpl implements ChargePointHelperService {
 
     @Override
     public List<OcppJsonStatus> getOcppJsonStatus() {
-        Map<String, Deque<SessionContext>> ocpp12Map = ocpp12WebSocketEndpoint.getACopy();
-        Map<String, Deque<SessionContext>> ocpp15Map = ocpp15WebSocketEndpoint.getACopy();
+        Map<String, List<SessionContext>> ocpp12Map = ocpp12WebSocketEndpoint.getSnapshot();
+        Map<String, List<SessionContext>> ocpp15Map = ocpp15WebSocketEndpoint.getSnapshot();
 
         DateTime now = DateTime.now();
         List<OcppJsonStatus> returnList = new ArrayList<>();
@@ -58,6 +71,40 @@ public class ChargePointHelperServiceImpl implements ChargePointHelperService {
         return returnList;
     }
 
+    @Override
+    public MailboxStats getMailboxStats() {
+        return mailboxExecutor.getStats();
+    }
+
+    @Override
+    public MemoryFootprint getMemoryFootprint() {
+        Runtime runtime = Runtime.getRuntime();
+
+        // The usage of the heap pools right after their last collection, i.e. only the retained objects
+        long heapAfterGc = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && usage != null) {
+                heapAfterGc += usage.getUsed();
+            }
+        }
+
+        int connections = 0;
+        for (List<SessionContext> list : ocpp12WebSocketEndpoint.getSnapshot().values()) {
+            connections += list.size();
+        }
+        for (List<SessionContext> list : ocpp15WebSocketEndpoint.getSnapshot().values()) {
+            connections += list.size();
+        }
+
+        return MemoryFootprint.builder()
+                              .heapUsedBytes(runtime.totalMemory() - runtime.freeMemory())
+                              .heapAfterGcBytes(heapAfterGc)
+                              .connections(connections)
+                              .compactMode(SteveConfiguration.Ocpp.COMPACT_MODE)
+                              .build();
+    }
+
     @Override
     public List<ChargePointSelect> getChargePointsV12() {
         List<ChargePointSelect> returnList = chargePointRepository.getChargePointSelect(OcppProtocol.V_12_SOAP);
@@ -65,6 +112,7 @@ public class ChargePointHelperServiceImpl implements ChargePointHelperService {
         for (String chargeBoxId : ocpp12WebSocketEndpoint.getChargeBoxIdList()) {
             returnList.add(new ChargePointSelect(OcppTransport.JSON, chargeBoxId));
         }
+        addRemoteChargePoints(returnList, ocpp12WebSocketEndpoint);
         return returnList;
     }
 
@@ -75,6 +123,7 @@ public class ChargePointHelperServiceImpl implements ChargePointHelperService {
         for (String chargeBoxId : ocpp15WebSocketEndpoint.getChargeBoxIdList()) {
             returnList.add(new ChargePointSelect(OcppTransport.JSON, chargeBoxId));
         }
+        addRemoteChargePoints(returnList, ocpp15WebSocketEndpoint);
         return returnList;
     }
 
@@ -82,22 +131,54 @@ public class ChargePointHelperServiceImpl implements ChargePointHelperService {
     // Helpers
     // -------------------------------------------------------------------------
 
-    private void appendList(Map<String, Deque<SessionContext>> map, List<OcppJsonStatus> returnList,
+    /**
+     * In the cluster mode, the charge points connected to the other nodes can be selected as well.
+     * The calls to them are forwarded.
+     */
+    private void addRemoteChargePoints(List<ChargePointSelect> returnList, AbstractWebSocketEndpoint endpoint) {
+        for (String chargeBoxId : clusterSessionDirectory.getRemoteChargeBoxIds(endpoint.getVersion())) {
+            // The directory might lag behind a reconnect to this node
+            if (!endpoint.hasSession(chargeBoxId)) {
+                returnList.add(new ChargePointSelect(OcppTransport.JSON, chargeBoxId));
+            }
+        }
+    }
+
+    private void appendList(Map<String, List<SessionContext>> map, List<OcppJsonStatus> returnList,
                             DateTime now, OcppVersion version) {
 
-        for (Map.Entry<String, Deque<SessionContext>> entry : map.entrySet()) {
+        for (Map.Entry<String, List<SessionContext>> entry : map.entrySet()) {
             String chargeBoxId = entry.getKey();
-            Deque<SessionContext> endpointDeque = entry.getValue();
+            List<SessionContext> endpointList = entry.getValue();
 
-            for (SessionContext ctx : endpointDeque) {
+            for (SessionContext ctx : endpointList) {
                 DateTime openSince = ctx.getOpenSince();
 
-                OcppJsonStatus status = OcppJsonStatus.builder()
+                OcppJsonStatus.OcppJsonStatusBuilder builder = OcppJsonStatus.builder()
                         .chargeBoxId(chargeBoxId)
                         .connectedSince(DateTimeUtils.humanize(openSince))
                         .connectionDuration(DateTimeUtils.timeElapsed(openSince, now))
                         .version(version)
-                        .build();
+                        .mailboxDepth(mailboxExecutor.getDepth(chargeBoxId));
+
+                OutboundQueue queue = OutboundQueue.get(ctx.getSession());
+                if (queue != null) {
+                    builder.outboundDepth(queue.getDepth())
+                           .outboundMaxDepth(queue.getMaxDepth())
+                           .outboundDropped(queue.getDroppedCount())
+                           .sendLatencyAvgMillis(queue.getAvgLatencyMillis())
+                           .sendLatencyMaxMillis(queue.getMaxLatencyMillis());
+                }
+
+                OcppPerMessageDeflateExtension deflate = OcppPerMessageDeflateExtension.get(ctx.getSession());
+                if (deflate != null) {
+                    builder.compressed(true)
+                           .compressionRatioPercent(deflate.getRatioPercent())
+                           .compressionSavedBytes(deflate.getSavedBytes())
+                           .compressionCpuMillis(deflate.getCpuMillis());
+                }
+
+                OcppJsonStatus status = builder.build();
 
                 returnList.add(status);
             }
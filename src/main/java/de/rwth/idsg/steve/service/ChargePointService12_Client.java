@@ -53,6 +53,7 @@ public class ChargePointService12_Client {
     private static final OcppVersion VERSION = OcppVersion.V_12;
 
     @Autowired private ScheduledExecutorService executorService;
+    @Autowired private FanOutExecutor fanOutExecutor;
     @Autowired private RequestTaskStore requestTaskStore;
     @Autowired private ChargePointService12_Dispatcher dispatcher;
 
@@ -123,7 +124,7 @@ public class ChargePointService12_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.changeAvailability(c, req, new ChangeAvailabilityResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -134,7 +135,7 @@ public class ChargePointService12_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.changeConfiguration(c, req, new ChangeConfigurationResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -145,7 +146,7 @@ public class ChargePointService12_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.clearCache(c, req, new ClearCacheResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -156,7 +157,7 @@ public class ChargePointService12_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.getDiagnostics(c, req, new GetDiagnosticsResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -167,7 +168,7 @@ public class ChargePointService12_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.reset(c, req, new ResetResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -178,17 +179,17 @@ public class ChargePointService12_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.updateFirmware(c, req, new UpdateFirmwareResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
     }
 
     /**
-     * Executes the requests
+     * Executes the requests concurrently, with the progress in the task
      */
-    private void execute(List<ChargePointSelect> list, Consumer<ChargePointSelect> consumer) {
-        executorService.execute(() -> list.stream().forEach(consumer));
+    private void execute(RequestTask task, List<ChargePointSelect> list, Consumer<ChargePointSelect> consumer) {
+        fanOutExecutor.execute(task, list, consumer);
     }
 
     // -------------------------------------------------------------------------
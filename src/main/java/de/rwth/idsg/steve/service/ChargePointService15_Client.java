@@ -78,6 +78,7 @@ public class ChargePointService15_Client {
     private static final OcppVersion VERSION = OcppVersion.V_15;
 
     @Autowired private ScheduledExecutorService executorService;
+    @Autowired private FanOutExecutor fanOutExecutor;
     @Autowired private OcppTagRepository userRepository;
     @Autowired private OcppTagService ocppTagService;
     @Autowired private ReservationRepository reservationRepository;
@@ -216,7 +217,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.changeAvailability(c, req, new ChangeAvailabilityResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -227,7 +228,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.changeConfiguration(c, req, new ChangeConfigurationResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -238,7 +239,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.clearCache(c, req, new ClearCacheResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -249,7 +250,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.getDiagnostics(c, req, new GetDiagnosticsResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -260,7 +261,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.reset(c, req, new ResetResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -271,7 +272,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.updateFirmware(c, req, new UpdateFirmwareResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -282,7 +283,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.dataTransfer(c, req, new DataTransferResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -293,7 +294,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.getConfiguration(c, req, new GetConfigurationResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -304,7 +305,7 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.getLocalListVersion(c, req, new GetLocalListVersionResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
@@ -315,17 +316,17 @@ public class ChargePointService15_Client {
         List<ChargePointSelect> list = params.getChargePointSelectList();
         RequestTask task = new RequestTask(VERSION, req, list);
 
-        execute(list,
+        execute(task, list,
                 c -> dispatcher.sendLocalList(c, req, new SendLocalListResponseHandler(task, c.getChargeBoxId())));
 
         return requestTaskStore.add(task);
     }
 
     /**
-     * Executes the requests
+     * Executes the requests concurrently, with the progress in the task
      */
-    private void execute(List<ChargePointSelect> list, Consumer<ChargePointSelect> consumer) {
-        executorService.execute(() -> list.stream().forEach(consumer));
+    private void execute(RequestTask task, List<ChargePointSelect> list, Consumer<ChargePointSelect> consumer) {
+        fanOutExecutor.execute(task, list, consumer);
     }
 
     // -------------------------------------------------------------------------
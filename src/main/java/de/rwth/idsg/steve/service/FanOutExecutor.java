@@ -0,0 +1,166 @@
+package de.rwth.idsg.steve.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.utils.HashedWheelTimer;
+import de.rwth.idsg.steve.web.dto.task.RequestTask;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sends the request of a task to multiple charge points concurrently, instead of one after another:
+ *
+ * - At most "parallelism" charge points of a task are in flight, i.e. sent and not answered yet.
+ * - At most "max in flight" charge points are in flight over all tasks, so that a few large tasks cannot
+ *   flood the connections and the DB with responses.
+ * - A charge point occupies its slot at most until its deadline. The response can still arrive later, but
+ *   a slow charge point does not hold up the others.
+ *
+ * A slot is released with the result of the charge point in the RequestTask, which also shows the progress.
+ *
+ * Both thread pools are bounded: Sending needs at most "max in flight" threads, since every send holds a slot.
+ * The loops of the tasks, which wait for the slots, need at most "max in flight" / "parallelism" threads to
+ * keep all slots busy. The loops of further tasks wait in the queue.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Component
+public class FanOutExecutor {
+
+    @Autowired private HashedWheelTimer timer;
+
+    private final ExecutorService dispatchers;
+    private final ExecutorService senders;
+    private Semaphore globalPermits;
+
+    public FanOutExecutor() {
+        int maxInFlight = SteveConfiguration.Ocpp.FANOUT_MAX_IN_FLIGHT;
+        int parallelism = SteveConfiguration.Ocpp.FANOUT_PARALLELISM;
+
+        dispatchers = newPool("SteVe-FanOut-Dispatch-%d", Math.max(1, maxInFlight / parallelism));
+        senders = newPool("SteVe-FanOut-%d", maxInFlight);
+    }
+
+    /**
+     * The idle threads time out, since most of the time there is no task
+     */
+    private static ExecutorService newPool(String nameFormat, int threadCount) {
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat(nameFormat)
+                                                                .build();
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+                                                         new LinkedBlockingQueue<>(), threadFactory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @PostConstruct
+    public void init() {
+        // Fair, so that the tasks get the free slots in the order they asked for them
+        globalPermits = new Semaphore(SteveConfiguration.Ocpp.FANOUT_MAX_IN_FLIGHT, true);
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        try {
+            dispatchers.shutdownNow();
+            senders.shutdownNow();
+            dispatchers.awaitTermination(5, TimeUnit.SECONDS);
+            senders.awaitTermination(5, TimeUnit.SECONDS);
+
+        } catch (InterruptedException e) {
+            log.error("Termination interrupted", e);
+        }
+    }
+
+    /**
+     * Returns immediately. The consumer is called for every charge point of the list.
+     */
+    public void execute(RequestTask task, List<ChargePointSelect> list, Consumer<ChargePointSelect> consumer) {
+        Run run = new Run(task, list, consumer);
+        task.setResultListener(run::release);
+        dispatchers.execute(run::dispatchAll);
+    }
+
+    @RequiredArgsConstructor
+    private final class Run {
+        private final RequestTask task;
+        private final List<ChargePointSelect> list;
+        private final Consumer<ChargePointSelect> consumer;
+
+        private final Semaphore permits = new Semaphore(SteveConfiguration.Ocpp.FANOUT_PARALLELISM);
+
+        // Key = chargeBoxId. Only the charge points that currently occupy a slot
+        private final ConcurrentHashMap<String, HashedWheelTimer.Timeout> slots = new ConcurrentHashMap<>();
+
+        private void dispatchAll() {
+            try {
+                for (ChargePointSelect cp : list) {
+                    acquire();
+
+                    String chargeBoxId = cp.getChargeBoxId();
+                    slots.put(chargeBoxId, timer.newTimeout(() -> release(chargeBoxId),
+                                                            SteveConfiguration.Ocpp.FANOUT_TARGET_DEADLINE,
+                                                            TimeUnit.SECONDS));
+                    task.markDispatched();
+                    senders.execute(() -> dispatch(cp));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Dispatching of {} was interrupted after {} of {} charge points", task.getOperationName(),
+                        task.getDispatchedCount(), list.size());
+            }
+        }
+
+        private void acquire() throws InterruptedException {
+            permits.acquire();
+            try {
+                globalPermits.acquire();
+            } catch (InterruptedException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Sending can be slow as well (e.g. a CXF proxy per SOAP charge point), therefore in parallel
+         */
+        private void dispatch(ChargePointSelect cp) {
+            try {
+                consumer.accept(cp);
+            } catch (Exception e) {
+                log.error("[chargeBoxId={}] Sending of {} failed", cp.getChargeBoxId(), task.getOperationName(), e);
+                // Releases the slot as well
+                task.addNewError(cp.getChargeBoxId(), e);
+            }
+        }
+
+        /**
+         * Is called with the result of the charge point, or at its deadline. Whichever comes first.
+         */
+        private void release(String chargeBoxId) {
+            HashedWheelTimer.Timeout timeout = slots.remove(chargeBoxId);
+            if (timeout != null) {
+                timeout.cancel();
+                globalPermits.release();
+                permits.release();
+            }
+        }
+    }
+}
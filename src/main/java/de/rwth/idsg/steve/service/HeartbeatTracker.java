@@ -0,0 +1,114 @@
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.repository.StatisticsCache;
+import de.rwth.idsg.steve.utils.PeriodicTask;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heartbeats (Heartbeat requests and WebSocket pongs) are the most frequent writes. Instead of an UPDATE per
+ * heartbeat, the latest timestamp of every charge point is kept in memory, and the dirty ones are written to
+ * DB periodically with one multi-row update (write-behind).
+ *
+ * The UI reads the heartbeat timestamps from DB. The pages that show them overlay the pending timestamps from
+ * memory (see getPending), so that they do not lag behind, without writing to DB themselves. The heartbeat
+ * counts of the home page are kept in memory by StatisticsCache.
+ *
+ * With heartbeat.write.behind = false, every heartbeat is written to DB right away, as before.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Service
+public class HeartbeatTracker {
+
+    @Autowired private OcppServerRepository ocppServerRepository;
+    @Autowired private ScheduledExecutorService executor;
+    @Autowired private StatisticsCache statisticsCache;
+
+    // Key = chargeBoxId, value = timestamp of the latest heartbeat, that is not written to DB yet
+    private final ConcurrentHashMap<String, DateTime> dirty = new ConcurrentHashMap<>();
+
+    private ScheduledFuture flushSchedule;
+
+    @PostConstruct
+    public void init() {
+        if (!SteveConfiguration.Ocpp.HEARTBEAT_WRITE_BEHIND) {
+            return;
+        }
+
+        long interval = SteveConfiguration.Ocpp.HEARTBEAT_FLUSH_INTERVAL;
+        flushSchedule = PeriodicTask.schedule(executor, "Writing the heartbeats", this::flush, interval,
+                                              TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (flushSchedule != null) {
+            flushSchedule.cancel(false);
+        }
+        flush();
+    }
+
+    public void beat(String chargeBoxId, DateTime ts) {
+        if (SteveConfiguration.Ocpp.HEARTBEAT_WRITE_BEHIND) {
+            putIfNewer(chargeBoxId, ts);
+        } else {
+            ocppServerRepository.updateChargeboxHeartbeats(Collections.singletonMap(chargeBoxId, ts));
+        }
+        statisticsCache.beat(chargeBoxId, ts);
+    }
+
+    private void putIfNewer(String chargeBoxId, DateTime ts) {
+        dirty.merge(chargeBoxId, ts, (old, now) -> now.isAfter(old) ? now : old);
+    }
+
+    /**
+     * @return the latest heartbeat of the charge point, that is not written to DB yet. Null, if there is none.
+     *         If not null, it is newer than the one in DB (the batch never overwrites a newer timestamp).
+     */
+    public DateTime getPending(String chargeBoxId) {
+        return dirty.get(chargeBoxId);
+    }
+
+    /**
+     * Synchronized, since two concurrent flushes could otherwise overwrite a newer timestamp with an older one
+     */
+    private synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        Map<String, DateTime> batch = new HashMap<>();
+        for (String chargeBoxId : dirty.keySet()) {
+            DateTime ts = dirty.remove(chargeBoxId);
+            if (ts != null) {
+                batch.put(chargeBoxId, ts);
+            }
+        }
+
+        try {
+            ocppServerRepository.updateChargeboxHeartbeats(batch);
+        } catch (RuntimeException e) {
+            // Put them back for the next try, unless there are newer ones in the meantime
+            batch.forEach(this::putIfNewer);
+            throw e;
+        }
+
+        log.debug("Updated the heartbeats of {} chargeboxes", batch.size());
+    }
+}
@@ -0,0 +1,359 @@
+package de.rwth.idsg.steve.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.repository.dto.InsertMeterValuesParams;
+import de.rwth.idsg.steve.utils.LatencyHistogram;
+import de.rwth.idsg.steve.web.dto.MeterValuesWriterStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ocpp.cs._2012._06.MeterValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MeterValues are the largest writes (one row per value), and arrive in a steady stream from every charge
+ * point with an ongoing transaction. With write-behind enabled, a request is only put into a queue, and the
+ * response is sent right away:
+ *
+ * - The queue is split into shards, each drained by one writer thread. A chargebox always goes to the same
+ *   shard, therefore its values are written in the order they arrived.
+ * - A writer takes everything that is queued (up to the batch size), and writes it in one DB transaction with
+ *   multi-row inserts, i.e. the commit is shared by many charge points (group commit).
+ * - If a shard is full, the request waits for space up to the enqueue timeout, and is then written
+ *   synchronously. Both slow down the charge point (backpressure), instead of dropping its values. In this
+ *   case, the values of a chargebox can be written out of order, but every value has its timestamp anyway.
+ *
+ * If a batch fails, its requests are written one by one, so that one faulty request (e.g. of an unknown
+ * chargebox) does not take the others down with it. The values of a request that cannot be written at all are
+ * logged, since the charge point already got its response and will not send them again.
+ *
+ * StopTransaction is written synchronously. Before that, the queued values of the chargebox are written
+ * (see flush), so that the transaction is not closed before its last values are in DB.
+ *
+ * Depends on the bean configuration, which closes the connection pool, so that the shutdown can still drain
+ * the queue.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Service
+@DependsOn("beanConfiguration")
+public class MeterValuesWriter {
+
+    @Autowired private OcppServerRepository ocppServerRepository;
+
+    private static final long POLL_TIMEOUT = 1; // in seconds
+    private static final long SHUTDOWN_TIMEOUT = 30; // in seconds
+    private static final long FLUSH_TIMEOUT = 10; // in seconds
+
+    private Shard[] shards;
+    private int queueCapacity;
+    private volatile boolean running = false;
+
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder synchronousCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder batchedCount = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Long::max, 0);
+    private final LatencyHistogram flushLatency = new LatencyHistogram();
+
+    @PostConstruct
+    public void init() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        int threadCount = Math.max(1, SteveConfiguration.Ocpp.METER_VALUES_WRITER_THREADS);
+        int shardCapacity = Math.max(1, SteveConfiguration.Ocpp.METER_VALUES_QUEUE_SIZE / threadCount);
+        queueCapacity = shardCapacity * threadCount;
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("SteVe-MeterValues-%d")
+                                                                .build();
+        running = true;
+        shards = new Shard[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            shards[i] = new Shard(new ArrayBlockingQueue<>(shardCapacity));
+            shards[i].thread = threadFactory.newThread(shards[i]);
+            shards[i].thread.start();
+        }
+
+        log.info("MeterValues are written behind by {} writers (queue capacity: {})", threadCount, queueCapacity);
+    }
+
+    /**
+     * The writers drain their shards before they stop
+     */
+    @PreDestroy
+    public void shutDown() {
+        if (shards == null) {
+            return;
+        }
+
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT);
+        try {
+            for (Shard shard : shards) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                shard.thread.join(Math.max(1, remaining));
+            }
+        } catch (InterruptedException e) {
+            log.error("Termination interrupted", e);
+        }
+
+        int lost = getQueued();
+        if (lost > 0) {
+            log.warn("{} MeterValues requests could not be written before the shutdown", lost);
+            for (Shard shard : shards) {
+                for (Entry e : shard.queue) {
+                    if (e.params != null) {
+                        log.error("[chargeBoxId={}] MeterValues are lost: {}", e.params.getChargeBoxId(), e.params);
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return SteveConfiguration.Ocpp.METER_VALUES_WRITE_BEHIND;
+    }
+
+    public void insertMeterValues12(String chargeBoxIdentity, int connectorId,
+                                    List<ocpp.cs._2010._08.MeterValue> list) {
+        if (!isEnabled()) {
+            ocppServerRepository.insertMeterValues12(chargeBoxIdentity, connectorId, list);
+            return;
+        }
+        enqueue(InsertMeterValuesParams.of12(chargeBoxIdentity, connectorId, list));
+    }
+
+    public void insertMeterValues15(String chargeBoxIdentity, int connectorId, List<MeterValue> list,
+                                    Integer transactionId) {
+        if (!isEnabled()) {
+            ocppServerRepository.insertMeterValues15(chargeBoxIdentity, connectorId, list, transactionId);
+            return;
+        }
+        enqueue(InsertMeterValuesParams.of15(chargeBoxIdentity, connectorId, list, transactionId));
+    }
+
+    /**
+     * Blocks until the values of the chargebox, that are queued at the time of the call, are written (or given
+     * up on). Puts a marker into the shard of the chargebox, and waits until the writer reaches it. Since the
+     * shard is FIFO, all the values queued before are done then.
+     */
+    public void flush(String chargeBoxId) {
+        if (!isEnabled() || !running) {
+            return;
+        }
+
+        Shard shard = getShard(chargeBoxId);
+        if (shard.queue.isEmpty()) {
+            return;
+        }
+
+        Entry marker = new Entry(null, System.nanoTime(), new CountDownLatch(1));
+        try {
+            if (!shard.queue.offer(marker, FLUSH_TIMEOUT, TimeUnit.SECONDS)
+                    || !marker.done.await(FLUSH_TIMEOUT, TimeUnit.SECONDS)) {
+                log.warn("[chargeBoxId={}] The queued MeterValues were not written within {} seconds",
+                        chargeBoxId, FLUSH_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public MeterValuesWriterStats getStats() {
+        long batches = batchCount.sum();
+        long batched = batchedCount.sum();
+
+        return MeterValuesWriterStats.builder()
+                                     .enabled(isEnabled())
+                                     .writerThreads(shards == null ? 0 : shards.length)
+                                     .queueCapacity(queueCapacity)
+                                     .queued(getQueued())
+                                     .lagMillis(getLagMillis())
+                                     .enqueued(enqueuedCount.sum())
+                                     .written(writtenCount.sum())
+                                     .writtenSynchronously(synchronousCount.sum())
+                                     .dropped(droppedCount.sum())
+                                     .batches(batches)
+                                     .avgBatchSize(batches == 0 ? 0 : batched / batches)
+                                     .maxBatchSize(maxBatchSize.get())
+                                     .flushAvgMicros(flushLatency.getAvgMicros())
+                                     .flushP99Micros(flushLatency.getPercentileMicros(99))
+                                     .flushMaxMicros(flushLatency.getMaxMicros())
+                                     .flushErrors(flushLatency.getErrorCount())
+                                     .build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private Shard getShard(String chargeBoxId) {
+        return shards[Math.floorMod(chargeBoxId.hashCode(), shards.length)];
+    }
+
+    private void enqueue(InsertMeterValuesParams params) {
+        Shard shard = getShard(params.getChargeBoxId());
+
+        boolean queued = false;
+        if (running) {
+            try {
+                queued = shard.queue.offer(new Entry(params, System.nanoTime(), null),
+                                           SteveConfiguration.Ocpp.METER_VALUES_ENQUEUE_TIMEOUT,
+                                           TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (queued) {
+            enqueuedCount.increment();
+        } else {
+            ocppServerRepository.insertMeterValues(Collections.singletonList(params));
+            synchronousCount.increment();
+            writtenCount.increment();
+        }
+    }
+
+    private int getQueued() {
+        int queued = 0;
+        if (shards != null) {
+            for (Shard shard : shards) {
+                queued += shard.queue.size();
+            }
+        }
+        return queued;
+    }
+
+    private long getLagMillis() {
+        long oldest = 0;
+        if (shards != null) {
+            long now = System.nanoTime();
+            for (Shard shard : shards) {
+                Entry head = shard.queue.peek();
+                if (head != null) {
+                    oldest = Math.max(oldest, now - head.enqueuedAt);
+                }
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(oldest);
+    }
+
+    private void write(List<Entry> batch) {
+        List<InsertMeterValuesParams> list = new ArrayList<>(batch.size());
+        for (Entry e : batch) {
+            if (e.params != null) {
+                list.add(e.params);
+            }
+        }
+
+        try {
+            writeParams(list);
+        } finally {
+            // Every value queued before a marker is written (or given up on) at this point
+            for (Entry e : batch) {
+                if (e.done != null) {
+                    e.done.countDown();
+                }
+            }
+        }
+    }
+
+    private void writeParams(List<InsertMeterValuesParams> list) {
+        if (list.isEmpty()) {
+            return;
+        }
+
+        batchCount.increment();
+        batchedCount.add(list.size());
+        maxBatchSize.accumulate(list.size());
+
+        long start = System.nanoTime();
+        try {
+            ocppServerRepository.insertMeterValues(list);
+            flushLatency.record(System.nanoTime() - start);
+            writtenCount.add(list.size());
+
+        } catch (Exception e) {
+            flushLatency.recordError();
+            log.warn("Writing a batch of {} MeterValues requests failed. Writing them one by one", list.size(), e);
+
+            for (InsertMeterValuesParams params : list) {
+                try {
+                    ocppServerRepository.insertMeterValues(Collections.singletonList(params));
+                    writtenCount.increment();
+                } catch (Exception ex) {
+                    droppedCount.increment();
+                    log.error("[chargeBoxId={}] Could not write the MeterValues, they are lost: {}",
+                            params.getChargeBoxId(), params, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Either the params of a request, or a marker of flush (params is null, done is not)
+     */
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final InsertMeterValuesParams params;
+        private final long enqueuedAt;
+        private final CountDownLatch done;
+    }
+
+    @RequiredArgsConstructor
+    private final class Shard implements Runnable {
+        private final BlockingQueue<Entry> queue;
+        private Thread thread;
+
+        @Override
+        public void run() {
+            int batchSize = Math.max(1, SteveConfiguration.Ocpp.METER_VALUES_BATCH_SIZE);
+            List<Entry> batch = new ArrayList<>(batchSize);
+
+            while (running || !queue.isEmpty()) {
+                try {
+                    Entry first = queue.poll(POLL_TIMEOUT, TimeUnit.SECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+
+                } catch (InterruptedException e) {
+                    log.warn("Writer interrupted, {} MeterValues requests are left in the queue", queue.size());
+                    return;
+
+                } catch (Exception e) {
+                    // Do not let the exception stop the writer
+                    log.error("Exception occurred", e);
+
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package de.rwth.idsg.steve.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A timer for a large number of short-lived timeouts that are mostly cancelled before they expire
+ * (e.g. deadlines of requests), with the idea of George Varghese and Tony Lauck's "hashed timing wheel".
+ *
+ * Adding and cancelling a timeout is O(1) and does not touch a shared priority queue. The price is the
+ * precision: A timeout expires at the earliest on the first tick after its deadline.
+ *
+ * One worker thread advances the wheel. The tasks of expired timeouts run on this thread, so they must
+ * be short and should hand over longer work to an executor.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public class HashedWheelTimer {
+
+    private final String name;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final Thread workerThread;
+    private volatile boolean running = true;
+    private volatile long startTime;
+
+    /**
+     * @param ticksPerWheel Is rounded up to the next power of two
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+
+        int size = Integer.highestOneBit(Math.max(ticksPerWheel, 1) - 1) << 1;
+        size = Math.max(size, 1);
+
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+
+        this.workerThread = new Thread(this::work, name);
+        this.workerThread.setDaemon(true);
+        this.startTime = System.nanoTime();
+        this.workerThread.start();
+    }
+
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(delay) - startTime;
+
+        Timeout timeout = new Timeout(task, deadline);
+        newTimeouts.add(timeout);
+        pendingCount.incrementAndGet();
+        return timeout;
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public void stop() {
+        running = false;
+        workerThread.interrupt();
+        try {
+            workerThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            log.warn("[{}] Interrupted while waiting for the worker to stop", name);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Worker
+    // -------------------------------------------------------------------------
+
+    private void work() {
+        long tick = 0;
+        while (running) {
+            long deadline = waitForNextTick(tick);
+            if (!running) {
+                break;
+            }
+
+            processCancelled();
+            transferNew(tick);
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * @return the deadline of the tick relative to startTime
+     */
+    private long waitForNextTick(long tick) {
+        long deadline = tickNanos * (tick + 1);
+        while (running) {
+            long sleepNanos = deadline - (System.nanoTime() - startTime);
+            if (sleepNanos <= 0) {
+                break;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+        }
+        return deadline;
+    }
+
+    private void transferNew(long tick) {
+        Timeout timeout;
+        while ((timeout = newTimeouts.poll()) != null) {
+            if (timeout.state.get() == Timeout.ST_CANCELLED) {
+                continue;
+            }
+
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+
+            // Deadlines in the past are expired with the current tick
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Timeout and Bucket
+    // -------------------------------------------------------------------------
+
+    public final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // Only accessed by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev, next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return false, if the timeout is already expired or cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            pendingCount.decrementAndGet();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            pendingCount.decrementAndGet();
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.error("[{}] Task of an expired timeout threw an exception", name, t);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list, only accessed by the worker thread
+     */
+    private static final class Bucket {
+        private Timeout head, tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
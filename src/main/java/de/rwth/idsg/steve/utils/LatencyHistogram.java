@@ -0,0 +1,90 @@
+package de.rwth.idsg.steve.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with fixed, logarithmic buckets in microseconds: Bucket i counts the values in
+ * [2^(i-1), 2^i) us, the last one everything above. Recording is one index calculation and a few
+ * LongAdder increments, i.e. no locking and no allocation, and is cheap enough for every request.
+ *
+ * The percentiles are approximations, since they return the upper bound of the matching bucket.
+ *
+ * @since 18.10.2026
+ */
+public class LatencyHistogram {
+
+    // The last bucket starts at 2^25 us, which is about 33 seconds
+    private static final int BUCKET_COUNT = 27;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long durationNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(durationNanos);
+        int index = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+
+        buckets[index].increment();
+        count.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulate(micros);
+    }
+
+    public void recordError() {
+        errorCount.increment();
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public long getAvgMicros() {
+        long c = count.sum();
+        return c == 0 ? 0 : sumMicros.sum() / c;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * @param percentile in (0, 100]
+     * @return the upper bound of the bucket, in which the percentile falls
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return getMaxMicros();
+    }
+}
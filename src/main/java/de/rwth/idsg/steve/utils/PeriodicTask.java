@@ -0,0 +1,33 @@
+package de.rwth.idsg.steve.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A periodic task of ScheduledExecutorService is not executed again, once it throws an exception. The tasks
+ * scheduled with this class log the exception instead, keep their current state, and run again with the next period.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public final class PeriodicTask {
+    private PeriodicTask() { }
+
+    /**
+     * @param name  what the task does, for the log (e.g. "Reloading the connector cache")
+     * @param delay the initial delay and the delay between the executions
+     */
+    public static ScheduledFuture<?> schedule(ScheduledExecutorService executor, String name, Runnable task,
+                                              long delay, TimeUnit unit) {
+        return executor.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("{} failed", name, e);
+            }
+        }, delay, delay, unit);
+    }
+}
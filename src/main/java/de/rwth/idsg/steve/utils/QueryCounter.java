@@ -0,0 +1,27 @@
+package de.rwth.idsg.steve.utils;
+
+import org.jooq.ExecuteContext;
+import org.jooq.impl.DefaultExecuteListener;
+
+/**
+ * Counts the SQL statements executed by jOOQ per thread, so that the statements of a unit of work (e.g. an
+ * incoming OCPP message) can be measured: Take current() before and after, and the difference is the number
+ * of statements in between. A batch counts as one statement, since it is one round trip.
+ *
+ * @since 18.10.2026
+ */
+public class QueryCounter extends DefaultExecuteListener {
+
+    private static final long serialVersionUID = 8307524812440283712L;
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void executeStart(ExecuteContext ctx) {
+        COUNT.get()[0]++;
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
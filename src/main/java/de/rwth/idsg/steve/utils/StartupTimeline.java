@@ -0,0 +1,93 @@
+package de.rwth.idsg.steve.utils;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records how long the phases of the startup (and the creation of the Spring beans) take, and logs them as
+ * a timeline once the server accepts connections. The times are relative to the start of the JVM, so that
+ * the report also shows what happened before main(). The thread is included to show what ran in parallel.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public final class StartupTimeline {
+    private StartupTimeline() { }
+
+    private static final long PROCESS_START = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    // The beans are too many to list all of them
+    private static final int SLOWEST_BEAN_COUNT = 20;
+
+    // Key = phase name, value = start in millis since epoch
+    private static final ConcurrentHashMap<String, Long> RUNNING = new ConcurrentHashMap<>();
+
+    private static final List<Entry> PHASES = new CopyOnWriteArrayList<>();
+    private static final List<Entry> BEANS = new CopyOnWriteArrayList<>();
+
+    private static volatile boolean reported = false;
+
+    public static void start(String phase) {
+        RUNNING.put(phase, System.currentTimeMillis());
+    }
+
+    public static void end(String phase) {
+        Long start = RUNNING.remove(phase);
+        if (start != null) {
+            PHASES.add(new Entry(phase, Thread.currentThread().getName(), start, System.currentTimeMillis()));
+        }
+    }
+
+    public static void bean(String beanName, long startMillis) {
+        if (!reported) {
+            BEANS.add(new Entry(beanName, Thread.currentThread().getName(), startMillis, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Logs the timeline. Only once, the beans that are created later (e.g. lazy ones) are not of interest.
+     */
+    public static void report() {
+        if (reported) {
+            return;
+        }
+        reported = true;
+
+        String sep = System.lineSeparator();
+        StringBuilder sb = new StringBuilder("Startup timeline (in ms since the start of the JVM):").append(sep);
+
+        List<Entry> phases = new ArrayList<>(PHASES);
+        phases.sort(Comparator.comparingLong(e -> e.start));
+        for (Entry e : phases) {
+            sb.append(String.format("  %6d - %6d (%5d) %s [%s]", e.start - PROCESS_START, e.end - PROCESS_START,
+                                    e.end - e.start, e.name, e.thread))
+              .append(sep);
+        }
+
+        List<Entry> beans = new ArrayList<>(BEANS);
+        beans.sort(Comparator.comparingLong((Entry e) -> e.end - e.start).reversed());
+        sb.append("Slowest beans (in ms, including the creation of their dependencies):").append(sep);
+        for (Entry e : beans.subList(0, Math.min(SLOWEST_BEAN_COUNT, beans.size()))) {
+            sb.append(String.format("  %5d %s [%s]", e.end - e.start, e.name, e.thread)).append(sep);
+        }
+
+        sb.append(String.format("Accepting connections %d ms after the start of the JVM",
+                                System.currentTimeMillis() - PROCESS_START));
+        log.info(sb.toString());
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final String name;
+        private final String thread;
+        private final long start;
+        private final long end;
+    }
+}
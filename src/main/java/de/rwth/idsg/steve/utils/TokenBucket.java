@@ -0,0 +1,53 @@
+package de.rwth.idsg.steve.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket, which is refilled with the given rate up to the burst size. It is implemented as
+ * "generic cell rate algorithm": Instead of the number of tokens, only the time at which the bucket
+ * would be full again is stored. This way, there is no refill task, and acquiring is one CAS.
+ *
+ * @since 18.10.2026
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    // Theoretical arrival time. The bucket is full, if it is not in the future
+    private final AtomicLong tat;
+
+    /**
+     * @param rate  Tokens per second
+     * @param burst Max number of tokens
+     */
+    public TokenBucket(double rate, int burst) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        this.burstNanos = intervalNanos * Math.max(burst, 1);
+        this.tat = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @return 0, if a token is acquired. Otherwise, the nanoseconds until a token will be available
+     */
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public boolean isFull() {
+        return tat.get() - System.nanoTime() <= 0;
+    }
+}
@@ -2,9 +2,12 @@ package de.rwth.idsg.steve.web.controller;
 
 import de.rwth.idsg.steve.repository.ChargePointRepository;
 import de.rwth.idsg.steve.repository.dto.ChargePoint;
+import de.rwth.idsg.steve.service.HeartbeatTracker;
 import de.rwth.idsg.steve.utils.ControllerHelper;
+import de.rwth.idsg.steve.utils.DateTimeUtils;
 import de.rwth.idsg.steve.web.dto.ChargeBoxForm;
 import de.rwth.idsg.steve.web.dto.ChargePointQueryForm;
+import org.joda.time.DateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,6 +18,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import javax.validation.Valid;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  *
@@ -26,6 +31,7 @@ import javax.validation.Valid;
 public class ChargePointsController {
 
     @Autowired private ChargePointRepository chargePointRepository;
+    @Autowired private HeartbeatTracker heartbeatTracker;
 
     private static final String PARAMS = "params";
 
@@ -58,13 +64,41 @@ public class ChargePointsController {
 
     private void initList(Model model, ChargePointQueryForm params) {
         model.addAttribute(PARAMS, params);
-        model.addAttribute("cpList", chargePointRepository.getOverview(params));
+        model.addAttribute("cpList", withPendingHeartbeats(chargePointRepository.getOverview(params)));
+    }
+
+    /**
+     * The heartbeats are written to DB with a delay. Show the newer ones from memory instead. The filter of the
+     * heartbeat period is applied by DB, and might lag behind by the flush interval.
+     */
+    private List<ChargePoint.Overview> withPendingHeartbeats(List<ChargePoint.Overview> list) {
+        List<ChargePoint.Overview> result = new ArrayList<>(list.size());
+        for (ChargePoint.Overview cp : list) {
+            DateTime pending = heartbeatTracker.getPending(cp.getChargeBoxId());
+            if (pending == null) {
+                result.add(cp);
+            } else {
+                result.add(ChargePoint.Overview.builder()
+                                               .chargeBoxId(cp.getChargeBoxId())
+                                               .description(cp.getDescription())
+                                               .ocppProtocol(cp.getOcppProtocol())
+                                               .lastHeartbeatTimestamp(DateTimeUtils.humanize(pending))
+                                               .build());
+            }
+        }
+        return result;
     }
 
     @RequestMapping(value = DETAILS_PATH, method = RequestMethod.GET)
     public String getDetails(@PathVariable("chargeBoxId") String chargeBoxId, Model model) {
         ChargePoint.Details cp = chargePointRepository.getDetails(chargeBoxId);
 
+        // The record is detached. Show the heartbeat, that is not written to DB yet
+        DateTime pending = heartbeatTracker.getPending(chargeBoxId);
+        if (pending != null) {
+            cp.getChargeBox().setLastHeartbeatTimestamp(pending);
+        }
+
         ChargeBoxForm form = new ChargeBoxForm();
         form.setChargeBoxId(cp.getChargeBox().getChargeBoxId());
         form.setNote(cp.getChargeBox().getNote());
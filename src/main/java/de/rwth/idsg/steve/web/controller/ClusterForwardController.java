@@ -0,0 +1,129 @@
+package de.rwth.idsg.steve.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.RequestType;
+import de.rwth.idsg.steve.ocpp.ws.AbstractChargePointServiceInvoker;
+import de.rwth.idsg.steve.ocpp.ws.TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.cluster.ClusterForwarder;
+import de.rwth.idsg.steve.ocpp.ws.cluster.ClusterSessionDirectory;
+import de.rwth.idsg.steve.ocpp.ws.cluster.ForwardedCall;
+import de.rwth.idsg.steve.ocpp.ws.cluster.ForwardedResponse;
+import de.rwth.idsg.steve.ocpp.ws.cluster.ForwardedResponseHandler;
+import de.rwth.idsg.steve.ocpp.ws.ocpp12.ChargePointService12_WsInvoker;
+import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.ocpp15.ChargePointService15_WsInvoker;
+import de.rwth.idsg.steve.ocpp.ws.ocpp15.Ocpp15TypeStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Receives the calls forwarded by the other nodes of the cluster, sends them to the charge points
+ * connected to this node, and responds with the outcome.
+ *
+ * Not under /manager, since the nodes authenticate with the shared secret instead of a login.
+ *
+ * The response is sent asynchronously, when the charge point responds. Meanwhile, no thread is blocked.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+@Controller
+@RequestMapping(value = ClusterForwarder.FORWARD_PATH, method = RequestMethod.POST)
+public class ClusterForwardController {
+
+    @Autowired private ClusterSessionDirectory directory;
+    @Autowired private ObjectMapper mapper;
+
+    @Autowired private Ocpp12TypeStore ocpp12TypeStore;
+    @Autowired private Ocpp15TypeStore ocpp15TypeStore;
+    @Autowired private ChargePointService12_WsInvoker ocpp12Invoker;
+    @Autowired private ChargePointService15_WsInvoker ocpp15Invoker;
+
+    @ResponseBody
+    @RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public DeferredResult<ForwardedResponse> forward(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        if (!directory.isEnabled()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return null;
+        }
+
+        if (!isAuthorized(request.getHeader(ClusterForwarder.SECRET_HEADER))) {
+            log.warn("Rejected a forwarded call from {} with a wrong secret", request.getRemoteAddr());
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+
+        ForwardedCall call = mapper.readValue(request.getInputStream(), ForwardedCall.class);
+        return process(call);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private Helpers
+    // -------------------------------------------------------------------------
+
+    private DeferredResult<ForwardedResponse> process(ForwardedCall call) throws IOException {
+        TypeStore typeStore;
+        AbstractChargePointServiceInvoker invoker;
+
+        switch (OcppVersion.fromValue(call.getVersion())) {
+            case V_12:
+                typeStore = ocpp12TypeStore;
+                invoker = ocpp12Invoker;
+                break;
+
+            case V_15:
+                typeStore = ocpp15TypeStore;
+                invoker = ocpp15Invoker;
+                break;
+
+            default:
+                return completed(ForwardedResponse.ofException("Unknown OCPP version " + call.getVersion()));
+        }
+
+        // Only the outgoing actions of the version are accepted, and no arbitrary classes
+        Class<? extends RequestType> clazz = typeStore.findOutgoingRequestClass(call.getAction());
+        if (clazz == null) {
+            return completed(ForwardedResponse.ofException("Action '" + call.getAction() + "' is not found"));
+        }
+
+        RequestType ocppRequest = mapper.treeToValue(call.getPayload(), clazz);
+
+        // Local only. Even if this node has no session (anymore), the call must not bounce between the nodes.
+        ForwardedResponseHandler handler = new ForwardedResponseHandler(mapper);
+        DeferredResult<ForwardedResponse> result = handler.toDeferredResult();
+        invoker.runLocalPipeline(call.getChargeBoxId(), ocppRequest, handler);
+        return result;
+    }
+
+    private static DeferredResult<ForwardedResponse> completed(ForwardedResponse response) {
+        DeferredResult<ForwardedResponse> result = new DeferredResult<>();
+        result.setResult(response);
+        return result;
+    }
+
+    private static boolean isAuthorized(String secret) {
+        if (secret == null) {
+            return false;
+        }
+
+        // Constant time, not to leak the secret
+        return MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                                     SteveConfiguration.Cluster.SECRET.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,88 @@
+package de.rwth.idsg.steve.web.controller;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.ocpp.ws.FrameTracer;
+import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12WebSocketEndpoint;
+import de.rwth.idsg.steve.ocpp.ws.ocpp15.Ocpp15WebSocketEndpoint;
+import de.rwth.idsg.steve.repository.ChargePointRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+/**
+ * In-memory traces of the WebSocket frames of JSON charge points.
+ *
+ * The chargeBoxId is passed as request parameter (and not as path variable), so that the links and form actions
+ * can be built with c:url/c:param, which encode it.
+ *
+ * @since 18.10.2026
+ */
+@Controller
+@RequestMapping(value = "/manager/frameTrace")
+public class FrameTraceController {
+
+    @Autowired private FrameTracer frameTracer;
+    @Autowired private ChargePointRepository chargePointRepository;
+    @Autowired private Ocpp12WebSocketEndpoint ocpp12WebSocketEndpoint;
+    @Autowired private Ocpp15WebSocketEndpoint ocpp15WebSocketEndpoint;
+
+    // -------------------------------------------------------------------------
+    // Paths
+    // -------------------------------------------------------------------------
+
+    private static final String DETAILS_PATH = "/details";
+    private static final String ENABLE_PATH = "/enable";
+    private static final String DISABLE_PATH = "/disable";
+
+    private static final String CHARGE_BOX_ID = "chargeBoxId";
+
+    // -------------------------------------------------------------------------
+    // HTTP methods
+    // -------------------------------------------------------------------------
+
+    @RequestMapping(method = RequestMethod.GET)
+    public String getOverview(Model model) {
+        model.addAttribute("chargeBoxIdList", frameTracer.getEnabledChargeBoxIds());
+        return "frameTraces";
+    }
+
+    @RequestMapping(value = DETAILS_PATH, method = RequestMethod.GET)
+    public String getDetails(@RequestParam(CHARGE_BOX_ID) String chargeBoxId, Model model) {
+        model.addAttribute(CHARGE_BOX_ID, chargeBoxId);
+        model.addAttribute("enabled", frameTracer.isEnabled(chargeBoxId));
+        model.addAttribute("frameList", frameTracer.getFrames(chargeBoxId));
+        return "frameTrace";
+    }
+
+    @RequestMapping(value = ENABLE_PATH, method = RequestMethod.POST)
+    public String enable(@RequestParam(CHARGE_BOX_ID) String chargeBoxId, RedirectAttributes attributes) {
+        // Otherwise, every request with a new id would add a trace buffer
+        if (!isKnown(chargeBoxId)) {
+            throw new SteveException("The charge point '%s' is neither registered nor connected", chargeBoxId);
+        }
+        frameTracer.enable(chargeBoxId);
+        return toDetails(chargeBoxId, attributes);
+    }
+
+    @RequestMapping(value = DISABLE_PATH, method = RequestMethod.POST)
+    public String disable(@RequestParam(CHARGE_BOX_ID) String chargeBoxId, RedirectAttributes attributes) {
+        frameTracer.disable(chargeBoxId);
+        return toDetails(chargeBoxId, attributes);
+    }
+
+    private boolean isKnown(String chargeBoxId) {
+        return chargePointRepository.isRegistered(chargeBoxId)
+                || ocpp12WebSocketEndpoint.hasSession(chargeBoxId)
+                || ocpp15WebSocketEndpoint.hasSession(chargeBoxId);
+    }
+
+    private String toDetails(String chargeBoxId, RedirectAttributes attributes) {
+        // Added to the redirect URL as encoded query parameter
+        attributes.addAttribute(CHARGE_BOX_ID, chargeBoxId);
+        return "redirect:/manager/frameTrace" + DETAILS_PATH;
+    }
+}
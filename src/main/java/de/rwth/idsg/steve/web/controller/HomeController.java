@@ -1,12 +1,23 @@
 package de.rwth.idsg.steve.web.controller;
 
+import de.rwth.idsg.steve.ocpp.AdmissionControl;
+import de.rwth.idsg.steve.ocpp.CentralSystemService12_Dispatcher;
+import de.rwth.idsg.steve.ocpp.CentralSystemService15_Dispatcher;
 import de.rwth.idsg.steve.repository.ChargePointRepository;
 import de.rwth.idsg.steve.service.ChargePointHelperService;
+import de.rwth.idsg.steve.service.MeterValuesWriter;
+import de.rwth.idsg.steve.web.dto.MemoryFootprint;
+import de.rwth.idsg.steve.web.dto.OcppActionStats;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  *
@@ -19,6 +30,10 @@ public class HomeController {
 
     @Autowired private ChargePointRepository chargePointRepository;
     @Autowired private ChargePointHelperService chargePointHelperService;
+    @Autowired private CentralSystemService12_Dispatcher dispatcher12;
+    @Autowired private CentralSystemService15_Dispatcher dispatcher15;
+    @Autowired private AdmissionControl admissionControl;
+    @Autowired private MeterValuesWriter meterValuesWriter;
 
     // -------------------------------------------------------------------------
     // Paths
@@ -26,6 +41,8 @@ public class HomeController {
 
     private static final String CONNECTOR_STATUS_PATH = "/connectorStatus";
     private static final String OCPP_JSON_STATUS = "/ocppJsonStatus";
+    private static final String OCPP_ACTION_STATS = "/ocppActionStats";
+    private static final String MEMORY_FOOTPRINT = "/memoryFootprint";
 
     // -------------------------------------------------------------------------
     // HTTP methods
@@ -46,6 +63,27 @@ public class HomeController {
     @RequestMapping(value = OCPP_JSON_STATUS)
     public String getOcppJsonStatus(Model model) {
         model.addAttribute("ocppJsonStatusList", chargePointHelperService.getOcppJsonStatus());
+        model.addAttribute("mailboxStats", chargePointHelperService.getMailboxStats());
+        model.addAttribute("admissionStats", admissionControl.getStats());
+        model.addAttribute("meterValuesStats", meterValuesWriter.getStats());
         return "ocppJsonStatus";
     }
+
+    @RequestMapping(value = OCPP_ACTION_STATS)
+    public String getOcppActionStats(Model model) {
+        List<OcppActionStats> list = new ArrayList<>(dispatcher12.getStats());
+        list.addAll(dispatcher15.getStats());
+
+        model.addAttribute("actionStatsList", list);
+        return "ocppActionStats";
+    }
+
+    /**
+     * For MemoryFootprintHarness. Only reads, the garbage collector is not triggered.
+     */
+    @ResponseBody
+    @RequestMapping(value = MEMORY_FOOTPRINT, produces = MediaType.APPLICATION_JSON_VALUE)
+    public MemoryFootprint getMemoryFootprint() {
+        return chargePointHelperService.getMemoryFootprint();
+    }
 }
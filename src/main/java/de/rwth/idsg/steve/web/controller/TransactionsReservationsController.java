@@ -69,13 +69,15 @@ public class TransactionsReservationsController {
             return "data-man/transactions";
         }
 
-        if (params.isReturnCSV()) {
-            String fileName = "transactions.csv";
+        if (params.getExportType() != TransactionQueryForm.ExportType.NONE) {
+            boolean csv = params.getExportType() == TransactionQueryForm.ExportType.CSV;
+            String fileName = csv ? "transactions.csv" : "transactions.ndjson";
             String headerKey = "Content-Disposition";
             String headerValue = String.format("attachment; filename=\"%s\"", fileName);
-            response.setContentType("text/csv");
+            response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+            response.setCharacterEncoding("UTF-8");
             response.setHeader(headerKey, headerValue);
-            transactionRepository.writeTransactionsCSV(params, response.getWriter());
+            transactionRepository.writeTransactions(params, response.getWriter());
             return null;
 
         } else {
@@ -0,0 +1,21 @@
+package de.rwth.idsg.steve.web.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class AdmissionStats {
+
+    // WebSocket handshakes. Deferred ones are answered with 503
+    private final boolean handshakeLimited, perIpLimited;
+    private final int trackedIps;
+    private final long handshakesAccepted, handshakesDeferred;
+
+    // BootNotifications. Deferred ones are answered with status Rejected
+    private final int bootConcurrency, bootsActive;
+    private final long bootsAccepted, bootsDeferred;
+}
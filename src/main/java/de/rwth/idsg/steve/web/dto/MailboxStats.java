@@ -0,0 +1,23 @@
+package de.rwth.idsg.steve.web.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class MailboxStats {
+    private final boolean enabled;
+    private final int workerThreads, activeWorkers;
+
+    // Number of mailboxes, sum and max of pending messages over all mailboxes
+    private final int mailboxes, totalDepth, maxDepth;
+
+    // Time between the arrival of a message and the start of its processing
+    private final long processed, avgWaitMicros, maxWaitMicros;
+
+    // Messages refused, because the mailbox of the chargebox was full
+    private final long rejected;
+}
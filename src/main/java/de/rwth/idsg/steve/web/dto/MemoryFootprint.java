@@ -0,0 +1,21 @@
+package de.rwth.idsg.steve.web.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Heap usage of the server together with the number of WebSocket connections, so that the cost of
+ * a connection can be calculated from two measurements (see MemoryFootprintHarness)
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class MemoryFootprint {
+    private final long heapUsedBytes;
+
+    // As of the last collection of every heap pool
+    private final long heapAfterGcBytes;
+    private final int connections;
+    private final boolean compactMode;
+}
@@ -0,0 +1,27 @@
+package de.rwth.idsg.steve.web.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class MeterValuesWriterStats {
+    private final boolean enabled;
+    private final int writerThreads, queueCapacity;
+
+    // Requests in the queue, and how long the oldest of them waits
+    private final int queued;
+    private final long lagMillis;
+
+    // Synchronous ones did not fit into the queue. Dropped ones could not be written
+    private final long enqueued, written, writtenSynchronously, dropped;
+
+    // Requests per DB transaction
+    private final long batches, avgBatchSize, maxBatchSize;
+
+    // Duration of a DB transaction
+    private final long flushAvgMicros, flushP99Micros, flushMaxMicros, flushErrors;
+}
@@ -0,0 +1,24 @@
+package de.rwth.idsg.steve.web.dto;
+
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Processing statistics of an incoming OCPP action, over all transports
+ *
+ * @since 18.10.2026
+ */
+@Getter
+@Builder
+public final class OcppActionStats {
+    private final OcppVersion version;
+    private final String action;
+    private final long count, errorCount;
+
+    // Processing time in the service
+    private final long avgMicros, p50Micros, p99Micros, maxMicros;
+
+    // SQL statements per request, within the processing
+    private final double avgQueries;
+}
@@ -14,4 +14,16 @@ public final class OcppJsonStatus {
     private final String chargeBoxId, connectedSince;
     private final String connectionDuration;
     private final OcppVersion version;
+
+    // Number of incoming messages of the chargebox waiting to be processed
+    private final int mailboxDepth;
+
+    // Outbound queue of the session: current/max number of queued messages, dropped messages,
+    // and the time between enqueueing a message and the completion of its send
+    private final int outboundDepth, outboundMaxDepth;
+    private final long outboundDropped, sendLatencyAvgMillis, sendLatencyMaxMillis;
+
+    // permessage-deflate: compressed size in percent of the raw size, and the CPU time spent for it
+    private final boolean compressed;
+    private final long compressionRatioPercent, compressionSavedBytes, compressionCpuMillis;
 }
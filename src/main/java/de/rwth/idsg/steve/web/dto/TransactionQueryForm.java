@@ -15,7 +15,11 @@ import javax.validation.constraints.NotNull;
 @Setter
 public class TransactionQueryForm extends QueryForm {
 
-    private boolean returnCSV;
+    @NotNull(message = "Export type is required")
+    private ExportType exportType;
+
+    // Only for an export
+    private boolean includeMeterValues;
 
     @NotNull(message = "Query type is required")
     private QueryType type;
@@ -26,7 +30,8 @@ public class TransactionQueryForm extends QueryForm {
      * Init with sensible default values
      */
     public TransactionQueryForm() {
-        returnCSV = false;
+        exportType = ExportType.NONE;
+        includeMeterValues = false;
         periodType = QueryPeriodType.ALL;
         type = QueryType.ACTIVE;
     }
@@ -57,6 +62,24 @@ public class TransactionQueryForm extends QueryForm {
         }
     }
 
+    @RequiredArgsConstructor
+    public enum ExportType {
+        NONE("None"),
+        CSV("CSV"),
+        NDJSON("NDJSON");
+
+        @Getter private final String value;
+
+        public static ExportType fromValue(String v) {
+            for (ExportType c: ExportType.values()) {
+                if (c.value.equals(v)) {
+                    return c;
+                }
+            }
+            throw new IllegalArgumentException(v);
+        }
+    }
+
     @RequiredArgsConstructor
     public enum QueryPeriodType {
         ALL("All", -1),
@@ -12,6 +12,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Contains information about asynchronous request tasks (OCPP requests and responses/errors)
@@ -36,6 +37,14 @@ public class RequestTask {
     private AtomicInteger errorCount = new AtomicInteger(0);
     private AtomicInteger responseCount = new AtomicInteger(0);
 
+    // Progress of sending the requests to the charge points
+    private final AtomicInteger dispatchedCount = new AtomicInteger(0);
+    private volatile DateTime dispatchEndTimestamp;
+
+    // Is notified with the chargeBoxId, after its response/error is added
+    @Getter(AccessLevel.NONE)
+    private volatile Consumer<String> resultListener;
+
     @Getter(AccessLevel.NONE) // disable getter generation
     private final Object lockObject = new Object();
 
@@ -67,6 +76,25 @@ public class RequestTask {
         }
     }
 
+    public void setResultListener(Consumer<String> resultListener) {
+        this.resultListener = resultListener;
+    }
+
+    public void markDispatched() {
+        if (dispatchedCount.incrementAndGet() == resultSize) {
+            dispatchEndTimestamp = DateTime.now();
+        }
+    }
+
+    /**
+     * @return the number of charge points, to which the request is sent per second
+     */
+    public long getDispatchRate() {
+        DateTime end = dispatchEndTimestamp == null ? DateTime.now() : dispatchEndTimestamp;
+        long millis = Math.max(1, end.getMillis() - startTimestamp.getMillis());
+        return dispatchedCount.get() * 1000L / millis;
+    }
+
     public void addNewResponse(String chargeBoxId, String response) {
         resultMap.get(chargeBoxId).setResponse(response);
 
@@ -75,6 +103,7 @@ public class RequestTask {
                 endTimestamp = DateTime.now();
             }
         }
+        notifyListener(chargeBoxId);
     }
 
     public void addNewError(String chargeBoxId, Exception exception) {
@@ -85,5 +114,13 @@ public class RequestTask {
                 endTimestamp = DateTime.now();
             }
         }
+        notifyListener(chargeBoxId);
+    }
+
+    private void notifyListener(String chargeBoxId) {
+        Consumer<String> listener = resultListener;
+        if (listener != null) {
+            listener.accept(chargeBoxId);
+        }
     }
 }
@@ -0,0 +1,15 @@
+--
+-- Shared session directory for the cluster mode: Which node holds the WebSocket session of a charge point.
+-- A row is only valid until its lease expires, and is renewed periodically by the owning node.
+--
+
+CREATE TABLE ws_session_directory (
+  charge_box_id VARCHAR(255) NOT NULL,
+  node_address VARCHAR(255) NOT NULL,
+  ocpp_version VARCHAR(10) NOT NULL,
+  lease_expiry TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (charge_box_id),
+  INDEX ws_session_directory_node_idx (node_address),
+  CONSTRAINT FK_ws_session_directory_charge_box_cbid
+  FOREIGN KEY (charge_box_id) REFERENCES charge_box (charge_box_id) ON DELETE CASCADE ON UPDATE NO ACTION
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
@@ -0,0 +1,87 @@
+--
+-- The current status of every connector, i.e. the latest entry of connector_status per connector. It is
+-- maintained together with every new status, so that the current statuses do not require a scan of the
+-- whole history.
+--
+
+CREATE TABLE connector_status_current (
+  connector_pk INT(11) UNSIGNED NOT NULL,
+  status_timestamp TIMESTAMP(6) NULL DEFAULT NULL,
+  status VARCHAR(255) NULL DEFAULT NULL,
+  error_code VARCHAR(255) NULL DEFAULT NULL,
+  error_info VARCHAR(255) NULL DEFAULT NULL,
+  vendor_id VARCHAR(255) NULL DEFAULT NULL,
+  vendor_error_code VARCHAR(255) NULL DEFAULT NULL,
+  PRIMARY KEY (connector_pk),
+  CONSTRAINT FK_connector_status_current_cpk
+  FOREIGN KEY (connector_pk) REFERENCES connector (connector_pk) ON DELETE CASCADE ON UPDATE NO ACTION
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+--
+-- Initial content from the history. IGNORE, since a connector can have several entries with the latest timestamp
+--
+
+INSERT IGNORE INTO connector_status_current
+  (connector_pk, status_timestamp, status, error_code, error_info, vendor_id, vendor_error_code)
+SELECT cs.connector_pk, cs.status_timestamp, cs.status, cs.error_code, cs.error_info, cs.vendor_id, cs.vendor_error_code
+FROM connector_status cs
+  INNER JOIN (SELECT connector_pk, MAX(status_timestamp) AS Max FROM connector_status GROUP BY connector_pk)
+    AS t1 ON cs.connector_pk = t1.connector_pk AND cs.status_timestamp = t1.Max;
+
+--
+-- update the procedure: the connector counts from the current statuses
+--
+
+DROP PROCEDURE IF EXISTS `get_stats`;
+
+DELIMITER ;;
+CREATE PROCEDURE `get_stats`(
+  OUT num_charge_boxes INT,
+  OUT num_ocpp_tags INT,
+  OUT num_users INT,
+  OUT num_reservations INT,
+  OUT num_transactions INT,
+  OUT heartbeats_today INT,
+  OUT heartbeats_yesterday INT,
+  OUT heartbeats_earlier INT,
+  OUT connectors_available INT,
+  OUT connectors_occupied INT,
+  OUT connectors_faulted INT,
+  OUT connectors_unavailable INT)
+  BEGIN
+    -- we can compute these once, and reuse the instances in the following queries,
+    -- instead of calculating them every time
+    --
+    DECLARE today DATE DEFAULT CURRENT_DATE();
+    DECLARE yesterday DATE DEFAULT DATE_SUB(today, INTERVAL 1 DAY);
+
+    -- # of chargeboxes
+    SELECT COUNT(charge_box_id) INTO num_charge_boxes FROM charge_box;
+    -- # of ocpp tags
+    SELECT COUNT(ocpp_tag_pk) INTO num_ocpp_tags FROM ocpp_tag;
+    -- # of users
+    SELECT COUNT(user_pk) INTO num_users FROM `user`;
+    -- # of reservations
+    SELECT COUNT(reservation_pk) INTO num_reservations FROM reservation WHERE expiry_datetime > CURRENT_TIMESTAMP AND `status` = 'Accepted';
+    -- # of active transactions
+    SELECT COUNT(transaction_pk) INTO num_transactions FROM `transaction` WHERE stop_timestamp IS NULL;
+
+    -- # of today's heartbeats
+    SELECT COUNT(last_heartbeat_timestamp) INTO heartbeats_today FROM charge_box
+    WHERE DATE(last_heartbeat_timestamp) = today;
+    -- # of yesterday's heartbeats
+    SELECT COUNT(last_heartbeat_timestamp) INTO heartbeats_yesterday FROM charge_box
+    WHERE DATE(last_heartbeat_timestamp) = yesterday;
+    -- # of earlier heartbeats
+    SELECT COUNT(last_heartbeat_timestamp) INTO heartbeats_earlier FROM charge_box
+    WHERE DATE(last_heartbeat_timestamp) < yesterday;
+
+    -- # of current connector statuses, all in one pass
+    SELECT COUNT(IF(status = 'AVAILABLE', 1, NULL)),
+           COUNT(IF(status = 'OCCUPIED', 1, NULL)),
+           COUNT(IF(status = 'FAULTED', 1, NULL)),
+           COUNT(IF(status = 'UNAVAILABLE', 1, NULL))
+    INTO connectors_available, connectors_occupied, connectors_faulted, connectors_unavailable
+    FROM connector_status_current;
+  END ;;
+DELIMITER ;
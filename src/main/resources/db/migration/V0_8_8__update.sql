@@ -0,0 +1,165 @@
+--
+-- Compact storage for connector_meter_value, which is by far the largest table:
+--
+-- * The attributes of OCPP 1.5 (reading context, format, measurand, location, unit) are stored as codes of the
+--   lookup table meter_value_code. SMALLINT, since TINYINT columns are mapped to BOOLEAN by the jOOQ generator.
+-- * The timestamp is stored with milliseconds (6 instead of 7 bytes), which is the precision that SteVe writes
+--   (Joda DateTime). Fractions below one millisecond (only possible in rows written outside of SteVe) are rounded.
+-- * Decimal readings (up to 14 integer and 4 fractional digits) are stored in value_numeric. value_raw keeps the
+--   string only for SignedData, and for readings that do not fit into value_numeric.
+--
+-- The existing rows are converted into a new table in chunks of connectors, with a commit after each chunk,
+-- so that no single statement has to hold the whole table. The old table is only dropped, if the new one has
+-- the same number of rows. Otherwise, the migration fails and leaves the old table untouched. Before the next
+-- start, drop connector_meter_value_new, meter_value_code and the procedure, and remove the failed entry from the
+-- Flyway schema table.
+--
+
+CREATE TABLE meter_value_code (
+  code SMALLINT NOT NULL AUTO_INCREMENT,
+  attribute VARCHAR(20) NOT NULL,
+  value VARCHAR(255) COLLATE latin1_bin NOT NULL,
+  PRIMARY KEY (code),
+  UNIQUE KEY meter_value_code_attribute_value_uq (attribute, value)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+INSERT INTO meter_value_code (attribute, value) VALUES
+  ('READING_CONTEXT', 'Interruption.Begin'),
+  ('READING_CONTEXT', 'Interruption.End'),
+  ('READING_CONTEXT', 'Sample.Clock'),
+  ('READING_CONTEXT', 'Sample.Periodic'),
+  ('READING_CONTEXT', 'Transaction.Begin'),
+  ('READING_CONTEXT', 'Transaction.End'),
+  ('FORMAT', 'Raw'),
+  ('FORMAT', 'SignedData'),
+  ('MEASURAND', 'Energy.Active.Export.Register'),
+  ('MEASURAND', 'Energy.Active.Import.Register'),
+  ('MEASURAND', 'Energy.Reactive.Export.Register'),
+  ('MEASURAND', 'Energy.Reactive.Import.Register'),
+  ('MEASURAND', 'Energy.Active.Export.Interval'),
+  ('MEASURAND', 'Energy.Active.Import.Interval'),
+  ('MEASURAND', 'Energy.Reactive.Export.Interval'),
+  ('MEASURAND', 'Energy.Reactive.Import.Interval'),
+  ('MEASURAND', 'Power.Active.Export'),
+  ('MEASURAND', 'Power.Active.Import'),
+  ('MEASURAND', 'Power.Reactive.Export'),
+  ('MEASURAND', 'Power.Reactive.Import'),
+  ('MEASURAND', 'Current.Export'),
+  ('MEASURAND', 'Current.Import'),
+  ('MEASURAND', 'Voltage'),
+  ('MEASURAND', 'Temperature'),
+  ('LOCATION', 'Inlet'),
+  ('LOCATION', 'Outlet'),
+  ('LOCATION', 'Body'),
+  ('UNIT', 'Wh'),
+  ('UNIT', 'kWh'),
+  ('UNIT', 'varh'),
+  ('UNIT', 'kvarh'),
+  ('UNIT', 'W'),
+  ('UNIT', 'kW'),
+  ('UNIT', 'var'),
+  ('UNIT', 'kvar'),
+  ('UNIT', 'Amp'),
+  ('UNIT', 'Volt'),
+  ('UNIT', 'Celsius');
+
+CREATE TABLE connector_meter_value_new (
+  connector_pk INT(11) UNSIGNED NOT NULL,
+  transaction_pk INT(10) UNSIGNED DEFAULT NULL,
+  value_timestamp TIMESTAMP(3) NULL DEFAULT NULL,
+  value_numeric DECIMAL(18,4) DEFAULT NULL,
+  value_raw VARCHAR(255) DEFAULT NULL,
+  reading_context SMALLINT DEFAULT NULL,
+  format SMALLINT DEFAULT NULL,
+  measurand SMALLINT DEFAULT NULL,
+  location SMALLINT DEFAULT NULL,
+  unit SMALLINT DEFAULT NULL,
+  KEY connector_meter_value_connector_pk_idx (connector_pk),
+  KEY connector_meter_value_transaction_pk_idx (transaction_pk),
+  CONSTRAINT FK_connector_meter_value_connector_pk
+  FOREIGN KEY (connector_pk) REFERENCES connector (connector_pk) ON DELETE CASCADE ON UPDATE NO ACTION,
+  CONSTRAINT FK_connector_meter_value_transaction_pk
+  FOREIGN KEY (transaction_pk) REFERENCES `transaction` (transaction_pk) ON DELETE SET NULL ON UPDATE NO ACTION
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+DROP PROCEDURE IF EXISTS `migrate_connector_meter_value`;
+
+DELIMITER ;;
+CREATE PROCEDURE `migrate_connector_meter_value`()
+  BEGIN
+    DECLARE chunk_size INT UNSIGNED DEFAULT 100;
+    DECLARE chunk_start INT UNSIGNED DEFAULT 0;
+    DECLARE chunk_end INT UNSIGNED;
+    DECLARE max_pk INT UNSIGNED;
+    DECLARE old_count BIGINT UNSIGNED;
+    DECLARE new_count BIGINT UNSIGNED;
+    DECLARE message VARCHAR(128);
+
+    SELECT COALESCE(MAX(connector_pk), 0) INTO max_pk FROM connector_meter_value;
+
+    WHILE chunk_start <= max_pk DO
+      SET chunk_end = chunk_start + chunk_size - 1;
+
+      -- Codes for the values that are not in the OCPP 1.5 enums above
+      INSERT INTO meter_value_code (attribute, value)
+      SELECT x.attribute, x.value FROM (
+        SELECT 'READING_CONTEXT' AS attribute, reading_context COLLATE latin1_bin AS value FROM connector_meter_value
+        WHERE connector_pk BETWEEN chunk_start AND chunk_end AND reading_context IS NOT NULL
+        UNION
+        SELECT 'FORMAT' AS attribute, format COLLATE latin1_bin AS value FROM connector_meter_value
+        WHERE connector_pk BETWEEN chunk_start AND chunk_end AND format IS NOT NULL
+        UNION
+        SELECT 'MEASURAND' AS attribute, measurand COLLATE latin1_bin AS value FROM connector_meter_value
+        WHERE connector_pk BETWEEN chunk_start AND chunk_end AND measurand IS NOT NULL
+        UNION
+        SELECT 'LOCATION' AS attribute, location COLLATE latin1_bin AS value FROM connector_meter_value
+        WHERE connector_pk BETWEEN chunk_start AND chunk_end AND location IS NOT NULL
+        UNION
+        SELECT 'UNIT' AS attribute, unit COLLATE latin1_bin AS value FROM connector_meter_value
+        WHERE connector_pk BETWEEN chunk_start AND chunk_end AND unit IS NOT NULL
+      ) x
+      LEFT JOIN meter_value_code c ON c.attribute = x.attribute AND c.value = x.value
+      WHERE c.code IS NULL;
+
+      INSERT INTO connector_meter_value_new
+        (connector_pk, transaction_pk, value_timestamp, value_numeric, value_raw,
+         reading_context, format, measurand, location, unit)
+      SELECT mv.connector_pk, mv.transaction_pk, mv.value_timestamp,
+             IF(is_numeric, CAST(mv.value AS DECIMAL(18,4)), NULL),
+             IF(is_numeric, NULL, mv.value),
+             rc.code, f.code, m.code, l.code, u.code
+      FROM (
+        SELECT *, ((format IS NULL OR format <> 'SignedData')
+                   AND value REGEXP '^-?[0-9]{1,14}(\\.[0-9]{1,4})?$') AS is_numeric
+        FROM connector_meter_value
+        WHERE connector_pk BETWEEN chunk_start AND chunk_end
+      ) mv
+      LEFT JOIN meter_value_code rc
+        ON rc.attribute = 'READING_CONTEXT' AND rc.value = mv.reading_context COLLATE latin1_bin
+      LEFT JOIN meter_value_code f ON f.attribute = 'FORMAT' AND f.value = mv.format COLLATE latin1_bin
+      LEFT JOIN meter_value_code m ON m.attribute = 'MEASURAND' AND m.value = mv.measurand COLLATE latin1_bin
+      LEFT JOIN meter_value_code l ON l.attribute = 'LOCATION' AND l.value = mv.location COLLATE latin1_bin
+      LEFT JOIN meter_value_code u ON u.attribute = 'UNIT' AND u.value = mv.unit COLLATE latin1_bin;
+
+      COMMIT;
+      SET chunk_start = chunk_end + 1;
+    END WHILE;
+
+    SELECT COUNT(*) INTO old_count FROM connector_meter_value;
+    SELECT COUNT(*) INTO new_count FROM connector_meter_value_new;
+
+    IF old_count <> new_count THEN
+      SET message = CONCAT('connector_meter_value: ', old_count, ' rows, but ', new_count, ' copied');
+      SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = message;
+    END IF;
+  END ;;
+DELIMITER ;
+
+-- Fails, if not all rows were copied (see above)
+CALL migrate_connector_meter_value();
+
+DROP PROCEDURE `migrate_connector_meter_value`;
+
+DROP TABLE connector_meter_value;
+
+RENAME TABLE connector_meter_value_new TO connector_meter_value;
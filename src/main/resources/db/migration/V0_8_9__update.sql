@@ -0,0 +1,6 @@
+--
+-- The statistics of the home page are kept in memory and counted with plain queries (see StatisticsCache).
+-- The procedure is not called anymore.
+--
+
+DROP PROCEDURE IF EXISTS `get_stats`;
@@ -1,10 +1,10 @@
 <%@ include file="00-header.jsp" %>
 <div class="error">
     <h3>Error:</h3>
-    <p>${exception}</p>
+    <p><c:out value="${exception}"/></p>
     <c:if test="${not empty exception.cause}">
         <h3>Reason:</h3>
-        <p>${exception.cause}</p>
+        <p><c:out value="${exception.cause}"/></p>
     </c:if>
     <br>
     <p>You can <a href="javascript:window.history.back()">go back</a> or, for more detail, <a href="/steve/manager/log">view the log</a></p>
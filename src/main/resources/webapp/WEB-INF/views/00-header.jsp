@@ -1,5 +1,6 @@
 <%@ page contentType="text/html" pageEncoding="utf-8" language="java" trimDirectiveWhitespaces="true" %>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/functions" prefix="fn" %>
 <%@ taglib uri="http://www.springframework.org/tags" prefix="spring" %>
 <%@ taglib uri="http://www.springframework.org/tags/form" prefix="form" %>
 <!DOCTYPE html>
@@ -41,6 +42,7 @@
                             <li><a href="/steve/manager/operations/v1.2">OCPP v1.2</a></li>
                             <li><a href="/steve/manager/operations/v1.5">OCPP v1.5</a></li>
                             <li><a href="/steve/manager/operations/tasks">Tasks</a></li>
+                            <li><a href="/steve/manager/home/ocppActionStats">Statistics</a></li>
                         </ul>
                     </li>
                     <li><a href="/steve/manager/settings">SETTINGS</a></li>
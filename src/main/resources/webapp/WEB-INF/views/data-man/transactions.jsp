@@ -55,8 +55,15 @@ Transactions
                 <td><form:input path="to" id="intervalPeriodTypeTo" cssClass="dateTimePicker"/></td>
             </tr>
             <tr>
-                <td>Get as CSV?:</td>
-                <td><form:checkbox path="returnCSV"/></td>
+                <td>Export as:</td>
+                <td><form:select path="exportType">
+                        <form:options items="${exportType}" itemLabel="value"/>
+                    </form:select>
+                </td>
+            </tr>
+            <tr>
+                <td>Export with meter values?:</td>
+                <td><form:checkbox path="includeMeterValues"/></td>
             </tr>
             <tr>
                 <td></td>
@@ -0,0 +1,39 @@
+<%@ include file="00-header.jsp" %>
+<c:url var="enableUrl" value="/manager/frameTrace/enable"><c:param name="chargeBoxId" value="${chargeBoxId}"/></c:url>
+<c:url var="disableUrl" value="/manager/frameTrace/disable"><c:param name="chargeBoxId" value="${chargeBoxId}"/></c:url>
+<div class="content"><div>
+<section><span>
+Frame Trace of <c:out value="${chargeBoxId}"/>
+    <a class="tooltip" href="#"><img src="/steve/static/images/info.png" style="vertical-align:middle">
+        <span>The last WebSocket frames of the charge point, from oldest to newest.
+            The frames are only kept in memory, while tracing is switched on.</span>
+    </a>
+</span></section>
+    <c:choose>
+        <c:when test="${enabled}">
+            <form:form action="${fn:escapeXml(disableUrl)}">
+                <input type="submit" value="Switch Off">
+            </form:form>
+        </c:when>
+        <c:otherwise>
+            <form:form action="${fn:escapeXml(enableUrl)}">
+                <input type="submit" value="Switch On">
+            </form:form>
+        </c:otherwise>
+    </c:choose>
+    <table class="res">
+        <thead><tr><th>Date/Time</th><th>Session ID</th><th>Direction</th><th>Kind</th><th>Length</th><th>Payload</th></tr></thead>
+        <tbody>
+        <c:forEach items="${frameList}" var="frame">
+            <tr><td>${frame.dateTime}</td>
+                <td>${frame.sessionId}</td>
+                <td>${frame.direction}</td>
+                <td>${frame.kind}</td>
+                <td>${frame.length}</td>
+                <td><c:out value="${frame.payload}"/></td>
+            </tr>
+        </c:forEach>
+        </tbody>
+    </table>
+</div></div>
+<%@ include file="00-footer.jsp" %>
@@ -0,0 +1,20 @@
+<%@ include file="00-header.jsp" %>
+<div class="content"><div>
+<section><span>
+Frame Traces of JSON Charge Points
+    <a class="tooltip" href="#"><img src="/steve/static/images/info.png" style="vertical-align:middle">
+        <span>Charge points, for which the last WebSocket frames are traced in memory.
+            Tracing can be switched on from the connection status page.</span>
+    </a>
+</span></section>
+    <table class="res">
+        <thead><tr><th>ChargeBox ID</th></tr></thead>
+        <tbody>
+        <c:forEach items="${chargeBoxIdList}" var="chargeBoxId">
+            <c:url var="detailsUrl" value="/manager/frameTrace/details"><c:param name="chargeBoxId" value="${chargeBoxId}"/></c:url>
+            <tr><td><a href="${fn:escapeXml(detailsUrl)}"><c:out value="${chargeBoxId}"/></a></td></tr>
+        </c:forEach>
+        </tbody>
+    </table>
+</div></div>
+<%@ include file="00-footer.jsp" %>
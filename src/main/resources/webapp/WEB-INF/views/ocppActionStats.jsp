@@ -0,0 +1,26 @@
+<%@ include file="00-header.jsp" %>
+<div class="content"><div>
+<section><span>
+Processing Statistics of Incoming OCPP Requests
+    	<a class="tooltip" href="#"><img src="/steve/static/images/info.png" style="vertical-align:middle">
+            <span>The numbers are collected since the start of SteVe and include both SOAP and JSON charge points.
+                The percentiles are approximated with the upper bound of a histogram bucket.</span>
+        </a>
+</span></section>
+    <table class="res">
+        <thead><tr><th>OCPP Version</th><th>Action</th><th>Requests</th><th>Errors</th>
+            <th>Processing Time in &micro;s (Avg/p50/p99/Max)</th><th>SQL Statements per Request (Avg)</th></tr></thead>
+        <tbody>
+        <c:forEach items="${actionStatsList}" var="s">
+            <tr><td>${s.version.value}</td>
+                <td>${s.action}</td>
+                <td>${s.count}</td>
+                <td>${s.errorCount}</td>
+                <td>${s.avgMicros} / ${s.p50Micros} / ${s.p99Micros} / ${s.maxMicros}</td>
+                <td>${s.avgQueries}</td>
+            </tr>
+        </c:forEach>
+        </tbody>
+    </table>
+</div></div>
+<%@ include file="00-footer.jsp" %>
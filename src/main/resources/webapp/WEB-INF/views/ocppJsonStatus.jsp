@@ -8,16 +8,73 @@ Connection Status for JSON Charge Points
         </a>
 </span></section>
     <table class="res">
-        <thead><tr><th>ChargeBox ID</th><th>OCPP Version</th><th>Connected Since</th><th>Connection Duration</th></tr></thead>
+        <thead><tr><th>ChargeBox ID</th><th>OCPP Version</th><th>Connected Since</th><th>Connection Duration</th><c:if test="${mailboxStats.enabled}"><th>Mailbox Depth</th></c:if>
+            <th>Outbound Queue (Current/Max)</th><th>Dropped</th><th>Send Latency in ms (Avg/Max)</th>
+            <th>Compression (Size %/Saved Bytes/CPU ms)</th><th>Trace</th></tr></thead>
         <tbody>
         <c:forEach items="${ocppJsonStatusList}" var="status">
             <tr><td>${status.chargeBoxId}</td>
                 <td>${status.version.value}</td>
                 <td>${status.connectedSince}</td>
                 <td>${status.connectionDuration}</td>
+                <c:if test="${mailboxStats.enabled}"><td>${status.mailboxDepth}</td></c:if>
+                <td>${status.outboundDepth} / ${status.outboundMaxDepth}</td>
+                <td>${status.outboundDropped}</td>
+                <td>${status.sendLatencyAvgMillis} / ${status.sendLatencyMaxMillis}</td>
+                <td><c:choose><c:when test="${status.compressed}">${status.compressionRatioPercent} / ${status.compressionSavedBytes} / ${status.compressionCpuMillis}</c:when><c:otherwise>Off</c:otherwise></c:choose></td>
+                <c:url var="traceUrl" value="/manager/frameTrace/details"><c:param name="chargeBoxId" value="${status.chargeBoxId}"/></c:url>
+                <td><a href="${fn:escapeXml(traceUrl)}">Frames</a></td>
             </tr>
         </c:forEach>
         </tbody>
     </table>
+<c:if test="${mailboxStats.enabled}">
+<section><span>Mailboxes of Incoming Messages</span></section>
+    <table class="res">
+        <thead><tr><th>Workers (Active/Total)</th><th>Mailboxes</th><th>Pending Messages (Total/Max)</th>
+            <th>Processed Messages</th><th>Rejected Messages</th><th>Wait Time in &micro;s (Avg/Max)</th></tr></thead>
+        <tbody>
+        <tr><td>${mailboxStats.activeWorkers} / ${mailboxStats.workerThreads}</td>
+            <td>${mailboxStats.mailboxes}</td>
+            <td>${mailboxStats.totalDepth} / ${mailboxStats.maxDepth}</td>
+            <td>${mailboxStats.processed}</td>
+            <td>${mailboxStats.rejected}</td>
+            <td>${mailboxStats.avgWaitMicros} / ${mailboxStats.maxWaitMicros}</td>
+        </tr>
+        </tbody>
+    </table>
+</c:if>
+<section><span>Admission Control</span></section>
+    <table class="res">
+        <thead><tr><th>Handshake Limit (Global/Per IP)</th><th>Tracked IPs</th><th>Handshakes (Accepted/Deferred)</th>
+            <th>Concurrent BootNotifications (Active/Max)</th><th>BootNotifications (Accepted/Deferred)</th></tr></thead>
+        <tbody>
+        <tr><td>${admissionStats.handshakeLimited ? 'On' : 'Off'} / ${admissionStats.perIpLimited ? 'On' : 'Off'}</td>
+            <td>${admissionStats.trackedIps}</td>
+            <td>${admissionStats.handshakesAccepted} / ${admissionStats.handshakesDeferred}</td>
+            <td>${admissionStats.bootsActive} / ${admissionStats.bootConcurrency == 0 ? 'Unlimited' : admissionStats.bootConcurrency}</td>
+            <td>${admissionStats.bootsAccepted} / ${admissionStats.bootsDeferred}</td>
+        </tr>
+        </tbody>
+    </table>
+<c:if test="${meterValuesStats.enabled}">
+<section><span>Write-Behind of MeterValues</span></section>
+    <table class="res">
+        <thead><tr><th>Writers</th><th>Queued Requests (Current/Capacity)</th><th>Lag in ms</th>
+            <th>Requests (Queued/Written/Written Synchronously/Dropped)</th><th>Batches</th>
+            <th>Batch Size (Avg/Max)</th><th>Flush Latency in &micro;s (Avg/P99/Max)</th><th>Failed Flushes</th></tr></thead>
+        <tbody>
+        <tr><td>${meterValuesStats.writerThreads}</td>
+            <td>${meterValuesStats.queued} / ${meterValuesStats.queueCapacity}</td>
+            <td>${meterValuesStats.lagMillis}</td>
+            <td>${meterValuesStats.enqueued} / ${meterValuesStats.written} / ${meterValuesStats.writtenSynchronously} / ${meterValuesStats.dropped}</td>
+            <td>${meterValuesStats.batches}</td>
+            <td>${meterValuesStats.avgBatchSize} / ${meterValuesStats.maxBatchSize}</td>
+            <td>${meterValuesStats.flushAvgMicros} / ${meterValuesStats.flushP99Micros} / ${meterValuesStats.flushMaxMicros}</td>
+            <td>${meterValuesStats.flushErrors}</td>
+        </tr>
+        </tbody>
+    </table>
+</c:if>
 </div></div>
 <%@ include file="00-footer.jsp" %>
\ No newline at end of file
@@ -0,0 +1,200 @@
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.ocpp.ws.custom.RoundRobinStrategy;
+import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Stress test of the copy-on-write updates: Many threads add and remove sessions of the same chargeboxes, while
+ * others select sessions and take snapshots.
+ *
+ * @since 18.10.2026
+ */
+public class SessionContextStoreImplTest {
+
+    private static final int THREADS = 8;
+    private static final int CHARGE_BOXES = 4;
+    private static final int SESSIONS_PER_THREAD = 2_000;
+
+    private SessionContextStoreImpl store;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        store = new SessionContextStoreImpl(new RoundRobinStrategy());
+        executor = Executors.newFixedThreadPool(2 * THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentAddsAndRemovesAreNotLost() throws Exception {
+        List<Callable<Void>> adders = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            adders.add(() -> {
+                for (int i = 0; i < SESSIONS_PER_THREAD; i++) {
+                    store.add(chargeBoxId(i), session(thread + "-" + i));
+                }
+                return null;
+            });
+        }
+        runAll(adders);
+
+        Map<String, List<SessionContext>> snapshot = store.getSnapshot();
+        assertEquals(CHARGE_BOXES, snapshot.size());
+        for (List<SessionContext> list : snapshot.values()) {
+            assertEquals(THREADS * SESSIONS_PER_THREAD / CHARGE_BOXES, list.size());
+        }
+
+        List<Callable<Void>> removers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            removers.add(() -> {
+                for (int i = 0; i < SESSIONS_PER_THREAD; i++) {
+                    store.remove(chargeBoxId(i), session(thread + "-" + i));
+                }
+                return null;
+            });
+        }
+        runAll(removers);
+
+        assertEquals(0, store.getNumberOfChargeBoxes());
+        assertTrue(store.getSnapshot().isEmpty());
+    }
+
+    @Test
+    public void selectionDuringChurnAlwaysFindsASession() throws Exception {
+        // Stays connected the whole time, while the other sessions come and go
+        for (int c = 0; c < CHARGE_BOXES; c++) {
+            store.add(chargeBoxId(c), session("stable-" + c));
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> readers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                int i = 0;
+                while (!done.get()) {
+                    String chargeBoxId = chargeBoxId(i++);
+                    assertTrue(store.hasSession(chargeBoxId));
+                    assertNotNull(store.getSession(chargeBoxId));
+                    for (List<SessionContext> list : store.getSnapshot().values()) {
+                        assertFalse(list.isEmpty());
+                    }
+                }
+                return null;
+            }));
+        }
+
+        List<Callable<Void>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            writers.add(() -> {
+                start.await();
+                for (int i = 0; i < SESSIONS_PER_THREAD; i++) {
+                    WebSocketSession session = session(thread + "-" + i);
+                    store.add(chargeBoxId(i), session);
+                    store.remove(chargeBoxId(i), session);
+                }
+                return null;
+            });
+        }
+
+        List<Future<Void>> writerFutures = new ArrayList<>();
+        for (Callable<Void> writer : writers) {
+            writerFutures.add(executor.submit(writer));
+        }
+        start.countDown();
+
+        for (Future<Void> f : writerFutures) {
+            f.get(1, TimeUnit.MINUTES);
+        }
+        done.set(true);
+        for (Future<?> f : readers) {
+            f.get(1, TimeUnit.MINUTES);
+        }
+
+        Map<String, List<SessionContext>> snapshot = store.getSnapshot();
+        assertEquals(CHARGE_BOXES, snapshot.size());
+        for (List<SessionContext> list : snapshot.values()) {
+            assertEquals(1, list.size());
+        }
+    }
+
+    @Test
+    public void snapshotDoesNotChangeAfterwards() {
+        store.add("cb", session("1"));
+        Map<String, List<SessionContext>> snapshot = store.getSnapshot();
+
+        store.add("cb", session("2"));
+        store.add("other", session("3"));
+        store.remove("cb", session("1"));
+
+        assertEquals(1, snapshot.size());
+        assertEquals("1", snapshot.get("cb").get(0).getSession().getId());
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private void runAll(List<Callable<Void>> tasks) throws Exception {
+        for (Future<Void> f : executor.invokeAll(tasks)) {
+            f.get(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static String chargeBoxId(int i) {
+        return "cb" + (i % CHARGE_BOXES);
+    }
+
+    /**
+     * The store only uses the id of a session
+     */
+    private static WebSocketSession session(String id) {
+        return (WebSocketSession) Proxy.newProxyInstance(
+                WebSocketSession.class.getClassLoader(),
+                new Class<?>[] {WebSocketSession.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return id;
+                        case "hashCode":
+                            return id.hashCode();
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "session-" + id;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
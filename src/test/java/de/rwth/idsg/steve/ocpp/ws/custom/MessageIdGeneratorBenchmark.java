@@ -0,0 +1,80 @@
+package de.rwth.idsg.steve.ocpp.ws.custom;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the message id generators, with one thread and with several threads generating
+ * ids at the same time (as a request to many charge points does). Also reports the id length.
+ *
+ * Usage: MessageIdGeneratorBenchmark [idsPerThread]
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public final class MessageIdGeneratorBenchmark {
+    private MessageIdGeneratorBenchmark() { }
+
+    private static final int[] THREAD_COUNTS = {1, 4, 16};
+
+    // Keeps the results reachable, so that the work is not optimized away
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        int idsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        MessageIdGenerator counter = new CounterMessageIdGenerator();
+        MessageIdGenerator uuid = new UuidMessageIdGenerator();
+
+        // Warm-up
+        run(counter, 4, idsPerThread / 10);
+        run(uuid, 4, idsPerThread / 10);
+
+        log.info("Id length: COUNTER {} chars, UUID {} chars", counter.next().length(), uuid.next().length());
+        for (int threads : THREAD_COUNTS) {
+            log.info("{} thread(s): COUNTER {} ids/s, UUID {} ids/s", threads,
+                    String.format("%,d", run(counter, threads, idsPerThread)),
+                    String.format("%,d", run(uuid, threads, idsPerThread)));
+        }
+    }
+
+    /**
+     * @return ids per second over all threads
+     */
+    private static long run(MessageIdGenerator generator, int threads, int idsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int local = 0;
+                    for (int i = 0; i < idsPerThread; i++) {
+                        local += generator.next().length();
+                    }
+                    return local;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Integer> f : futures) {
+                sink += f.get();
+            }
+            long nanos = Math.max(1, System.nanoTime() - begin);
+
+            return (long) threads * idsPerThread * TimeUnit.SECONDS.toNanos(1) / nanos;
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package de.rwth.idsg.steve.ocpp.ws.pipeline;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import de.rwth.idsg.steve.config.WebSocketConfiguration;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways of binding the payload of an incoming OCPP-J call: Reading it into a JsonNode tree and
+ * binding the tree (before), and binding it directly from the parser with a cached ObjectReader (Deserializer).
+ * Reports the throughput and the bytes allocated per message, for a small and a large message of OCPP 1.2 and 1.5.
+ *
+ * Usage: DeserializerBenchmark [iterations]
+ *
+ * Runs in a single thread with the ObjectMapper of the application. The allocations are the ones of the current
+ * thread, as reported by the JVM (HotSpot).
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public final class DeserializerBenchmark {
+    private DeserializerBenchmark() { }
+
+    private static final int WARM_UP = 20_000;
+
+    private static final String STATUS_NOTIFICATION_12 =
+            "[2,\"19223201\",\"StatusNotification\",{\"connectorId\":1,\"status\":\"Available\","
+            + "\"errorCode\":\"NoError\"}]";
+
+    private static final String STATUS_NOTIFICATION_15 =
+            "[2,\"19223201\",\"StatusNotification\",{\"connectorId\":1,\"status\":\"Available\","
+            + "\"errorCode\":\"NoError\",\"timestamp\":\"2015-04-27T10:15:30Z\"}]";
+
+    private static final ObjectMapper MAPPER = new WebSocketConfiguration().objectMapper();
+
+    // Keeps the results reachable, so that the work is not optimized away
+    private static volatile int sink;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        run("OCPP 1.2 StatusNotification", STATUS_NOTIFICATION_12,
+            ocpp.cs._2010._08.StatusNotificationRequest.class, iterations);
+        run("OCPP 1.2 MeterValues (100 samples)", meterValues12(100),
+            ocpp.cs._2010._08.MeterValuesRequest.class, iterations / 10);
+
+        run("OCPP 1.5 StatusNotification", STATUS_NOTIFICATION_15,
+            ocpp.cs._2012._06.StatusNotificationRequest.class, iterations);
+        run("OCPP 1.5 MeterValues (100 samples)", meterValues15(100),
+            ocpp.cs._2012._06.MeterValuesRequest.class, iterations / 10);
+    }
+
+    private static void run(String name, String message, Class<?> clazz, int iterations) throws IOException {
+        ObjectReader reader = MAPPER.reader(clazz);
+
+        // Same result both ways
+        if (!MAPPER.writeValueAsString(viaTree(message, clazz))
+                   .equals(MAPPER.writeValueAsString(direct(message, reader)))) {
+            throw new IllegalStateException("The payloads differ for " + name);
+        }
+
+        for (int i = 0; i < WARM_UP; i++) {
+            viaTree(message, clazz);
+            direct(message, reader);
+        }
+
+        Measurement before = measure(iterations, () -> viaTree(message, clazz));
+        Measurement after = measure(iterations, () -> direct(message, reader));
+
+        log.info("{}, {} bytes", name, message.length());
+        log.info("  Tree, then bind: {}", before);
+        log.info("  Direct binding:  {}", after);
+    }
+
+    // -------------------------------------------------------------------------
+    // The two variants. The parser is positioned at the payload, like in Deserializer
+    // -------------------------------------------------------------------------
+
+    private static Object viaTree(String message, Class<?> clazz) throws IOException {
+        try (JsonParser parser = toPayload(message)) {
+            JsonNode payload = parser.readValueAsTree();
+            return MAPPER.treeToValue(payload, clazz);
+        }
+    }
+
+    private static Object direct(String message, ObjectReader reader) throws IOException {
+        try (JsonParser parser = toPayload(message)) {
+            return reader.readValue(parser);
+        }
+    }
+
+    private static JsonParser toPayload(String message) throws IOException {
+        JsonParser parser = MAPPER.getFactory().createParser(message);
+        parser.nextToken(); // '['
+        parser.nextToken(); // message type
+        parser.nextToken(); // message id
+        parser.nextToken(); // action
+        parser.nextToken(); // payload
+        return parser;
+    }
+
+    // -------------------------------------------------------------------------
+    // Measurement
+    // -------------------------------------------------------------------------
+
+    private interface Task {
+        Object run() throws IOException;
+    }
+
+    private static Measurement measure(int iterations, Task task) throws IOException {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long bytesStart = bean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += task.run().hashCode() & 1;
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = bean.getThreadAllocatedBytes(threadId) - bytesStart;
+
+        return new Measurement(iterations * TimeUnit.SECONDS.toNanos(1) / Math.max(1, nanos),
+                               bytes / iterations);
+    }
+
+    private static String meterValues12(int samples) {
+        StringBuilder sb = new StringBuilder("[2,\"19223202\",\"MeterValues\",{\"connectorId\":1,\"values\":[");
+        for (int i = 0; i < samples; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"timestamp\":\"2015-04-27T10:")
+              .append(timeOf(i))
+              .append("Z\",\"value\":")
+              .append(1000 + i)
+              .append('}');
+        }
+        return sb.append("]}]").toString();
+    }
+
+    private static String meterValues15(int samples) {
+        StringBuilder sb = new StringBuilder("[2,\"19223202\",\"MeterValues\",{\"connectorId\":1,"
+                                             + "\"transactionId\":42,\"values\":[");
+        for (int i = 0; i < samples; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"timestamp\":\"2015-04-27T10:")
+              .append(timeOf(i))
+              .append("Z\",\"value\":[{\"value\":\"")
+              .append(1000 + i)
+              .append("\",\"context\":\"Sample.Periodic\",\"format\":\"Raw\","
+                      + "\"measurand\":\"Energy.Active.Import.Register\",\"location\":\"Outlet\",\"unit\":\"Wh\"}]}");
+        }
+        return sb.append("]}]").toString();
+    }
+
+    private static String timeOf(int i) {
+        return String.format("%02d:%02d", i / 60 % 60, i % 60);
+    }
+
+    private static final class Measurement {
+        private final long messagesPerSecond;
+        private final long bytesPerMessage;
+
+        private Measurement(long messagesPerSecond, long bytesPerMessage) {
+            this.messagesPerSecond = messagesPerSecond;
+            this.bytesPerMessage = bytesPerMessage;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d messages/s, %,d bytes allocated per message", messagesPerSecond,
+                                 bytesPerMessage);
+        }
+    }
+}
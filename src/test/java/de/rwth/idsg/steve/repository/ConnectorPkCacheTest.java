@@ -0,0 +1,104 @@
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.utils.QueryCounter;
+import org.jooq.DSLContext;
+import org.jooq.Record1;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultConfiguration;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.jooq.tools.jdbc.MockConnection;
+import org.jooq.tools.jdbc.MockDataProvider;
+import org.jooq.tools.jdbc.MockResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jooq.steve.db.tables.Connector.CONNECTOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Counts the statements of getOrInsert against a mocked DB (see QueryCounter): A cached connector needs none,
+ * instead of the INSERT IGNORE and the SELECT per message without the cache.
+ *
+ * @since 18.10.2026
+ */
+public class ConnectorPkCacheTest {
+
+    private static final int CONNECTOR_PK = 42;
+
+    private final ConnectorPkCache cache = new ConnectorPkCache();
+
+    // Rows affected by the INSERT IGNORE: 1 = new connector, 0 = existed before
+    private final AtomicInteger insertCount = new AtomicInteger(0);
+
+    private DSLContext ctx;
+
+    @Before
+    public void setUp() {
+        MockDataProvider provider = context -> {
+            if (context.sql().toLowerCase().startsWith("insert")) {
+                return new MockResult[] {new MockResult(insertCount.get(), null)};
+            }
+
+            DSLContext create = DSL.using(SQLDialect.MYSQL);
+            Result<Record1<Integer>> result = create.newResult(CONNECTOR.CONNECTOR_PK);
+            Record1<Integer> record = create.newRecord(CONNECTOR.CONNECTOR_PK);
+            record.setValue(CONNECTOR.CONNECTOR_PK, CONNECTOR_PK);
+            result.add(record);
+            return new MockResult[] {new MockResult(1, result)};
+        };
+
+        ctx = DSL.using(new DefaultConfiguration()
+                .set(SQLDialect.MYSQL)
+                .set(new MockConnection(provider))
+                .set(new DefaultExecuteListenerProvider(new QueryCounter())));
+    }
+
+    @Test
+    public void existingConnectorIsQueriedOnce() {
+        assertEquals(2, statementsOf("cb", 1));
+        assertEquals(0, statementsOf("cb", 1));
+
+        // The column is case-insensitive
+        assertEquals(0, statementsOf("CB", 1));
+        assertEquals(2, statementsOf("cb", 2));
+    }
+
+    @Test
+    public void newConnectorIsNotCachedInItsTransaction() {
+        insertCount.set(1);
+        assertEquals(2, statementsOf("cb", 1));
+
+        insertCount.set(0);
+        assertEquals(2, statementsOf("cb", 1));
+        assertEquals(0, statementsOf("cb", 1));
+    }
+
+    @Test
+    public void invalidateRemovesTheConnectors() {
+        statementsOf("cb", 1);
+        cache.invalidate("cb");
+
+        assertNull(cache.get("cb", 1));
+        assertEquals(2, statementsOf("cb", 1));
+    }
+
+    @Test
+    public void putAfterConcurrentInvalidateIsDiscarded() {
+        long versionBefore = cache.getVersion();
+        cache.invalidate("cb");
+        cache.put("cb", 1, CONNECTOR_PK, versionBefore);
+
+        assertNull(cache.get("cb", 1));
+    }
+
+    private long statementsOf(String chargeBoxId, int connectorId) {
+        long before = QueryCounter.current();
+        assertEquals(CONNECTOR_PK, cache.getOrInsert(ctx, chargeBoxId, connectorId));
+        return QueryCounter.current() - before;
+    }
+}
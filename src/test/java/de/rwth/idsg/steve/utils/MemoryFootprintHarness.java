@@ -0,0 +1,153 @@
+package de.rwth.idsg.steve.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WebSocketAdapter;
+import org.eclipse.jetty.websocket.client.ClientUpgradeRequest;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Measures the heap that a running SteVe retains per idle OCPP-J connection: Opens N connections, and compares
+ * the heap usage of the server (after GC) before and after. The connections stay idle, i.e. no messages are sent.
+ *
+ * Usage: MemoryFootprintHarness <baseUrl> <count> <chargeBoxIdPrefix> <webUser> <webPassword> [serverPid]
+ * e.g.   MemoryFootprintHarness http://127.0.0.1:8080 10000 bench admin 1234 4711
+ *
+ * The server does not trigger the garbage collector itself, but reports the heap usage as of the last collection.
+ * If the harness runs on the same machine, it triggers a full GC with "jcmd serverPid GC.run" before every
+ * measurement. Otherwise, run this command on the server by hand when asked to.
+ *
+ * The chargeBoxIds prefix1 ... prefixN must be registered beforehand, and the admission control of handshakes
+ * should be disabled. A client machine can open roughly 28k connections per source IP, since every connection
+ * takes a local port. For 100k connections, run the harness on several machines (with distinct prefixes) and
+ * sum up.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public final class MemoryFootprintHarness {
+    private MemoryFootprintHarness() { }
+
+    private static final String MEMORY_PATH = "/manager/home/memoryFootprint";
+    private static final String WEBSOCKET_PATH = "/websocket/CentralSystemService/";
+    private static final String HEAP = "heapAfterGcBytes";
+
+    // Connect in batches, not to open all handshakes at once
+    private static final int BATCH_SIZE = 100;
+    private static final long SETTLE_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 5 && args.length != 6) {
+            log.error("Usage: MemoryFootprintHarness <baseUrl> <count> <chargeBoxIdPrefix> <webUser> <webPassword> "
+                    + "[serverPid]");
+            return;
+        }
+
+        String baseUrl = args[0] + SteveConfiguration.CONTEXT_PATH;
+        int count = Integer.parseInt(args[1]);
+        String prefix = args[2];
+        String auth = "Basic " + Base64.getEncoder().encodeToString((args[3] + ":" + args[4]).getBytes(UTF_8));
+        String serverPid = args.length == 6 ? args[5] : null;
+
+        ObjectMapper mapper = new ObjectMapper();
+
+        runServerGc(serverPid);
+        JsonNode before = fetchFootprint(mapper, baseUrl, auth);
+        log.info("Before: {} bytes heap, {} connections", before.get(HEAP), before.get("connections"));
+
+        WebSocketClient client = new WebSocketClient();
+        client.setMaxIdleTimeout(TimeUnit.HOURS.toMillis(1));
+        client.start();
+
+        List<Session> sessions = new ArrayList<>(count);
+        int failed = 0;
+        try {
+            String wsBase = baseUrl.replaceFirst("^http", "ws") + WEBSOCKET_PATH;
+
+            for (int start = 1; start <= count; start += BATCH_SIZE) {
+                List<Future<Session>> batch = new ArrayList<>(BATCH_SIZE);
+                for (int i = start; i < start + BATCH_SIZE && i <= count; i++) {
+                    ClientUpgradeRequest request = new ClientUpgradeRequest();
+                    request.setSubProtocols(OcppVersion.V_15.getValue());
+                    batch.add(client.connect(new WebSocketAdapter(), new URI(wsBase + prefix + i), request));
+                }
+
+                for (Future<Session> f : batch) {
+                    try {
+                        sessions.add(f.get(30, TimeUnit.SECONDS));
+                    } catch (Exception e) {
+                        failed++;
+                    }
+                }
+            }
+
+            log.info("Opened {} connections, {} failed. Waiting {} seconds to settle", sessions.size(), failed,
+                    SETTLE_SECONDS);
+            TimeUnit.SECONDS.sleep(SETTLE_SECONDS);
+
+            runServerGc(serverPid);
+            JsonNode after = fetchFootprint(mapper, baseUrl, auth);
+            long heapDelta = after.get(HEAP).asLong() - before.get(HEAP).asLong();
+            int connDelta = after.get("connections").asInt() - before.get("connections").asInt();
+
+            log.info("After: {} bytes heap, {} connections", after.get(HEAP), after.get("connections"));
+            log.info("Compact mode: {}", after.get("compactMode"));
+            if (connDelta > 0) {
+                log.info("Retained per connection: ~{} bytes ({} bytes over {} connections)",
+                        heapDelta / connDelta, heapDelta, connDelta);
+            } else {
+                log.warn("No connection was registered at the server");
+            }
+
+        } finally {
+            for (Session s : sessions) {
+                s.close();
+            }
+            client.stop();
+        }
+    }
+
+    private static void runServerGc(String serverPid) throws Exception {
+        if (serverPid == null) {
+            log.info("Run 'jcmd <serverPid> GC.run' on the server now. Continuing in {} seconds", SETTLE_SECONDS);
+            TimeUnit.SECONDS.sleep(SETTLE_SECONDS);
+            return;
+        }
+
+        Process gc = new ProcessBuilder("jcmd", serverPid, "GC.run").inheritIO().start();
+        if (gc.waitFor() != 0) {
+            log.warn("jcmd failed, the heap usage might include garbage");
+        }
+    }
+
+    private static JsonNode fetchFootprint(ObjectMapper mapper, String baseUrl, String auth) throws IOException {
+        HttpURLConnection con = (HttpURLConnection) new URL(baseUrl + MEMORY_PATH).openConnection();
+        try {
+            con.setRequestProperty("Authorization", auth);
+            con.setRequestProperty("Accept", "application/json");
+
+            try (InputStream is = con.getInputStream()) {
+                return mapper.readTree(is);
+            }
+        } finally {
+            con.disconnect();
+        }
+    }
+}
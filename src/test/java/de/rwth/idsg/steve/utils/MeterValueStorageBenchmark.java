@@ -0,0 +1,248 @@
+package de.rwth.idsg.steve.utils;
+
+import de.rwth.idsg.steve.repository.MeterValueCodes;
+import de.rwth.idsg.steve.repository.MeterValueCodes.Attribute;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.InsertValuesStepN;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the storage layout of connector_meter_value before and after migration V0_8_8: Inserts the same
+ * synthetic meter values into a scratch table of each layout, and reports the insert rate and the on-disk size
+ * (data and indexes, as reported by InnoDB after ANALYZE TABLE, i.e. an estimate in whole pages).
+ *
+ * Usage: MeterValueStorageBenchmark <jdbcUrl> <dbUser> <dbPassword> <rows>
+ * e.g.   MeterValueStorageBenchmark jdbc:mysql://localhost:3306/stevedb steve changeme 1000000
+ *
+ * The samples look like the periodic ones of a charging session: energy register, power, current and voltage,
+ * with one percent signed data. The scratch tables have no foreign keys, and are dropped at the end.
+ * The codes of the new layout are resolved with MeterValueCodes, i.e. the schema must already be migrated.
+ * The lookup table has a few dozen rows, and is not included.
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public final class MeterValueStorageBenchmark {
+    private MeterValueStorageBenchmark() { }
+
+    private static final String OLD_TABLE = "bench_meter_value_old";
+    private static final String NEW_TABLE = "bench_meter_value_new";
+
+    // Same as the write path
+    private static final int ROWS_PER_INSERT = 1000;
+
+    private static final String READING_CONTEXT = "Sample.Periodic";
+    private static final String LOCATION = "Outlet";
+
+    private static final String[][] SAMPLES = {
+        // measurand, unit
+        {"Energy.Active.Import.Register", "Wh"},
+        {"Power.Active.Import", "W"},
+        {"Current.Import", "Amp"},
+        {"Voltage", "Volt"},
+    };
+
+    private static final String OLD_DDL =
+            "CREATE TABLE " + OLD_TABLE + " ("
+            + " connector_pk INT(11) UNSIGNED NOT NULL,"
+            + " transaction_pk INT(10) UNSIGNED DEFAULT NULL,"
+            + " value_timestamp TIMESTAMP(6) NULL DEFAULT NULL,"
+            + " value VARCHAR(255) DEFAULT NULL,"
+            + " reading_context VARCHAR(255) DEFAULT NULL,"
+            + " format VARCHAR(255) DEFAULT NULL,"
+            + " measurand VARCHAR(255) DEFAULT NULL,"
+            + " location VARCHAR(255) DEFAULT NULL,"
+            + " unit VARCHAR(255) DEFAULT NULL,"
+            + " KEY (connector_pk), KEY (transaction_pk)"
+            + ") ENGINE=InnoDB DEFAULT CHARSET=latin1";
+
+    private static final String NEW_DDL =
+            "CREATE TABLE " + NEW_TABLE + " ("
+            + " connector_pk INT(11) UNSIGNED NOT NULL,"
+            + " transaction_pk INT(10) UNSIGNED DEFAULT NULL,"
+            + " value_timestamp TIMESTAMP(3) NULL DEFAULT NULL,"
+            + " value_numeric DECIMAL(18,4) DEFAULT NULL,"
+            + " value_raw VARCHAR(255) DEFAULT NULL,"
+            + " reading_context SMALLINT DEFAULT NULL,"
+            + " format SMALLINT DEFAULT NULL,"
+            + " measurand SMALLINT DEFAULT NULL,"
+            + " location SMALLINT DEFAULT NULL,"
+            + " unit SMALLINT DEFAULT NULL,"
+            + " KEY (connector_pk), KEY (transaction_pk)"
+            + ") ENGINE=InnoDB DEFAULT CHARSET=latin1";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            log.error("Usage: MeterValueStorageBenchmark <jdbcUrl> <dbUser> <dbPassword> <rows>");
+            return;
+        }
+
+        int rows = Integer.parseInt(args[3]);
+
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            DSLContext ctx = DSL.using(connection, SQLDialect.MYSQL);
+
+            List<Sample> samples = generate(rows, new MeterValueCodes(), ctx);
+
+            Measurement before = run(ctx, OLD_TABLE, OLD_DDL, samples, false);
+            Measurement after = run(ctx, NEW_TABLE, NEW_DDL, samples, true);
+
+            log.info("Rows: {}", rows);
+            log.info("Before: {}", before);
+            log.info("After:  {}", after);
+            log.info("Size: {}% of before, insert rate: {}% of before",
+                    after.bytes * 100 / Math.max(1, before.bytes),
+                    after.rowsPerSecond * 100 / Math.max(1, before.rowsPerSecond));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static Measurement run(DSLContext ctx, String tableName, String ddl, List<Sample> samples,
+                                   boolean compact) {
+        ctx.execute("DROP TABLE IF EXISTS " + tableName);
+        ctx.execute(ddl);
+
+        try {
+            Table<Record> table = DSL.table(DSL.name(tableName));
+            List<Field<Object>> fields = new ArrayList<>();
+            for (String name : compact ? newColumns() : oldColumns()) {
+                fields.add(DSL.field(DSL.name(name)));
+            }
+
+            long start = System.nanoTime();
+
+            InsertValuesStepN<Record> insert = null;
+            int rowCount = 0;
+            for (Sample s : samples) {
+                if (insert == null) {
+                    insert = ctx.insertInto(table, fields);
+                }
+                insert = insert.values(compact ? s.newRow : s.oldRow);
+
+                if (++rowCount == ROWS_PER_INSERT) {
+                    insert.execute();
+                    insert = null;
+                    rowCount = 0;
+                }
+            }
+            if (insert != null) {
+                insert.execute();
+            }
+
+            long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            ctx.execute("ANALYZE TABLE " + tableName);
+            Record size = ctx.resultQuery("SELECT data_length, index_length FROM information_schema.tables"
+                                          + " WHERE table_schema = DATABASE() AND table_name = ?", tableName)
+                             .fetchOne();
+
+            long data = size.getValue(0, Long.class);
+            long index = size.getValue(1, Long.class);
+            return new Measurement(samples.size() * 1000L / millis, data, index);
+
+        } finally {
+            ctx.execute("DROP TABLE IF EXISTS " + tableName);
+        }
+    }
+
+    private static String[] oldColumns() {
+        return new String[] {"connector_pk", "transaction_pk", "value_timestamp", "value",
+                "reading_context", "format", "measurand", "location", "unit"};
+    }
+
+    private static String[] newColumns() {
+        return new String[] {"connector_pk", "transaction_pk", "value_timestamp", "value_numeric", "value_raw",
+                "reading_context", "format", "measurand", "location", "unit"};
+    }
+
+    private static List<Sample> generate(int rows, MeterValueCodes codes, DSLContext ctx) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Sample> list = new ArrayList<>(rows);
+
+        // Same codes as the write path. They are looked up once, since the write path caches them.
+        Short readingContext = codes.getOrInsert(ctx, Attribute.READING_CONTEXT, READING_CONTEXT);
+        Short location = codes.getOrInsert(ctx, Attribute.LOCATION, LOCATION);
+        Short raw = codes.getOrInsert(ctx, Attribute.FORMAT, "Raw");
+        Short signedData = codes.getOrInsert(ctx, Attribute.FORMAT, "SignedData");
+
+        Short[][] sampleCodes = new Short[SAMPLES.length][];
+        for (int k = 0; k < SAMPLES.length; k++) {
+            sampleCodes[k] = new Short[] {
+                codes.getOrInsert(ctx, Attribute.MEASURAND, SAMPLES[k][0]),
+                codes.getOrInsert(ctx, Attribute.UNIT, SAMPLES[k][1])
+            };
+        }
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            int k = i % SAMPLES.length;
+            int connectorPk = 1 + random.nextInt(1000);
+            int transactionPk = 1 + random.nextInt(100000);
+            Timestamp ts = new Timestamp(now - TimeUnit.SECONDS.toMillis(rows - i));
+
+            boolean signed = random.nextInt(100) == 0;
+            String value = signed
+                    ? Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong())
+                    : BigDecimal.valueOf(random.nextInt(10000000), 1).toPlainString();
+
+            String format = signed ? "SignedData" : "Raw";
+
+            Object[] oldRow = {connectorPk, transactionPk, ts, value,
+                    READING_CONTEXT, format, SAMPLES[k][0], LOCATION, SAMPLES[k][1]};
+
+            BigDecimal numeric = MeterValueCodes.toNumeric(value, format);
+            Object[] newRow = {connectorPk, transactionPk, ts, numeric, numeric == null ? value : null,
+                    readingContext, signed ? signedData : raw, sampleCodes[k][0], location, sampleCodes[k][1]};
+
+            list.add(new Sample(oldRow, newRow));
+        }
+        return list;
+    }
+
+    /**
+     * The same meter value as row of the old and of the new layout
+     */
+    @RequiredArgsConstructor
+    private static final class Sample {
+        private final Object[] oldRow;
+        private final Object[] newRow;
+    }
+
+    private static final class Measurement {
+        private final long rowsPerSecond;
+        private final long dataBytes;
+        private final long indexBytes;
+        private final long bytes;
+
+        private Measurement(long rowsPerSecond, long dataBytes, long indexBytes) {
+            this.rowsPerSecond = rowsPerSecond;
+            this.dataBytes = dataBytes;
+            this.indexBytes = indexBytes;
+            this.bytes = dataBytes + indexBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d rows/s, data %,d bytes, indexes %,d bytes", rowsPerSecond, dataBytes,
+                                 indexBytes);
+        }
+    }
+}
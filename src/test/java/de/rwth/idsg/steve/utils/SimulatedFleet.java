@@ -0,0 +1,140 @@
+package de.rwth.idsg.steve.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rwth.idsg.steve.SteveConfiguration;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WebSocketAdapter;
+import org.eclipse.jetty.websocket.client.ClientUpgradeRequest;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fleet of simulated OCPP 1.5 charge points, to measure the throughput of requests to multiple charge points:
+ * Opens N connections, and answers every call of SteVe with {"status":"Accepted"} after the given delay.
+ * Then, start an operation for all of them in the web UI. The task page shows the send rate and the progress.
+ *
+ * Usage: SimulatedFleet <baseUrl> <count> <chargeBoxIdPrefix> <responseDelayMillis> [durationSeconds]
+ * e.g.   SimulatedFleet http://127.0.0.1:8080 1000 bench 200 600
+ *
+ * The chargeBoxIds prefix1 ... prefixN must be registered beforehand. The answer fits the operations with a
+ * status only (e.g. ChangeConfiguration, Reset, ClearCache). The connections stay open for the given duration
+ * (default: 10 minutes).
+ *
+ * @since 18.10.2026
+ */
+@Slf4j
+public final class SimulatedFleet {
+    private SimulatedFleet() { }
+
+    private static final String WEBSOCKET_PATH = "/websocket/CentralSystemService/";
+    private static final String ACCEPTED = "{\"status\":\"Accepted\"}";
+
+    // Connect in batches, not to open all handshakes at once
+    private static final int BATCH_SIZE = 100;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final LongAdder ANSWERED = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4 && args.length != 5) {
+            log.error("Usage: SimulatedFleet <baseUrl> <count> <chargeBoxIdPrefix> <responseDelayMillis> "
+                    + "[durationSeconds]");
+            return;
+        }
+
+        String wsBase = (args[0] + SteveConfiguration.CONTEXT_PATH).replaceFirst("^http", "ws") + WEBSOCKET_PATH;
+        int count = Integer.parseInt(args[1]);
+        String prefix = args[2];
+        long delay = Long.parseLong(args[3]);
+        long duration = args.length == 5 ? Long.parseLong(args[4]) : TimeUnit.MINUTES.toSeconds(10);
+
+        ScheduledExecutorService responder = Executors.newScheduledThreadPool(4);
+
+        WebSocketClient client = new WebSocketClient();
+        client.setMaxIdleTimeout(TimeUnit.HOURS.toMillis(1));
+        client.start();
+
+        List<Session> sessions = new ArrayList<>(count);
+        try {
+            for (int start = 1; start <= count; start += BATCH_SIZE) {
+                List<Future<Session>> batch = new ArrayList<>(BATCH_SIZE);
+                for (int i = start; i < start + BATCH_SIZE && i <= count; i++) {
+                    ClientUpgradeRequest request = new ClientUpgradeRequest();
+                    request.setSubProtocols(OcppVersion.V_15.getValue());
+                    batch.add(client.connect(new ChargePoint(responder, delay), new URI(wsBase + prefix + i), request));
+                }
+
+                for (Future<Session> f : batch) {
+                    try {
+                        sessions.add(f.get(30, TimeUnit.SECONDS));
+                    } catch (Exception e) {
+                        log.warn("Connection failed: {}", e.getMessage());
+                    }
+                }
+            }
+
+            log.info("Opened {} of {} connections. Closing them in {} seconds", sessions.size(), count, duration);
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+            reporter.scheduleWithFixedDelay(() -> log.info("Answered {} calls", ANSWERED.sum()), 5, 5,
+                                            TimeUnit.SECONDS);
+            TimeUnit.SECONDS.sleep(duration);
+            reporter.shutdownNow();
+
+        } finally {
+            for (Session s : sessions) {
+                s.close();
+            }
+            client.stop();
+            responder.shutdownNow();
+        }
+    }
+
+    private static class ChargePoint extends WebSocketAdapter {
+        private final ScheduledExecutorService responder;
+        private final long delay;
+
+        ChargePoint(ScheduledExecutorService responder, long delay) {
+            this.responder = responder;
+            this.delay = delay;
+        }
+
+        @Override
+        public void onWebSocketText(String message) {
+            try {
+                JsonNode call = MAPPER.readTree(message);
+
+                // Only calls [2, messageId, action, payload] are answered
+                if (call.get(0).asInt() != 2) {
+                    return;
+                }
+
+                String answer = "[3,\"" + call.get(1).asText() + "\"," + ACCEPTED + "]";
+                responder.schedule(() -> send(answer), delay, TimeUnit.MILLISECONDS);
+
+            } catch (IOException e) {
+                log.error("Could not parse the message {}", message, e);
+            }
+        }
+
+        private void send(String answer) {
+            try {
+                getRemote().sendString(answer);
+                ANSWERED.increment();
+            } catch (IOException e) {
+                log.error("Could not send the answer", e);
+            }
+        }
+    }
+}